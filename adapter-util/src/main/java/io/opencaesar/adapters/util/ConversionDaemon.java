@@ -0,0 +1,153 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.adapters.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+
+import org.apache.log4j.ConsoleAppender;
+import org.apache.log4j.Logger;
+
+/**
+ * Serves conversion requests over a line protocol, one request at a time.
+ * 
+ * Each request is a line with the arguments of a conversion, separated by spaces (double quotes group an argument 
+ * with spaces). The response is a line with "OK" and the elapsed milliseconds, or "ERROR" and a message. The line 
+ * "exit" ends the session and "shutdown" also stops listening for new ones.
+ */
+public class ConversionDaemon {
+
+	/**
+	 * Runs one conversion request
+	 */
+	@FunctionalInterface
+	public interface Handler {
+		void handle(String[] args) throws Exception;
+	}
+
+	private final Handler handler;
+	private final Logger logger;
+
+	public ConversionDaemon(Handler handler, Logger logger) {
+		this.handler = handler;
+		this.logger = logger;
+	}
+
+	/**
+	 * Serves the requests of a local socket on the given port (and of its following connections)
+	 */
+	public void serve(int port) throws IOException {
+		try (ServerSocket server = new ServerSocket(port, 0, InetAddress.getLoopbackAddress())) {
+			logger.info("Listening on " + server.getLocalSocketAddress());
+			boolean listening = true;
+			while (listening) {
+				try (Socket socket = server.accept()) {
+					listening = serve(socket.getInputStream(), new PrintStream(socket.getOutputStream(), true, StandardCharsets.UTF_8));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Serves the requests of stdin, replying on stdout after moving the console logging (and any other output) to stderr
+	 */
+	public void serveConsole() throws IOException {
+		final PrintStream replies = System.out;
+		System.setOut(System.err);
+		final Enumeration<?> appenders = Logger.getRootLogger().getAllAppenders();
+		while (appenders.hasMoreElements()) {
+			final Object appender = appenders.nextElement();
+			if (appender instanceof ConsoleAppender) {
+				((ConsoleAppender)appender).setTarget(ConsoleAppender.SYSTEM_ERR);
+				((ConsoleAppender)appender).activateOptions();
+			}
+		}
+		serve(System.in, replies);
+	}
+
+	/**
+	 * Serves the requests of the given stream until it ends
+	 * 
+	 * @return false if the session asked to shut down
+	 */
+	public boolean serve(InputStream in, PrintStream out) throws IOException {
+		final BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+		String line;
+		while ((line = reader.readLine()) != null) {
+			line = line.trim();
+			if (line.isEmpty()) {
+				continue;
+			} else if (line.equals("exit")) {
+				break;
+			} else if (line.equals("shutdown")) {
+				return false;
+			}
+			out.println(handle(line));
+			out.flush();
+		}
+		return true;
+	}
+
+	private String handle(String line) {
+		final long start = System.nanoTime();
+		try {
+			handler.handle(tokenize(line));
+			return "OK " + (System.nanoTime() - start) / 1000000;
+		} catch (Exception e) {
+			logger.error("Request failed: " + line, e);
+			return "ERROR " + String.valueOf(e.getMessage()).replace('\n', ' ');
+		}
+	}
+
+	static String[] tokenize(String line) {
+		final List<String> args = new ArrayList<>();
+		final StringBuilder arg = new StringBuilder();
+		boolean quoted = false;
+		boolean pending = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (c == '"') {
+				quoted = !quoted;
+				pending = true;
+			} else if (Character.isWhitespace(c) && !quoted) {
+				if (pending) {
+					args.add(arg.toString());
+					arg.setLength(0);
+					pending = false;
+				}
+			} else {
+				arg.append(c);
+				pending = true;
+			}
+		}
+		if (pending) {
+			args.add(arg.toString());
+		}
+		return args.toArray(new String[args.size()]);
+	}
+}
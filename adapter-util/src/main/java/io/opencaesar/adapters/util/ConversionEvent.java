@@ -0,0 +1,56 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.adapters.util;
+
+import org.eclipse.emf.ecore.EClass;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JFR event spanning the conversion of one element (by either adapter, which the EClass tells apart).
+ * 
+ * The event is only filled in when {@link #shouldCommit()} is true, so when no recording is 
+ * running, the cost of an event is its (usually eliminated) allocation.
+ */
+@Name("io.opencaesar.adapters.Conversion")
+@Label("Conversion")
+@Category({"OpenCAESAR", "Adapters"})
+@Description("Conversion of an element between UML and OML")
+@StackTrace(false)
+public class ConversionEvent extends jdk.jfr.Event {
+
+	@Label("Operation")
+	public String operation;
+
+	@Label("EClass")
+	public String eClass;
+
+	@Label("IRI")
+	public String iri;
+
+	public void commit(String operation, EClass eClass, String iri) {
+		this.operation = operation;
+		this.eClass = eClass != null ? eClass.getName() : null;
+		this.iri = iri;
+		commit();
+	}
+}
@@ -0,0 +1,261 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.adapters.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Collects the time spent in each conversion phase, the number and latency of the conversions of 
+ * each EClass, and the hit ratios of the conversion caches.
+ * 
+ * Phases record wall time, CPU time and allocated bytes of the calling thread. Element latencies are 
+ * exclusive, i.e., the time of a nested conversion is not counted again in the enclosing one. 
+ * A disabled instance records nothing, so callers do not need to check whether metrics are on.
+ */
+public class ConversionMetrics {
+
+	public static final ConversionMetrics NONE = new ConversionMetrics(null, false);
+
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+	private static final Timer NO_TIMER = () -> {};
+
+	private final String tool;
+	private final boolean enabled;
+	private final Map<String, PhaseStats> phases = new LinkedHashMap<>();
+	private final Map<String, ElementStats> elements = new TreeMap<>();
+	private final Map<String, long[]> caches = new LinkedHashMap<>();
+	private final Map<String, Long> counters = new LinkedHashMap<>();
+	private final Deque<long[]> nested = new ArrayDeque<>();
+
+	/**
+	 * Ends a measurement started by {@link ConversionMetrics#phase(String)}
+	 */
+	public interface Timer extends AutoCloseable {
+		@Override
+		void close();
+	}
+
+	public ConversionMetrics(String tool) {
+		this(tool, true);
+	}
+
+	private ConversionMetrics(String tool, boolean enabled) {
+		this.tool = tool;
+		this.enabled = enabled;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Starts measuring the given phase (a phase measured more than once accumulates its measurements)
+	 */
+	public Timer phase(String name) {
+		if (!enabled) {
+			return NO_TIMER;
+		}
+		final long wall = System.nanoTime();
+		final long cpu = cpuTime();
+		final long allocated = allocatedBytes();
+		return () -> {
+			PhaseStats stats = phases.computeIfAbsent(name, k -> new PhaseStats());
+			stats.wall += System.nanoTime() - wall;
+			stats.cpu += cpuTime() - cpu;
+			stats.allocated += allocatedBytes() - allocated;
+		};
+	}
+
+	/**
+	 * Starts measuring the conversion of an element
+	 * 
+	 * @return the start time to pass to {@link #endElement(String, long)}
+	 */
+	public long beginElement() {
+		if (!enabled) {
+			return 0;
+		}
+		nested.push(new long[1]);
+		return System.nanoTime();
+	}
+
+	public void endElement(String eClass, long start) {
+		if (!enabled) {
+			return;
+		}
+		final long total = System.nanoTime() - start;
+		final long self = total - nested.pop()[0];
+		if (!nested.isEmpty()) {
+			nested.peek()[0] += total;
+		}
+		ElementStats stats = elements.computeIfAbsent(eClass, k -> new ElementStats());
+		stats.count++;
+		stats.total += self;
+		stats.max = Math.max(stats.max, self);
+	}
+
+	public void cache(String name, long hits, long misses) {
+		if (enabled) {
+			long[] stats = caches.computeIfAbsent(name, k -> new long[2]);
+			stats[0] += hits;
+			stats[1] += misses;
+		}
+	}
+
+	public void count(String name, long value) {
+		if (enabled) {
+			counters.merge(name, value, Long::sum);
+		}
+	}
+
+	/**
+	 * Adds the measurements of another instance (e.g., of a conversion that ran on another thread)
+	 */
+	public synchronized void add(ConversionMetrics other) {
+		if (!enabled) {
+			return;
+		}
+		other.phases.forEach((name, o) -> {
+			PhaseStats stats = phases.computeIfAbsent(name, k -> new PhaseStats());
+			stats.wall += o.wall;
+			stats.cpu += o.cpu;
+			stats.allocated += o.allocated;
+		});
+		other.elements.forEach((name, o) -> {
+			ElementStats stats = elements.computeIfAbsent(name, k -> new ElementStats());
+			stats.count += o.count;
+			stats.total += o.total;
+			stats.max = Math.max(stats.max, o.max);
+		});
+		other.caches.forEach((name, o) -> cache(name, o[0], o[1]));
+		other.counters.forEach((name, value) -> count(name, value));
+	}
+
+	/**
+	 * Writes the metrics as JSON to the given file and as a table to the given logger
+	 */
+	public void report(File jsonFile, Logger logger) throws IOException {
+		if (!enabled) {
+			return;
+		}
+		if (jsonFile.getParentFile() != null) {
+			jsonFile.getParentFile().mkdirs();
+		}
+		Files.write(jsonFile.toPath(), toJson().getBytes(StandardCharsets.UTF_8));
+		logger.info("Metrics written to " + jsonFile);
+
+		logger.info(String.format("%-24s %12s %12s %14s", "Phase", "Wall (ms)", "CPU (ms)", "Allocated (MB)"));
+		phases.forEach((name, s) -> logger.info(String.format("%-24s %12.1f %12.1f %14.1f", name, s.wall / 1e6, s.cpu / 1e6, s.allocated / 1048576.0)));
+		if (!elements.isEmpty()) {
+			logger.info(String.format("%-24s %12s %12s %14s", "EClass", "Count", "Total (ms)", "Mean (us)"));
+			elements.forEach((name, s) -> logger.info(String.format("%-24s %12d %12.1f %14.2f", name, s.count, s.total / 1e6, s.total / 1e3 / s.count)));
+		}
+		if (!caches.isEmpty()) {
+			logger.info(String.format("%-24s %12s %12s %14s", "Cache", "Hits", "Misses", "Hit ratio (%)"));
+			caches.forEach((name, s) -> logger.info(String.format("%-24s %12d %12d %14.1f", name, s[0], s[1], ratio(s) * 100)));
+		}
+		counters.forEach((name, value) -> logger.info(String.format("%-24s %12d", name, value)));
+	}
+
+	public String toJson() {
+		StringBuilder json = new StringBuilder();
+		json.append("{\n  \"tool\": ").append(quote(tool)).append(",\n  \"phases\": [");
+		String separator = "\n";
+		for (Map.Entry<String, PhaseStats> e : phases.entrySet()) {
+			PhaseStats s = e.getValue();
+			json.append(separator).append(String.format("    {\"name\": %s, \"wallNanos\": %d, \"cpuNanos\": %d, \"allocatedBytes\": %d}",
+					quote(e.getKey()), s.wall, s.cpu, s.allocated));
+			separator = ",\n";
+		}
+		json.append("\n  ],\n  \"elements\": [");
+		separator = "\n";
+		for (Map.Entry<String, ElementStats> e : elements.entrySet()) {
+			ElementStats s = e.getValue();
+			json.append(separator).append(String.format("    {\"eClass\": %s, \"count\": %d, \"totalNanos\": %d, \"maxNanos\": %d}",
+					quote(e.getKey()), s.count, s.total, s.max));
+			separator = ",\n";
+		}
+		json.append("\n  ],\n  \"caches\": [");
+		separator = "\n";
+		for (Map.Entry<String, long[]> e : caches.entrySet()) {
+			long[] s = e.getValue();
+			json.append(separator).append(String.format(Locale.ROOT, "    {\"name\": %s, \"hits\": %d, \"misses\": %d, \"hitRatio\": %.4f}",
+					quote(e.getKey()), s[0], s[1], ratio(s)));
+			separator = ",\n";
+		}
+		json.append("\n  ],\n  \"counters\": {");
+		separator = "\n";
+		for (Map.Entry<String, Long> e : counters.entrySet()) {
+			json.append(separator).append("    ").append(quote(e.getKey())).append(": ").append(e.getValue());
+			separator = ",\n";
+		}
+		json.append("\n  }\n}\n");
+		return json.toString();
+	}
+
+	private static double ratio(long[] stats) {
+		long total = stats[0] + stats[1];
+		return total == 0 ? 0 : (double) stats[0] / total;
+	}
+
+	private static String quote(String value) {
+		if (value == null) {
+			return "null";
+		}
+		return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+	}
+
+	private static long cpuTime() {
+		return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : 0;
+	}
+
+	private static long allocatedBytes() {
+		if (THREADS instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+			if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+				return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+			}
+		}
+		return 0;
+	}
+
+	private static class PhaseStats {
+		private long wall;
+		private long cpu;
+		private long allocated;
+	}
+
+	private static class ElementStats {
+		private long count;
+		private long total;
+		private long max;
+	}
+}
@@ -0,0 +1,65 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.adapters.util;
+
+import java.util.Arrays;
+
+import com.beust.jcommander.Parameter;
+
+/**
+ * The options of an adapter that serves conversion requests instead of running one conversion
+ */
+public class DaemonOptions {
+
+	@Parameter(
+		names= {"--daemon"}, 
+		description="Serves conversion requests (lines of the conversion arguments) from stdin, or from a local socket if a port is given, keeping the language setup and the UML libraries loaded between them. In stdin mode, the replies are written to stdout and the logging to stderr", 
+		required=true, 
+		order=1
+	)
+	public boolean daemon;
+
+	@Parameter(
+		names= {"--daemon-port"}, 
+		description="Port of the local socket that the daemon listens on (Optional)", 
+		order=2
+	)
+	public int port;
+
+	@Parameter(
+		names= {"--debug", "-d"}, 
+		description="Shows debug logging statements", 
+		order=3
+	)
+	public boolean debug;
+
+	@Parameter(
+		names= {"--help","-h"}, 
+		description="Displays summary of options", 
+		help=true, 
+		order=4
+	)
+	public boolean help;
+
+	/**
+	 * Whether the given arguments ask for a daemon
+	 */
+	public static boolean isRequested(String... args) {
+		return Arrays.asList(args).contains("--daemon");
+	}
+}
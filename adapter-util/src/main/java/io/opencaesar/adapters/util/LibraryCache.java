@@ -0,0 +1,153 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.adapters.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.URIConverter;
+
+import io.opencaesar.oml.Ontology;
+import io.opencaesar.oml.util.OmlRead;
+
+/**
+ * Keeps the resources of immutable libraries loaded between conversions.
+ * 
+ * After a conversion, the library resources are moved out of its resource set and the rest of the set is unloaded.
+ * Before the next conversion, they are moved into its new resource set, so each conversion still has a resource set
+ * of its own. If the file of a library resource changed since it was loaded, the whole cache is dropped. A resource 
+ * can only be in one resource set at a time, so the conversions that share a cache must run one after the other.
+ */
+public class LibraryCache {
+
+	private final String name;
+	private final Function<Resource, Collection<Resource>> libraryOf;
+	private final Logger logger;
+	private final Map<Resource, Long> resources = new LinkedHashMap<>();
+
+	private LibraryCache(String name, Function<Resource, Collection<Resource>> libraryOf, Logger logger) {
+		this.name = name;
+		this.libraryOf = libraryOf;
+		this.logger = logger;
+	}
+
+	/**
+	 * @return a cache of the ontologies with the given IRIs and all the ontologies they import
+	 */
+	public static LibraryCache forOntologies(Collection<String> iris, Logger logger) {
+		final Set<String> libraryIris = new HashSet<>(iris);
+		return new LibraryCache("ontology", resource -> {
+			List<EObject> contents = resource.getContents();
+			if (!contents.isEmpty() && contents.get(0) instanceof Ontology) {
+				Ontology ontology = (Ontology) contents.get(0);
+				if (libraryIris.contains(ontology.getIri())) {
+					List<Resource> library = new ArrayList<>();
+					library.add(resource);
+					OmlRead.getAllImportedOntologies(ontology, false).forEach(o -> library.add(o.eResource()));
+					return library;
+				}
+			}
+			return Collections.emptyList();
+		}, logger);
+	}
+
+	/**
+	 * @return a cache of the resources with pathmap URIs (e.g., the UML metamodel and primitive types library)
+	 */
+	public static LibraryCache forPathmaps(Logger logger) {
+		return new LibraryCache("pathmap", resource -> {
+			return "pathmap".equals(resource.getURI().scheme()) ? Collections.singletonList(resource) : Collections.emptyList();
+		}, logger);
+	}
+
+	/**
+	 * Moves the cached library resources into the given resource set
+	 */
+	public synchronized void attach(ResourceSet resourceSet) {
+		for (Map.Entry<Resource, Long> entry : resources.entrySet()) {
+			if (getTimeStamp(entry.getKey()) != entry.getValue()) {
+				logger.info("Library changed: " + entry.getKey().getURI());
+				resources.clear();
+				return;
+			}
+		}
+		resourceSet.getResources().addAll(resources.keySet());
+		logger.debug("Attached " + resources.size() + " " + name + " library resource(s)");
+	}
+
+	/**
+	 * Moves the library resources out of the given resource set (which is no longer used), and unloads the rest of it 
+	 * so that the libraries do not keep references to it
+	 */
+	public synchronized void release(ResourceSet resourceSet) {
+		Set<Resource> library = new LinkedHashSet<>();
+		for (Resource resource : new ArrayList<>(resourceSet.getResources())) {
+			if (!library.contains(resource)) {
+				library.addAll(libraryOf.apply(resource));
+			}
+		}
+		library.remove(null);
+		for (Resource resource : library) {
+			resources.computeIfAbsent(resource, r -> getTimeStamp(r));
+		}
+		resourceSet.getResources().removeAll(library);
+		for (Resource resource : resourceSet.getResources()) {
+			resource.unload();
+		}
+		resourceSet.getResources().clear();
+		logger.debug("Cached " + resources.size() + " " + name + " library resource(s)");
+	}
+
+	/**
+	 * Unloads and drops the cached library resources (when the cache is no longer used)
+	 */
+	public synchronized void clear() {
+		for (Resource resource : resources.keySet()) {
+			resource.unload();
+		}
+		resources.clear();
+	}
+
+	private static long getTimeStamp(Resource resource) {
+		try {
+			Map<String, ?> attributes = URIConverter.INSTANCE.getAttributes(resource.getURI(), 
+					Collections.singletonMap(URIConverter.OPTION_REQUESTED_ATTRIBUTES, Collections.singleton(URIConverter.ATTRIBUTE_TIME_STAMP)));
+			Object timeStamp = attributes.get(URIConverter.ATTRIBUTE_TIME_STAMP);
+			return timeStamp instanceof Long ? (Long) timeStamp : URIConverter.NULL_TIME_STAMP;
+		} catch (RuntimeException e) {
+			return URIConverter.NULL_TIME_STAMP;
+		}
+	}
+
+	@Override
+	public synchronized String toString() {
+		return resources.size() + " " + name + " library resource(s)";
+	}
+}
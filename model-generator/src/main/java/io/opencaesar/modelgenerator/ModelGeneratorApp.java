@@ -0,0 +1,277 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.modelgenerator;
+
+import java.io.File;
+
+import org.apache.log4j.Appender;
+import org.apache.log4j.AppenderSkeleton;
+import org.apache.log4j.Level;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+import org.apache.log4j.xml.DOMConfigurator;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.uml2.uml.resources.util.UMLResourcesUtil;
+import org.eclipse.xtext.resource.XtextResourceSet;
+
+import com.beust.jcommander.IParameterValidator;
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.ParameterException;
+
+import io.opencaesar.oml.VocabularyBundle;
+import io.opencaesar.oml.dsl.OmlStandaloneSetup;
+import io.opencaesar.oml.util.OmlRead;
+import io.opencaesar.oml.util.OmlXMIResourceFactory;
+
+public class ModelGeneratorApp {
+
+	@Parameter(
+		names= {"--output-folder-path","-o"}, 
+		description="Path to the output folder (Required)",
+		validateWith=OutputFolderPath.class, 
+		required=true, 
+		order=1
+	)
+	private String outputFolderPath = null;
+
+	@Parameter(
+		names= {"--seed","-s"}, 
+		description="Seed of the random generator (Optional, default is 1)", 
+		order=2
+	)
+	private long seed = 1;
+
+	@Parameter(
+		names= {"--packages"}, 
+		description="Number of nested packages (Optional, default is 10)", 
+		validateWith=PositiveNumber.class, 
+		order=3
+	)
+	private int packages = 10;
+
+	@Parameter(
+		names= {"--depth"}, 
+		description="Maximum nesting depth of the packages (Optional, default is 3)", 
+		validateWith=PositiveNumber.class, 
+		order=4
+	)
+	private int depth = 3;
+
+	@Parameter(
+		names= {"--classes"}, 
+		description="Number of classes (Optional, default is 1000)", 
+		order=5
+	)
+	private int classes = 1000;
+
+	@Parameter(
+		names= {"--associations"}, 
+		description="Number of associations between classes (Optional, default is 1000)", 
+		order=6
+	)
+	private int associations = 1000;
+
+	@Parameter(
+		names= {"--dependencies"}, 
+		description="Number of dependencies between classes (Optional, default is 1000)", 
+		order=7
+	)
+	private int dependencies = 1000;
+
+	@Parameter(
+		names= {"--stereotyped"}, 
+		description="Percentage of the classes and dependencies with a stereotype applied (Optional, default is 50)", 
+		validateWith=Percentage.class, 
+		order=8
+	)
+	private int stereotyped = 50;
+
+	@Parameter(
+		names= {"--concepts"}, 
+		description="Number of class stereotypes (Optional, default is 10)", 
+		validateWith=PositiveNumber.class, 
+		order=9
+	)
+	private int concepts = 10;
+
+	@Parameter(
+		names= {"--properties"}, 
+		description="Number of properties per class stereotype (Optional, default is 3)", 
+		order=10
+	)
+	private int properties = 3;
+
+	@Parameter(
+		names= {"--relations"}, 
+		description="Number of dependency stereotypes (Optional, default is 3)", 
+		order=11
+	)
+	private int relations = 3;
+
+	@Parameter(
+		names= {"--links"}, 
+		description="Number of links per stereotyped class (Optional, default is 1)", 
+		order=12
+	)
+	private int links = 1;
+
+	@Parameter(
+		names= {"--next-catalog-path"}, 
+		description="Path to an OML catalog that resolves the UML and XSD vocabularies (Optional, stand-ins are written otherwise)", 
+		order=13
+	)
+	private String nextCatalogPath;
+
+	@Parameter(
+		names= {"--debug", "-d"}, 
+		description="Shows debug logging statements", 
+		order=14
+	)
+	private boolean debug;
+
+	@Parameter(
+		names= {"--help","-h"}, 
+		description="Displays summary of options", 
+		help=true, 
+		order=15
+	) 
+	private boolean help;
+	
+	private final static Logger LOGGER = Logger.getLogger(ModelGeneratorApp.class);
+
+	static {
+		DOMConfigurator.configure(ClassLoader.getSystemClassLoader().getResource("log4j.xml"));
+	}
+
+	/*
+	 * Main method
+	 */
+	public static void main(String ... args) throws Exception {
+		final ModelGeneratorApp app = new ModelGeneratorApp();
+		final JCommander builder = JCommander.newBuilder().addObject(app).build();
+		builder.parse(args);
+		if (app.help) {
+			builder.usage();
+			return;
+		}
+		if (app.debug) {
+			final Appender appender = LogManager.getRootLogger().getAppender("stdout");
+			((AppenderSkeleton)appender).setThreshold(Level.DEBUG);
+		}
+		app.run();
+	}
+
+	/*
+	 * Run method
+	 */
+	private void run() throws Exception {
+		LOGGER.info("=================================================================");
+		LOGGER.info("                        S T A R T");
+		LOGGER.info("                     Model Generator "+getAppVersion());
+		LOGGER.info("=================================================================");
+		LOGGER.info("Output Folder Path= " + outputFolderPath);
+		LOGGER.info("Seed= " + seed);
+
+		// draw the model structure
+		final SyntheticModel.Settings settings = new SyntheticModel.Settings();
+		settings.seed = seed;
+		settings.packages = packages;
+		settings.depth = depth;
+		settings.classes = classes;
+		settings.associations = associations;
+		settings.dependencies = dependencies;
+		settings.stereotyped = stereotyped;
+		settings.concepts = concepts;
+		settings.properties = properties;
+		settings.relations = relations;
+		settings.links = links;
+		final SyntheticModel model = SyntheticModel.generate(settings);
+		LOGGER.info("Generating " + model);
+
+		// write the OML ontologies
+		final File outputFolder = new File(outputFolderPath);
+		final OmlGenerator omlGenerator = new OmlGenerator(model, outputFolder);
+		final File catalog = omlGenerator.writeCatalog(nextCatalogPath);
+		final File vocabularyBundleFile = omlGenerator.writeVocabularies();
+		final File descriptionBundleFile = omlGenerator.writeDescriptions();
+		LOGGER.info("Saved: " + catalog);
+		LOGGER.info("Saved: " + vocabularyBundleFile);
+		LOGGER.info("Saved: " + descriptionBundleFile);
+
+		// load the vocabulary bundle
+		OmlStandaloneSetup.doSetup();
+		OmlXMIResourceFactory.register();
+		final XtextResourceSet omlResourceSet = new XtextResourceSet();
+		final VocabularyBundle vocabularyBundle = (VocabularyBundle) OmlRead.getOntology(omlResourceSet.getResource(URI.createFileURI(vocabularyBundleFile.getAbsolutePath()), true));
+
+		// write the Papyrus profile and model
+		final ResourceSet papyrusResourceSet = new ResourceSetImpl();
+		UMLResourcesUtil.init(papyrusResourceSet);
+		new UmlGenerator(model, new File(outputFolder, "papyrus"), papyrusResourceSet, LOGGER).generate(vocabularyBundle);
+
+		LOGGER.info("=================================================================");
+		LOGGER.info("                          E N D");
+		LOGGER.info("=================================================================");
+	}
+
+	// Utility methods
+	
+	/**
+	 * Get application version id from properties file.
+	 * @return version string from build.properties or UNKNOWN
+	 */
+	private String getAppVersion() {
+		var version = this.getClass().getPackage().getImplementationVersion();
+		return (version != null) ? version : "<SNAPSHOT>";
+	}
+
+	static public class OutputFolderPath implements IParameterValidator {
+		@Override
+		public void validate(String name, String value) throws ParameterException {
+			final File directory = new File(value);
+			if (!directory.isDirectory()) {
+				directory.mkdirs();
+				if (!directory.isDirectory()) {
+					throw new ParameterException(value + " should be a valid folder path");
+				}
+			}
+		}
+	}
+
+	static public class PositiveNumber implements IParameterValidator {
+		@Override
+		public void validate(String name, String value) throws ParameterException {
+			if (Integer.parseInt(value) < 1) {
+				throw new ParameterException(name + " should be at least 1");
+			}
+		}
+	}
+
+	static public class Percentage implements IParameterValidator {
+		@Override
+		public void validate(String name, String value) throws ParameterException {
+			int percentage = Integer.parseInt(value);
+			if (percentage < 0 || percentage > 100) {
+				throw new ParameterException(name + " should be between 0 and 100");
+			}
+		}
+	}
+}
@@ -0,0 +1,242 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.modelgenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.util.URI;
+
+import io.opencaesar.modelgenerator.SyntheticModel.ClassSpec;
+import io.opencaesar.modelgenerator.SyntheticModel.DependencySpec;
+import io.opencaesar.modelgenerator.SyntheticModel.PackageSpec;
+import io.opencaesar.oml.util.OmlConstants;
+import io.opencaesar.oml2papyrus.util.UmlUtils;
+
+/**
+ * Writes the OML vocabulary and description bundles of a synthetic model, and the catalog that resolves them.
+ * 
+ * The vocabulary has a concept per stereotype (specializing a «Block» concept that specializes the UML Class), 
+ * a «Part» relation (forward «parts») between blocks for the links, and relations between blocks that specialize 
+ * the UML Dependency. Each nested package maps to a description of the stereotyped classes and dependencies it owns.
+ */
+public class OmlGenerator {
+
+	private static final String UML_NS = "http://www.eclipse.org/uml2/5.0.0/";
+	private static final String W3_NS = "http://www.w3.org/2001/";
+
+	private final SyntheticModel model;
+	private final File folder;
+
+	/**
+	 * @param folder the folder of the catalog (the ontologies are written to its oml subfolder)
+	 */
+	public OmlGenerator(SyntheticModel model, File folder) {
+		this.model = model;
+		this.folder = folder;
+	}
+
+	/**
+	 * Writes the catalog 
+	 * 
+	 * @param nextCatalogPath a catalog that resolves the UML and XSD vocabularies (or null to write stand-ins for them) 
+	 * @return the catalog file
+	 */
+	public File writeCatalog(String nextCatalogPath) throws IOException {
+		List<String> lines = new ArrayList<>();
+		lines.add("<?xml version='1.0'?>");
+		lines.add("<catalog xmlns=\"urn:oasis:names:tc:entity:xmlns:xml:catalog\" prefer=\"public\">");
+		lines.add("	<rewriteURI uriStartString=\"" + SyntheticModel.NAMESPACE + "\" rewritePrefix=\"" + fileUri("oml/generated") + "\"/>");
+		if (nextCatalogPath != null) {
+			lines.add("	<nextCatalog catalog=\"" + URI.createFileURI(new File(nextCatalogPath).getAbsolutePath()) + "\"/>");
+		} else {
+			lines.add("	<rewriteURI uriStartString=\"" + UML_NS + "\" rewritePrefix=\"" + fileUri("oml/www.eclipse.org/uml2/5.0.0") + "/\"/>");
+			lines.add("	<rewriteURI uriStartString=\"" + W3_NS + "\" rewritePrefix=\"" + fileUri("oml/www.w3.org/2001") + "/\"/>");
+			writeStandIns();
+		}
+		lines.add("</catalog>");
+		File catalog = new File(folder, "catalog.xml");
+		write(catalog, lines);
+		return catalog;
+	}
+
+	private String fileUri(String path) {
+		return URI.createFileURI(new File(folder, path).getAbsolutePath()).toString();
+	}
+
+	/**
+	 * Writes the parts of the UML and XSD vocabularies that the synthetic vocabulary uses
+	 */
+	private void writeStandIns() throws IOException {
+		List<String> lines = new ArrayList<>();
+		lines.add("vocabulary <" + UmlUtils.UML_IRI + "/> as UML {");
+		for (String metaclass : new String[] {"Class", "Association", "Dependency"}) {
+			lines.add("");
+			lines.add("	aspect " + metaclass);
+		}
+		lines.add("}");
+		write(getOntologyFile(UmlUtils.UML_IRI), lines);
+
+		lines.clear();
+		lines.add("vocabulary <" + OmlConstants.XSD_NS + "> as xsd {");
+		lines.add("");
+		lines.add("	scalar string");
+		lines.add("}");
+		write(getOntologyFile(OmlConstants.XSD_NS.substring(0, OmlConstants.XSD_NS.length() - 1)), lines);
+	}
+
+	/**
+	 * Writes the vocabulary and the vocabulary bundle
+	 * 
+	 * @return the vocabulary bundle file
+	 */
+	public File writeVocabularies() throws IOException {
+		SyntheticModel.Settings settings = model.settings;
+		List<String> lines = new ArrayList<>();
+		lines.add("vocabulary <" + SyntheticModel.VOCABULARY_IRI + "#> as vocabulary {");
+		lines.add("");
+		lines.add("	extends <" + UmlUtils.UML_IRI + "/> as UML");
+		lines.add("");
+		lines.add("	extends <" + OmlConstants.XSD_NS + "> as xsd");
+		lines.add("");
+		lines.add("	concept Block :> UML:Class");
+		for (int c = 0; c < settings.concepts; c++) {
+			lines.add("");
+			lines.add("	concept " + SyntheticModel.getConceptName(c) + " :> Block");
+			for (int p = 0; p < settings.properties; p++) {
+				lines.add("");
+				lines.add("	scalar property " + SyntheticModel.getPropertyName(c, p) + " [");
+				lines.add("		domain " + SyntheticModel.getConceptName(c));
+				lines.add("		range xsd:string");
+				lines.add("		functional");
+				lines.add("	]");
+			}
+		}
+		lines.add("");
+		lines.add("	relation entity Part [");
+		lines.add("		from Block");
+		lines.add("		to Block");
+		lines.add("		forward parts");
+		lines.add("	] :> UML:Association");
+		for (int r = 0; r < settings.relations; r++) {
+			lines.add("");
+			lines.add("	relation entity " + SyntheticModel.getRelationName(r) + " [");
+			lines.add("		from Block");
+			lines.add("		to Block");
+			lines.add("	] :> UML:Dependency");
+		}
+		lines.add("}");
+		write(getOntologyFile(SyntheticModel.VOCABULARY_IRI), lines);
+
+		lines.clear();
+		lines.add("vocabulary bundle <" + SyntheticModel.VOCABULARY_BUNDLE_IRI + "#> as vocabularies {");
+		lines.add("");
+		lines.add("	includes <" + SyntheticModel.VOCABULARY_IRI + "#>");
+		lines.add("}");
+		File bundle = getOntologyFile(SyntheticModel.VOCABULARY_BUNDLE_IRI);
+		write(bundle, lines);
+		return bundle;
+	}
+
+	/**
+	 * Writes a description per nested package and the description bundle that includes them
+	 * 
+	 * @return the description bundle file
+	 */
+	public File writeDescriptions() throws IOException {
+		Map<PackageSpec, List<ClassSpec>> classes = new LinkedHashMap<>();
+		Map<PackageSpec, List<DependencySpec>> dependencies = new LinkedHashMap<>();
+		for (PackageSpec package_ : model.packages) {
+			classes.put(package_, new ArrayList<>());
+			dependencies.put(package_, new ArrayList<>());
+		}
+		model.classes.stream().filter(c -> c.concept >= 0).forEach(c -> classes.get(c.owner).add(c));
+		model.dependencies.stream().filter(d -> d.relation >= 0).forEach(d -> dependencies.get(d.client.owner).add(d));
+
+		List<String> bundle = new ArrayList<>();
+		bundle.add("description bundle <" + SyntheticModel.MODEL_IRI + "#> as " + model.packages.get(0).name + " {");
+		bundle.add("");
+		bundle.add("	uses <" + SyntheticModel.VOCABULARY_BUNDLE_IRI + "#>");
+		for (PackageSpec package_ : model.packages.subList(1, model.packages.size())) {
+			bundle.add("");
+			bundle.add("	includes <" + package_.iri + "#>");
+			writeDescription(package_, classes.get(package_), dependencies.get(package_));
+		}
+		bundle.add("}");
+		File file = getOntologyFile(SyntheticModel.MODEL_IRI);
+		write(file, bundle);
+		return file;
+	}
+
+	private void writeDescription(PackageSpec package_, List<ClassSpec> classes, List<DependencySpec> dependencies) throws IOException {
+		List<String> statements = new ArrayList<>();
+		Map<String, String> extensions = new LinkedHashMap<>();
+		for (ClassSpec class_ : classes) {
+			statements.add("");
+			statements.add("	ci " + class_.name + " : vocabulary:" + SyntheticModel.getConceptName(class_.concept) + " [");
+			class_.values.forEach((property, value) -> statements.add("		vocabulary:" + property + " \"" + value + "\""));
+			for (ClassSpec target : class_.links) {
+				statements.add("		vocabulary:parts " + reference(package_, target, extensions));
+			}
+			statements.add("	]");
+		}
+		for (DependencySpec dependency : dependencies) {
+			statements.add("");
+			statements.add("	ri " + dependency.name + " : vocabulary:" + SyntheticModel.getRelationName(dependency.relation) + " [");
+			statements.add("		from " + reference(package_, dependency.client, extensions));
+			statements.add("		to " + reference(package_, dependency.supplier, extensions));
+			statements.add("	]");
+		}
+
+		List<String> lines = new ArrayList<>();
+		lines.add("description <" + package_.iri + "#> as " + package_.name + " {");
+		lines.add("");
+		lines.add("	uses <" + SyntheticModel.VOCABULARY_IRI + "#> as vocabulary");
+		extensions.forEach((iri, prefix) -> {
+			lines.add("");
+			lines.add("	extends <" + iri + "#> as " + prefix);
+		});
+		lines.addAll(statements);
+		lines.add("}");
+		write(getOntologyFile(package_.iri), lines);
+	}
+
+	private static String reference(PackageSpec package_, ClassSpec class_, Map<String, String> extensions) {
+		if (class_.owner == package_) {
+			return class_.name;
+		}
+		extensions.put(class_.owner.iri, class_.owner.name);
+		return class_.owner.name + ":" + class_.name;
+	}
+
+	private File getOntologyFile(String iri) {
+		URI uri = URI.createURI(iri);
+		return new File(folder, "oml/" + uri.authority() + uri.path() + "." + OmlConstants.OML_EXTENSION);
+	}
+
+	private static void write(File file, List<String> lines) throws IOException {
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), (String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8));
+	}
+}
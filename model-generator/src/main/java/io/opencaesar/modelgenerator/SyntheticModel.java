@@ -0,0 +1,211 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.modelgenerator;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The structure of a synthetic model, drawn from a seeded random generator so that the same
+ * settings and seed always give the same model.
+ * 
+ * Both the Papyrus model and the OML description bundle are written from this structure, so they
+ * describe the same elements.
+ */
+public class SyntheticModel {
+
+	public static final String NAMESPACE = "http://generated";
+	public static final String MODEL_IRI = NAMESPACE + "/model";
+	public static final String VOCABULARY_IRI = NAMESPACE + "/vocabulary";
+	public static final String VOCABULARY_BUNDLE_IRI = NAMESPACE + "/vocabularies";
+
+	/**
+	 * The settings of a synthetic model
+	 */
+	public static class Settings {
+		public long seed = 1;
+		public int packages = 10;
+		public int depth = 3;
+		public int classes = 1000;
+		public int associations = 1000;
+		public int dependencies = 1000;
+		public int stereotyped = 50;
+		public int concepts = 10;
+		public int properties = 3;
+		public int relations = 3;
+		public int links = 1;
+	}
+
+	public static class PackageSpec {
+		public final int index;
+		public final PackageSpec parent;
+		public final int depth;
+		public final String name;
+		public final String iri;
+
+		private PackageSpec(int index, PackageSpec parent) {
+			this.index = index;
+			this.parent = parent;
+			this.depth = parent == null ? 0 : parent.depth + 1;
+			this.name = parent == null ? "model" : "p" + index;
+			this.iri = parent == null ? MODEL_IRI : parent.iri + "/" + name;
+		}
+	}
+
+	public static class ClassSpec {
+		public final int index;
+		public final String name;
+		public final PackageSpec owner;
+		/** the index of the concept of the applied stereotype (or -1 if no stereotype is applied) */
+		public int concept = -1;
+		/** the values of the scalar properties of the concept by property name */
+		public final Map<String, String> values = new LinkedHashMap<>();
+		/** the targets of the «parts» links */
+		public final List<ClassSpec> links = new ArrayList<>();
+
+		private ClassSpec(int index, PackageSpec owner) {
+			this.index = index;
+			this.name = "C" + index;
+			this.owner = owner;
+		}
+	}
+
+	public static class AssociationSpec {
+		public final int index;
+		public final String name;
+		public final ClassSpec source;
+		public final ClassSpec target;
+
+		private AssociationSpec(int index, ClassSpec source, ClassSpec target) {
+			this.index = index;
+			this.name = "A" + index;
+			this.source = source;
+			this.target = target;
+		}
+	}
+
+	public static class DependencySpec {
+		public final int index;
+		public final String name;
+		public final ClassSpec client;
+		public final ClassSpec supplier;
+		/** the index of the relation of the applied stereotype (or -1 if no stereotype is applied) */
+		public int relation = -1;
+
+		private DependencySpec(int index, ClassSpec client, ClassSpec supplier) {
+			this.index = index;
+			this.name = "D" + index;
+			this.client = client;
+			this.supplier = supplier;
+		}
+	}
+
+	public final Settings settings;
+	/** the packages, starting with the root model */
+	public final List<PackageSpec> packages = new ArrayList<>();
+	public final List<ClassSpec> classes = new ArrayList<>();
+	public final List<AssociationSpec> associations = new ArrayList<>();
+	public final List<DependencySpec> dependencies = new ArrayList<>();
+
+	private SyntheticModel(Settings settings) {
+		this.settings = settings;
+	}
+
+	public static String getConceptName(int concept) {
+		return "K" + concept;
+	}
+
+	public static String getPropertyName(int concept, int property) {
+		return "k" + concept + "_p" + property;
+	}
+
+	public static String getRelationName(int relation) {
+		return "R" + relation;
+	}
+
+	public static SyntheticModel generate(Settings settings) {
+		final SyntheticModel model = new SyntheticModel(settings);
+		final Random random = new Random(settings.seed);
+
+		// packages are nested under a random package that is not at the maximum depth yet
+		model.packages.add(new PackageSpec(0, null));
+		final List<PackageSpec> parents = new ArrayList<>(model.packages);
+		for (int i = 1; i <= settings.packages; i++) {
+			PackageSpec parent = parents.get(random.nextInt(parents.size()));
+			PackageSpec package_ = new PackageSpec(i, parent);
+			model.packages.add(package_);
+			if (package_.depth < settings.depth) {
+				parents.add(package_);
+			}
+		}
+
+		// classes are owned by the nested packages (the root model maps to a description bundle)
+		final List<ClassSpec> stereotyped = new ArrayList<>();
+		for (int i = 0; i < settings.classes; i++) {
+			ClassSpec class_ = new ClassSpec(i, model.packages.get(1 + random.nextInt(settings.packages)));
+			if (random.nextInt(100) < settings.stereotyped) {
+				class_.concept = random.nextInt(settings.concepts);
+				for (int p = 0; p < settings.properties; p++) {
+					class_.values.put(getPropertyName(class_.concept, p), "v" + random.nextInt(1000000));
+				}
+				stereotyped.add(class_);
+			}
+			model.classes.add(class_);
+		}
+		for (ClassSpec class_ : stereotyped) {
+			for (int l = 0; l < settings.links; l++) {
+				ClassSpec target = stereotyped.get(random.nextInt(stereotyped.size()));
+				if (target != class_ && !class_.links.contains(target)) {
+					class_.links.add(target);
+				}
+			}
+		}
+
+		if (!model.classes.isEmpty()) {
+			for (int i = 0; i < settings.associations; i++) {
+				model.associations.add(new AssociationSpec(i, randomClass(model, random), randomClass(model, random)));
+			}
+			// only dependencies between stereotyped classes can be stereotyped (the relations are between «Block»s)
+			for (int i = 0; i < settings.dependencies; i++) {
+				DependencySpec dependency = new DependencySpec(i, randomClass(model, random), randomClass(model, random));
+				if (settings.relations > 0 && dependency.client.concept >= 0 && dependency.supplier.concept >= 0 
+						&& random.nextInt(100) < settings.stereotyped) {
+					dependency.relation = random.nextInt(settings.relations);
+				}
+				model.dependencies.add(dependency);
+			}
+		}
+		return model;
+	}
+
+	private static ClassSpec randomClass(SyntheticModel model, Random random) {
+		return model.classes.get(random.nextInt(model.classes.size()));
+	}
+
+	@Override
+	public String toString() {
+		long stereotypedClasses = classes.stream().filter(c -> c.concept >= 0).count();
+		long stereotypedDependencies = dependencies.stream().filter(d -> d.relation >= 0).count();
+		long links = classes.stream().mapToInt(c -> c.links.size()).sum();
+		return String.format("%d packages, %d classes (%d stereotyped), %d associations, %d dependencies (%d stereotyped), %d links", 
+				packages.size() - 1, classes.size(), stereotypedClasses, associations.size(), dependencies.size(), stereotypedDependencies, links);
+	}
+}
@@ -0,0 +1,172 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.modelgenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.xmi.XMLResource;
+import org.eclipse.uml2.uml.AggregationKind;
+import org.eclipse.uml2.uml.Association;
+import org.eclipse.uml2.uml.Class;
+import org.eclipse.uml2.uml.Dependency;
+import org.eclipse.uml2.uml.Model;
+import org.eclipse.uml2.uml.Package;
+import org.eclipse.uml2.uml.Profile;
+import org.eclipse.uml2.uml.Stereotype;
+import org.eclipse.uml2.uml.UMLFactory;
+import org.eclipse.uml2.uml.resource.UMLResource;
+
+import io.opencaesar.modelgenerator.SyntheticModel.AssociationSpec;
+import io.opencaesar.modelgenerator.SyntheticModel.ClassSpec;
+import io.opencaesar.modelgenerator.SyntheticModel.DependencySpec;
+import io.opencaesar.modelgenerator.SyntheticModel.PackageSpec;
+import io.opencaesar.oml.VocabularyBundle;
+import io.opencaesar.oml2papyrus.VocabularyBundleToProfile;
+
+/**
+ * Writes the Papyrus profile and model of a synthetic model.
+ * 
+ * The profile is converted from the vocabulary bundle by {@link VocabularyBundleToProfile}. The model applies it 
+ * to the classes and dependencies that have a concept or relation. Both are saved with sequential XMI IDs, so the 
+ * files only depend on the settings and seed.
+ */
+public class UmlGenerator {
+
+	private final SyntheticModel model;
+	private final File folder;
+	private final ResourceSet resourceSet;
+	private final Logger logger;
+
+	/**
+	 * @param folder the folder where the Papyrus resources are written
+	 */
+	public UmlGenerator(SyntheticModel model, File folder, ResourceSet resourceSet, Logger logger) {
+		this.model = model;
+		this.folder = folder;
+		this.resourceSet = resourceSet;
+		this.logger = logger;
+	}
+
+	/**
+	 * Converts the given vocabulary bundle to a profile, applies it to a new model, and saves both
+	 * 
+	 * @return the model resource
+	 */
+	public Resource generate(VocabularyBundle vocabularyBundle) throws Exception {
+		Resource profileResource = new VocabularyBundleToProfile(vocabularyBundle, folder, resourceSet, logger).convert();
+		Profile profile = (Profile) profileResource.getContents().get(0);
+		assignIds(profileResource);
+		profileResource.save(Collections.EMPTY_MAP);
+		logger.info("Saved: " + profileResource.getURI());
+
+		Map<String, Stereotype> stereotypes = new HashMap<>();
+		profile.eAllContents().forEachRemaining(e -> {
+			if (e instanceof Stereotype) {
+				stereotypes.put(((Stereotype) e).getName(), (Stereotype) e);
+			}
+		});
+
+		URI iri = URI.createURI(SyntheticModel.MODEL_IRI);
+		URI modelUri = URI.createFileURI(new File(folder, iri.authority() + iri.path() + "." + UMLResource.FILE_EXTENSION).getAbsolutePath());
+		Resource modelResource = resourceSet.createResource(modelUri);
+		Model root = UMLFactory.eINSTANCE.createModel();
+		root.setName(model.packages.get(0).name);
+		root.setURI(model.packages.get(0).iri);
+		modelResource.getContents().add(root);
+		root.applyProfile(profile);
+
+		Map<PackageSpec, Package> packages = new HashMap<>();
+		packages.put(model.packages.get(0), root);
+		for (PackageSpec spec : model.packages.subList(1, model.packages.size())) {
+			Package package_ = packages.get(spec.parent).createNestedPackage(spec.name);
+			package_.setURI(spec.iri);
+			packages.put(spec, package_);
+		}
+
+		Map<ClassSpec, Class> classes = new HashMap<>();
+		for (ClassSpec spec : model.classes) {
+			Class class_ = packages.get(spec.owner).createOwnedClass(spec.name, false);
+			if (spec.concept >= 0) {
+				Stereotype stereotype = stereotypes.get(SyntheticModel.getConceptName(spec.concept));
+				class_.applyStereotype(stereotype);
+				spec.values.forEach((property, value) -> class_.setValue(stereotype, property, value));
+			}
+			classes.put(spec, class_);
+		}
+		for (ClassSpec spec : model.classes) {
+			if (!spec.links.isEmpty()) {
+				addLinks(classes.get(spec), stereotypes.get(SyntheticModel.getConceptName(spec.concept)), spec.links, classes, stereotypes);
+			}
+		}
+
+		for (AssociationSpec spec : model.associations) {
+			Association association = classes.get(spec.source).createAssociation(true, AggregationKind.NONE_LITERAL, "to" + spec.index, 0, 1, 
+					classes.get(spec.target), false, AggregationKind.NONE_LITERAL, "from" + spec.index, 0, 1);
+			association.setName(spec.name);
+		}
+		for (DependencySpec spec : model.dependencies) {
+			Dependency dependency = classes.get(spec.client).createDependency(classes.get(spec.supplier));
+			dependency.setName(spec.name);
+			if (spec.relation >= 0) {
+				dependency.applyStereotype(stereotypes.get(SyntheticModel.getRelationName(spec.relation)));
+			}
+		}
+
+		assignIds(modelResource);
+		modelResource.save(Collections.EMPTY_MAP);
+		logger.info("Saved: " + modelResource.getURI());
+		return modelResource;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void addLinks(Class class_, Stereotype stereotype, List<ClassSpec> targets, Map<ClassSpec, Class> classes, Map<String, Stereotype> stereotypes) {
+		EObject application = class_.getStereotypeApplication(stereotype);
+		EStructuralFeature feature = application.eClass().getEStructuralFeature("parts");
+		if (feature == null) {
+			logger.warn("Stereotype " + stereotype.getName() + " has no parts property");
+			return;
+		}
+		List<EObject> values = (List<EObject>) application.eGet(feature);
+		for (ClassSpec target : targets) {
+			values.add(classes.get(target).getStereotypeApplication(stereotypes.get(SyntheticModel.getConceptName(target.concept))));
+		}
+	}
+
+	/**
+	 * Replaces the generated UUIDs of the resource contents with sequential IDs
+	 */
+	private static void assignIds(Resource resource) {
+		XMLResource xmlResource = (XMLResource) resource;
+		int id = 0;
+		for (Iterator<EObject> i = resource.getAllContents(); i.hasNext(); ) {
+			xmlResource.setID(i.next(), "_" + id++);
+		}
+	}
+}
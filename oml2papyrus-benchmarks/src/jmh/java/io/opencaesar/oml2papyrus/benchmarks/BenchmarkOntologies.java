@@ -0,0 +1,234 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.oml2papyrus.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.resource.XtextResourceSet;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import io.opencaesar.adapters.util.ConversionMetrics;
+import io.opencaesar.oml.Ontology;
+import io.opencaesar.oml.dsl.OmlStandaloneSetup;
+import io.opencaesar.oml.util.OmlConstants;
+import io.opencaesar.oml.util.OmlRead;
+import io.opencaesar.oml.util.OmlXMIResourceFactory;
+import io.opencaesar.oml2papyrus.util.UmlUtils;
+
+/**
+ * Writes the synthetic inputs of the benchmarks.
+ * 
+ * The vocabulary has a base concept «Block» that specializes the UML Class metaclass and a number of concepts 
+ * that specialize it. The scalar properties, the «Part» relation (forward «parts») and the «Connects» relation 
+ * are all defined on «Block», so they apply to every concept. The description bundle includes descriptions 
+ * of {@link #INSTANCES_PER_DESCRIPTION} concept instances each. An instance has the given number of scalar 
+ * property values, links to the following instances, and relation instances to the following instances.
+ */
+class BenchmarkOntologies {
+
+	static final int INSTANCES_PER_DESCRIPTION = 500;
+
+	static final String NAMESPACE = "http://bench";
+	static final String PROFILE_IRI = NAMESPACE + "/profile";
+	static final String VOCABULARY_BUNDLE_IRI = NAMESPACE + "/vocabularies";
+	static final String DESCRIPTION_BUNDLE_IRI = NAMESPACE + "/model";
+	static final String PHASES_PROPERTY = "oml2papyrus.benchmark.phases";
+
+	private static final String UML_NS = "http://www.eclipse.org/uml2/5.0.0/";
+	private static final String W3_NS = "http://www.w3.org/2001/";
+
+	private BenchmarkOntologies() {
+	}
+
+	static Logger createLogger() {
+		Logger logger = Logger.getLogger("oml2papyrus.benchmark");
+		logger.setLevel(Level.WARN);
+		return logger;
+	}
+
+	/**
+	 * Writes the vocabularies and a catalog that resolves all the ontologies to the given folder
+	 */
+	static void writeVocabularies(File folder, int concepts, int scalars) throws IOException {
+		List<String> lines = new ArrayList<>();
+		lines.add("vocabulary <" + UmlUtils.UML_IRI + "/> as UML {");
+		lines.add("");
+		lines.add("	aspect Class");
+		lines.add("");
+		lines.add("	aspect Association");
+		lines.add("}");
+		write(new File(folder, "uml/UML." + OmlConstants.OML_EXTENSION), lines);
+
+		lines.clear();
+		lines.add("vocabulary <" + OmlConstants.XSD_NS + "> as xsd {");
+		lines.add("");
+		lines.add("	scalar string");
+		lines.add("}");
+		write(new File(folder, "w3/XMLSchema." + OmlConstants.OML_EXTENSION), lines);
+
+		lines.clear();
+		lines.add("vocabulary <" + PROFILE_IRI + "#> as profile {");
+		lines.add("");
+		lines.add("	extends <" + UmlUtils.UML_IRI + "/> as UML");
+		lines.add("");
+		lines.add("	extends <" + OmlConstants.XSD_NS + "> as xsd");
+		lines.add("");
+		lines.add("	concept Block :> UML:Class");
+		for (int i = 0; i < concepts; i++) {
+			lines.add("");
+			lines.add("	concept C" + i + " :> Block");
+		}
+		for (int i = 0; i < scalars; i++) {
+			lines.add("");
+			lines.add("	scalar property s" + i + " [");
+			lines.add("		domain Block");
+			lines.add("		range xsd:string");
+			lines.add("		functional");
+			lines.add("	]");
+		}
+		lines.add("");
+		lines.add("	relation entity Part [");
+		lines.add("		from Block");
+		lines.add("		to Block");
+		lines.add("		forward parts");
+		lines.add("	] :> UML:Association");
+		lines.add("");
+		lines.add("	relation entity Connects [");
+		lines.add("		from Block");
+		lines.add("		to Block");
+		lines.add("	] :> UML:Association");
+		lines.add("}");
+		write(new File(folder, "bench/profile." + OmlConstants.OML_EXTENSION), lines);
+
+		lines.clear();
+		lines.add("vocabulary bundle <" + VOCABULARY_BUNDLE_IRI + "#> as vocabularies {");
+		lines.add("");
+		lines.add("	includes <" + PROFILE_IRI + "#>");
+		lines.add("}");
+		write(new File(folder, "bench/vocabularies." + OmlConstants.OML_EXTENSION), lines);
+
+		lines.clear();
+		lines.add("<?xml version='1.0'?>");
+		lines.add("<catalog xmlns=\"urn:oasis:names:tc:entity:xmlns:xml:catalog\" prefer=\"public\">");
+		lines.add("	<rewriteURI uriStartString=\"" + NAMESPACE + "\" rewritePrefix=\"" + URI.createFileURI(new File(folder, "bench").getAbsolutePath()) + "\"/>");
+		lines.add("	<rewriteURI uriStartString=\"" + UML_NS + "\" rewritePrefix=\"" + URI.createFileURI(new File(folder, "uml").getAbsolutePath()) + "/\"/>");
+		lines.add("	<rewriteURI uriStartString=\"" + W3_NS + "\" rewritePrefix=\"" + URI.createFileURI(new File(folder, "w3").getAbsolutePath()) + "/\"/>");
+		lines.add("</catalog>");
+		write(new File(folder, "catalog.xml"), lines);
+	}
+
+	/**
+	 * Writes the descriptions of the given number of concept instances and their description bundle to the given folder 
+	 * (whose vocabularies must have at least the given number of scalar properties)
+	 */
+	static void writeDescriptions(File folder, int concepts, int instances, int relations, int links, int scalars) throws IOException {
+		List<String> bundle = new ArrayList<>();
+		bundle.add("description bundle <" + DESCRIPTION_BUNDLE_IRI + "#> as model {");
+		bundle.add("");
+		bundle.add("	uses <" + VOCABULARY_BUNDLE_IRI + "#>");
+
+		List<String> lines = new ArrayList<>();
+		for (int d = 0; d * INSTANCES_PER_DESCRIPTION < instances; d++) {
+			int first = d * INSTANCES_PER_DESCRIPTION;
+			int size = Math.min(INSTANCES_PER_DESCRIPTION, instances - first);
+			String iri = DESCRIPTION_BUNDLE_IRI + "/d" + d;
+			bundle.add("");
+			bundle.add("	includes <" + iri + "#>");
+
+			lines.clear();
+			lines.add("description <" + iri + "#> as d" + d + " {");
+			lines.add("");
+			lines.add("	uses <" + PROFILE_IRI + "#> as profile");
+			for (int i = 0; i < size; i++) {
+				lines.add("");
+				lines.add("	ci c" + (first + i) + " : profile:C" + ((first + i) % concepts) + " [");
+				for (int s = 0; s < scalars; s++) {
+					lines.add("		profile:s" + s + " \"" + (first + i) + "\"");
+				}
+				// links and relations go to the following instances in the same description
+				for (int l = 1; l <= Math.min(links, size - 1); l++) {
+					lines.add("		profile:parts c" + (first + (i + l) % size));
+				}
+				lines.add("	]");
+			}
+			for (int i = 0; i < size; i++) {
+				for (int r = 1; r <= Math.min(relations, size - 1); r++) {
+					lines.add("");
+					lines.add("	ri r" + (first + i) + "_" + r + " : profile:Connects [");
+					lines.add("		from c" + (first + i));
+					lines.add("		to c" + (first + (i + r) % size));
+					lines.add("	]");
+				}
+			}
+			lines.add("}");
+			write(new File(folder, "bench/model/d" + d + "." + OmlConstants.OML_EXTENSION), lines);
+		}
+		bundle.add("}");
+		write(new File(folder, "bench/model." + OmlConstants.OML_EXTENSION), bundle);
+	}
+
+	private static void write(File file, List<String> lines) throws IOException {
+		file.getParentFile().mkdirs();
+		lines.add("");
+		Files.write(file.toPath(), String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Loads the ontology with the given IRI from the given folder (with all the ontologies it imports)
+	 */
+	static Ontology load(File folder, String iri) {
+		OmlStandaloneSetup.doSetup();
+		OmlXMIResourceFactory.register();
+		XtextResourceSet resourceSet = new XtextResourceSet();
+		String path = iri.substring(NAMESPACE.length());
+		URI uri = URI.createFileURI(new File(folder, "bench" + path + "." + OmlConstants.OML_EXTENSION).getAbsolutePath());
+		return OmlRead.getOntology(resourceSet.getResource(uri, true));
+	}
+
+	/**
+	 * @return metrics that collect the per-phase breakdown (if the {@value #PHASES_PROPERTY} system property is set)
+	 */
+	static ConversionMetrics createMetrics() {
+		return System.getProperty(PHASES_PROPERTY) != null ? new ConversionMetrics("oml2papyrus") : ConversionMetrics.NONE;
+	}
+
+	/**
+	 * Writes the per-phase breakdown of a trial to the folder given by the {@value #PHASES_PROPERTY} system property
+	 */
+	static void report(ConversionMetrics metrics, BenchmarkParams params) throws IOException {
+		if (!metrics.isEnabled()) {
+			return;
+		}
+		String benchmark = params.getBenchmark();
+		StringBuilder name = new StringBuilder(benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1));
+		for (String key : params.getParamsKeys()) {
+			name.append('-').append(key).append('=').append(params.getParam(key));
+		}
+		File file = new File(System.getProperty(PHASES_PROPERTY), name.toString().toLowerCase(Locale.ROOT) + ".json");
+		metrics.report(file, createLogger());
+	}
+}
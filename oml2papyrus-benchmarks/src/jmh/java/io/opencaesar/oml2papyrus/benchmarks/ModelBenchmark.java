@@ -0,0 +1,129 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.oml2papyrus.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.uml2.uml.Profile;
+import org.eclipse.uml2.uml.resources.util.UMLResourcesUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import io.opencaesar.adapters.util.ConversionMetrics;
+import io.opencaesar.oml.DescriptionBundle;
+import io.opencaesar.oml.VocabularyBundle;
+import io.opencaesar.oml2papyrus.DescriptionBundleToModel;
+import io.opencaesar.oml2papyrus.VocabularyBundleToProfile;
+
+/**
+ * Measures converting a description bundle to a model that applies the profile of its vocabularies
+ * (the profile is converted and saved once per trial, and reloaded before each invocation)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ModelBenchmark {
+
+	private static final int CONCEPTS = 10;
+
+	@Param({"1000", "10000"})
+	public int instances;
+
+	@Param({"0", "1"})
+	public int relations;
+
+	@Param({"1", "4"})
+	public int links;
+
+	@Param({"1", "4"})
+	public int scalars;
+
+	@Param({"false", "true"})
+	public boolean forceReifiedLinks;
+
+	private File outputFolder;
+	private URI profileUri;
+	private DescriptionBundle descriptionBundle;
+	private ConversionMetrics metrics;
+	private Logger logger;
+	private Profile profile;
+	private ResourceSet papyrusResourceSet;
+
+	@Setup(Level.Trial)
+	public void setupTrial() throws Exception {
+		File folder = Files.createTempDirectory("oml2papyrus-bench").toFile();
+		BenchmarkOntologies.writeVocabularies(folder, CONCEPTS, scalars);
+		BenchmarkOntologies.writeDescriptions(folder, CONCEPTS, instances, relations, links, scalars);
+		outputFolder = new File(folder, "output");
+		logger = BenchmarkOntologies.createLogger();
+		
+		ResourceSet resourceSet = new ResourceSetImpl();
+		UMLResourcesUtil.init(resourceSet);
+		VocabularyBundle vocabularyBundle = (VocabularyBundle) BenchmarkOntologies.load(folder, BenchmarkOntologies.VOCABULARY_BUNDLE_IRI);
+		Resource profileResource = new VocabularyBundleToProfile(vocabularyBundle, outputFolder, resourceSet, logger).convert();
+		profileResource.save(Collections.EMPTY_MAP);
+		profileUri = profileResource.getURI();
+
+		descriptionBundle = (DescriptionBundle) BenchmarkOntologies.load(folder, BenchmarkOntologies.DESCRIPTION_BUNDLE_IRI);
+		metrics = BenchmarkOntologies.createMetrics();
+	}
+
+	@Setup(Level.Invocation)
+	public void setup() {
+		papyrusResourceSet = new ResourceSetImpl();
+		UMLResourcesUtil.init(papyrusResourceSet);
+		profile = (Profile) papyrusResourceSet.getResource(profileUri, true).getContents().get(0);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown(BenchmarkParams params) throws IOException {
+		BenchmarkOntologies.report(metrics, params);
+	}
+
+	@Benchmark
+	public Resource convert() throws Exception {
+		DescriptionBundleToModel converter = new DescriptionBundleToModel(descriptionBundle, profile, outputFolder, forceReifiedLinks, papyrusResourceSet, logger);
+		converter.setMetrics(metrics);
+		metrics.count("invocations", 1);
+		return converter.convert();
+	}
+}
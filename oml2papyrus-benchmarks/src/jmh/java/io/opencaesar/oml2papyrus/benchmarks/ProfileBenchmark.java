@@ -0,0 +1,94 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.oml2papyrus.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.uml2.uml.resources.util.UMLResourcesUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import io.opencaesar.adapters.util.ConversionMetrics;
+import io.opencaesar.oml.VocabularyBundle;
+import io.opencaesar.oml2papyrus.VocabularyBundleToProfile;
+
+/**
+ * Measures converting a vocabulary bundle to a profile (including the definition of the profile)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ProfileBenchmark {
+
+	@Param({"10", "100", "1000"})
+	public int concepts;
+
+	@Param({"1", "10"})
+	public int scalars;
+
+	private File outputFolder;
+	private VocabularyBundle vocabularyBundle;
+	private ConversionMetrics metrics;
+	private Logger logger;
+
+	@Setup
+	public void setup() throws IOException {
+		File folder = Files.createTempDirectory("oml2papyrus-bench").toFile();
+		BenchmarkOntologies.writeVocabularies(folder, concepts, scalars);
+		vocabularyBundle = (VocabularyBundle) BenchmarkOntologies.load(folder, BenchmarkOntologies.VOCABULARY_BUNDLE_IRI);
+		outputFolder = new File(folder, "output");
+		metrics = BenchmarkOntologies.createMetrics();
+		logger = BenchmarkOntologies.createLogger();
+	}
+
+	@TearDown
+	public void tearDown(BenchmarkParams params) throws IOException {
+		BenchmarkOntologies.report(metrics, params);
+	}
+
+	@Benchmark
+	public Resource convert() throws Exception {
+		ResourceSet papyrusResourceSet = new ResourceSetImpl();
+		UMLResourcesUtil.init(papyrusResourceSet);
+		VocabularyBundleToProfile converter = new VocabularyBundleToProfile(vocabularyBundle, outputFolder, papyrusResourceSet, logger);
+		converter.setMetrics(metrics);
+		metrics.count("invocations", 1);
+		return converter.convert();
+	}
+}
@@ -17,14 +17,36 @@
  */
 package io.opencaesar.oml2papyrus;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 
+import javax.inject.Inject;
+
 import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.Project;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Classpath;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
 import org.gradle.api.tasks.TaskAction;
-import org.gradle.api.tasks.TaskExecutionException;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkParameters;
+import org.gradle.workers.WorkerExecutor;
 
-public class Oml2PapyrusTask extends DefaultTask {
+@CacheableTask
+public abstract class Oml2PapyrusTask extends DefaultTask {
 	
 	public String inputOntologyPath = null;
 
@@ -34,22 +56,105 @@ public class Oml2PapyrusTask extends DefaultTask {
 	
 	public boolean forceReifiedLinks = false;
 	
+	public String metricsPath = null;
+	
+	public String jfrPath = null;
+	
 	public boolean debug;
+	
+	/**
+	 * The OML files (or folders) imported by the input ontology that are not in its catalog folder,
+	 * so that the task reruns when they change
+	 */
+	public FileCollection referencedOntologies = null;
+	
+	/**
+	 * The classpath of the conversion (by default, the buildscript classpath that provides this task)
+	 */
+	public FileCollection toolClasspath = null;
+
+	@Inject
+	public abstract WorkerExecutor getWorkerExecutor();
+
+	@InputFile
+	@PathSensitive(PathSensitivity.RELATIVE)
+	public File getInputOntologyFile() {
+		return inputOntologyPath != null ? getProject().file(inputOntologyPath) : null;
+	}
+
+	@InputFiles
+	@PathSensitive(PathSensitivity.RELATIVE)
+	public FileCollection getCatalogFiles() {
+		// the imports of the input ontology are resolved by the nearest catalog above it
+		final ConfigurableFileCollection files = getProject().files();
+		final File catalogFile = getCatalogFile();
+		if (catalogFile != null) {
+			files.from(catalogFile);
+			files.from(getProject().fileTree(catalogFile.getParentFile(), t -> t.include("**/*.oml", "**/*.omlxmi")));
+		}
+		return files;
+	}
+
+	@InputFiles
+	@Optional
+	@PathSensitive(PathSensitivity.RELATIVE)
+	public FileCollection getReferencedOntologies() {
+		return referencedOntologies;
+	}
+
+	@InputFile
+	@Optional
+	@PathSensitive(PathSensitivity.RELATIVE)
+	public File getInputProfileFile() {
+		return inputProfilePath != null ? getProject().file(inputProfilePath) : null;
+	}
+
+	@Input
+	public boolean isForceReifiedLinks() {
+		return forceReifiedLinks;
+	}
+
+	@OutputDirectory
+	public File getOutputFolder() {
+		return outputFolderPath != null ? getProject().file(outputFolderPath) : null;
+	}
+
+	@OutputFile
+	@Optional
+	public File getMetricsFile() {
+		return metricsPath != null ? getProject().file(metricsPath) : null;
+	}
+
+	@OutputFile
+	@Optional
+	public File getJfrFile() {
+		return jfrPath != null ? getProject().file(jfrPath) : null;
+	}
+
+	@Classpath
+	public FileCollection getToolClasspath() {
+		return toolClasspath != null ? toolClasspath : getBuildscriptClasspath(getProject());
+	}
+
+	@Internal
+	public boolean isDebug() {
+		return debug;
+	}
 
     @TaskAction
     public void run() {
         List<String> args = new ArrayList<String>();
         if (inputOntologyPath != null) {
 		    args.add("-i");
-		    args.add(inputOntologyPath);
+		    args.add(getInputOntologyFile().getPath());
         }
         if (inputProfilePath != null) {
 		    args.add("-p");
-		    args.add(inputProfilePath);
+		    args.add(getInputProfileFile().getPath());
         }
         if (outputFolderPath != null) {
 		    args.add("-o");
-		    args.add(outputFolderPath);
+		    args.add(getOutputFolder().getPath());
         }
 	    if (debug) {
 		    args.add("-d");
@@ -57,11 +162,60 @@ public class Oml2PapyrusTask extends DefaultTask {
 	    if (forceReifiedLinks) {
 	    	args.add("-f");
 	    }
-	    try {
-	    	Oml2PapyrusApp.main(args.toArray(new String[0]));
-		} catch (Exception e) {
-			throw new TaskExecutionException(this, e);
-		}
+	    if (metricsPath != null) {
+	    	args.add("--metrics");
+	    	args.add(getMetricsFile().getPath());
+	    }
+	    if (jfrPath != null) {
+	    	args.add("--jfr");
+	    	args.add(getJfrFile().getPath());
+	    }
+	    getWorkerExecutor()
+	    	.classLoaderIsolation(spec -> spec.getClasspath().from(getToolClasspath()))
+	    	.submit(Oml2PapyrusAction.class, parameters -> parameters.getArgs().set(args));
    	}
+
+	/**
+	 * Finds the nearest catalog file in the folders of the input ontology
+	 */
+	private File getCatalogFile() {
+		final File inputOntologyFile = getInputOntologyFile();
+		for (File folder = inputOntologyFile != null ? inputOntologyFile.getParentFile() : null; folder != null; folder = folder.getParentFile()) {
+			final File catalogFile = new File(folder, "catalog.xml");
+			if (catalogFile.exists()) {
+				return catalogFile;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Collects the buildscript classpaths of the given project and its parents
+	 */
+	static FileCollection getBuildscriptClasspath(Project project) {
+		final ConfigurableFileCollection classpath = project.files();
+		for (Project p = project; p != null; p = p.getParent()) {
+			classpath.from(p.getBuildscript().getConfigurations().getByName("classpath"));
+		}
+		return classpath;
+	}
+
+	public interface Oml2PapyrusParameters extends WorkParameters {
+		ListProperty<String> getArgs();
+	}
+
+	/**
+	 * Runs the conversion in the isolated classloader of a worker
+	 */
+	public static abstract class Oml2PapyrusAction implements WorkAction<Oml2PapyrusParameters> {
+		@Override
+		public void execute() {
+			try {
+				Oml2PapyrusApp.main(getParameters().getArgs().get().toArray(new String[0]));
+			} catch (Exception e) {
+				throw new GradleException("Oml to Papyrus conversion failed", e);
+			}
+		}
+	}
     
-}
\ No newline at end of file
+}
@@ -49,6 +49,8 @@ import org.eclipse.uml2.uml.UMLFactory;
 import org.eclipse.uml2.uml.UMLPackage;
 import org.eclipse.uml2.uml.resource.UMLResource;
 
+import io.opencaesar.adapters.util.ConversionEvent;
+import io.opencaesar.adapters.util.ConversionMetrics;
 import io.opencaesar.oml.AnnotatedElement;
 import io.opencaesar.oml.Annotation;
 import io.opencaesar.oml.Concept;
@@ -95,6 +97,7 @@ public class DescriptionBundleToModel {
 	private Set<LinkAssertion> links = new HashSet<>();
 	private final boolean forceReifiedLinks;
 	private Vocabulary umlVoc;
+	private ConversionMetrics metrics = ConversionMetrics.NONE;
 	
 	public DescriptionBundleToModel(DescriptionBundle rootOntology, Profile profile, File outputFolder, boolean forceReifiedLinks, ResourceSet outputResourceSet, Logger logger) {
 		this.rootOntology = rootOntology;
@@ -108,6 +111,10 @@ public class DescriptionBundleToModel {
 		populateIriToTypeMap(profile, iriToTypeMap);
 	}
 
+	public void setMetrics(ConversionMetrics metrics) {
+		this.metrics = metrics;
+	}
+
 	public Resource convert() throws Exception {
 		// Create parent folder
 		URI iri = URI.createURI(rootOntology.getIri());
@@ -143,11 +150,28 @@ public class DescriptionBundleToModel {
 			collect(Collectors.toList());
 		this.umlVoc = umlVoc[0];
 		// Convert each description
-		allDescriptions.forEach(d -> visitor.doSwitch(d));
+		try (ConversionMetrics.Timer t = metrics.phase("traverse")) {
+			allDescriptions.forEach(d -> visitor.doSwitch(d));
+		}
 		logger.info("Converting Relations:");
-		relations.forEach(r -> convertRelationInstance(r));
+		try (ConversionMetrics.Timer t = metrics.phase("deferred relations")) {
+			relations.forEach(r -> {
+				final long start = metrics.beginElement();
+				convertRelationInstance(r);
+				metrics.endElement(r.eClass().getName(), start);
+			});
+		}
 		logger.info("Converting Links:");
-		links.forEach(l -> convertLink(l));
+		try (ConversionMetrics.Timer t = metrics.phase("deferred links")) {
+			links.forEach(l -> {
+				final long start = metrics.beginElement();
+				convertLink(l);
+				metrics.endElement(l.eClass().getName(), start);
+			});
+		}
+		metrics.count("descriptions", allDescriptions.size());
+		metrics.count("deferred relations", relations.size());
+		metrics.count("deferred links", links.size());
 		return outputResource;
 	}
 	
@@ -219,62 +243,71 @@ public class DescriptionBundleToModel {
 	}
 	
 	public void convertRelationInstance(RelationInstance object) {
-		List<RelationTypeAssertion> assertions = OmlSearch.findTypeAssertions(object);
-		if (assertions.isEmpty()) {
-			throw new IllegalArgumentException("relation instance "+object.getIri()+" does not have a type");
-		}
-		RelationEntity relationEntity = assertions.get(0).getType();
+		final ConversionEvent event = new ConversionEvent();
+		event.begin();
+		try {
+			List<RelationTypeAssertion> assertions = OmlSearch.findTypeAssertions(object);
+			if (assertions.isEmpty()) {
+				throw new IllegalArgumentException("relation instance "+object.getIri()+" does not have a type");
+			}
+			RelationEntity relationEntity = assertions.get(0).getType();
 
-		Stereotype stereotype = (Stereotype) iriToTypeMap.get(relationEntity.getIri());
-		if (stereotype == null) {
-			throw new IllegalArgumentException("stereotype "+relationEntity.getIri()+" is not found in the profile");
-		}
+			Stereotype stereotype = (Stereotype) iriToTypeMap.get(relationEntity.getIri());
+			if (stereotype == null) {
+				throw new IllegalArgumentException("stereotype "+relationEntity.getIri()+" is not found in the profile");
+			}
 
-		List<org.eclipse.uml2.uml.Class> metaclasses = stereotype.getAllExtendedMetaclasses();
-		if (metaclasses.isEmpty()) {
-			throw new IllegalArgumentException("stereotype "+relationEntity.getIri()+" does not extend any metaclass");
-		}
-		EClass eClass = (EClass) UMLPackage.eINSTANCE.getEClassifier(metaclasses.get(0).getName());
+			List<org.eclipse.uml2.uml.Class> metaclasses = stereotype.getAllExtendedMetaclasses();
+			if (metaclasses.isEmpty()) {
+				throw new IllegalArgumentException("stereotype "+relationEntity.getIri()+" does not extend any metaclass");
+			}
+			EClass eClass = (EClass) UMLPackage.eINSTANCE.getEClassifier(metaclasses.get(0).getName());
 		
-		PackageableElement element = (PackageableElement) UMLFactory.eINSTANCE.create(eClass) ;
-		element.setName(object.getName());
-		UmlUtils.addNameAnnotationIfNeeded(element);
-		oml2EcoreMap.put(object, element);
-		List<NamedElement> sources = object.getSources().stream().map(s -> (NamedElement) oml2EcoreMap.get(s)).collect(Collectors.toList());
-		List<NamedElement> targets = object.getTargets().stream().map(s -> (NamedElement) oml2EcoreMap.get(s)).collect(Collectors.toList());
-		Entity entity = getUMLEntityByName(eClass.getName());
-		if (entity instanceof RelationEntity) {
-			Rule rule = getUMLRuleByName(eClass.getName()+"_Rule");
-			Feature sourceFeature = ((FeaturePredicate)rule.getConsequent().get(0)).getFeature();
-			String sourceName = getNamefromAnnotation(sourceFeature);
-			Feature targetFeature = ((FeaturePredicate)rule.getConsequent().get(1)).getFeature();
-			String targetName = getNamefromAnnotation(targetFeature);
-			EStructuralFeature sourceStrcucturalFeature = element.eClass().getEStructuralFeature(sourceName);
-			EStructuralFeature targetStructuralFeature = element.eClass().getEStructuralFeature(targetName);
-			if (sourceStrcucturalFeature==null || targetStructuralFeature==null) {
-				logger.error("Error: converting relation");
+			PackageableElement element = (PackageableElement) UMLFactory.eINSTANCE.create(eClass) ;
+			element.setName(object.getName());
+			UmlUtils.addNameAnnotationIfNeeded(element);
+			oml2EcoreMap.put(object, element);
+			List<NamedElement> sources = object.getSources().stream().map(s -> (NamedElement) oml2EcoreMap.get(s)).collect(Collectors.toList());
+			List<NamedElement> targets = object.getTargets().stream().map(s -> (NamedElement) oml2EcoreMap.get(s)).collect(Collectors.toList());
+			Entity entity = getUMLEntityByName(eClass.getName());
+			if (entity instanceof RelationEntity) {
+				Rule rule = getUMLRuleByName(eClass.getName()+"_Rule");
+				Feature sourceFeature = ((FeaturePredicate)rule.getConsequent().get(0)).getFeature();
+				String sourceName = getNamefromAnnotation(sourceFeature);
+				Feature targetFeature = ((FeaturePredicate)rule.getConsequent().get(1)).getFeature();
+				String targetName = getNamefromAnnotation(targetFeature);
+				EStructuralFeature sourceStrcucturalFeature = element.eClass().getEStructuralFeature(sourceName);
+				EStructuralFeature targetStructuralFeature = element.eClass().getEStructuralFeature(targetName);
+				if (sourceStrcucturalFeature==null || targetStructuralFeature==null) {
+					logger.error("Error: converting relation");
+				}
+				setFeatureValue(sourceStrcucturalFeature, element,sources);
+				setFeatureValue(targetStructuralFeature, element,targets);
+			}else if (eClass.getClassifierID() == UMLPackage.ASSOCIATION) {
+				setAssociationDetails((Association)element,sources, targets);
 			}
-			setFeatureValue(sourceStrcucturalFeature, element,sources);
-			setFeatureValue(targetStructuralFeature, element,targets);
-		}else if (eClass.getClassifierID() == UMLPackage.ASSOCIATION) {
-			setAssociationDetails((Association)element,sources, targets);
-		}
 
-		org.eclipse.uml2.uml.Package package_ = (org.eclipse.uml2.uml.Package) oml2EcoreMap.get(object.getOntology());
-		package_.getPackagedElements().add(element);
+			org.eclipse.uml2.uml.Package package_ = (org.eclipse.uml2.uml.Package) oml2EcoreMap.get(object.getOntology());
+			package_.getPackagedElements().add(element);
 		
-		for (RelationEntity aRelationEntity : assertions.stream().map(a -> a.getType()).collect(Collectors.toSet())) {
-			Stereotype aStereotype = (Stereotype) iriToTypeMap.get(aRelationEntity.getIri());
-			if (aStereotype == null) {
-				throw new IllegalArgumentException("stereotype "+aRelationEntity.getIri()+" is not found in the profile");
+			for (RelationEntity aRelationEntity : assertions.stream().map(a -> a.getType()).collect(Collectors.toSet())) {
+				Stereotype aStereotype = (Stereotype) iriToTypeMap.get(aRelationEntity.getIri());
+				if (aStereotype == null) {
+					throw new IllegalArgumentException("stereotype "+aRelationEntity.getIri()+" is not found in the profile");
+				}
+				element.applyStereotype(aStereotype);
+			}
+			OmlSearch.findPropertyValueAssertions(object).forEach(e ->{ 
+					if (e instanceof ScalarPropertyValueAssertion) {
+						convertScalarPropertyValueAssertion((ScalarPropertyValueAssertion)e);
+					}
+				});
+		} finally {
+			event.end();
+			if (event.shouldCommit()) {
+				event.commit("relation", object.eClass(), object.getIri());
 			}
-			element.applyStereotype(aStereotype);
 		}
-		OmlSearch.findPropertyValueAssertions(object).forEach(e ->{ 
-				if (e instanceof ScalarPropertyValueAssertion) {
-					convertScalarPropertyValueAssertion((ScalarPropertyValueAssertion)e);
-				}
-			});
 	}
 
 	private void setAssociationDetails(Association association, List<NamedElement> sources, List<NamedElement> targets) {
@@ -321,67 +354,76 @@ public class DescriptionBundleToModel {
 
 	@SuppressWarnings({ "rawtypes", "unchecked" })
 	private void convertLink(LinkAssertion object) {
-		Relation relation = object.getRelation();
-		RelationEntity relationEntity = relation.getRelationEntity();
-		NamedInstance sourceInst = OmlRead.getSource(object);
-		NamedInstance targetInst = object.getTarget();
+		final NamedInstance sourceInst = OmlRead.getSource(object);
+		final ConversionEvent event = new ConversionEvent();
+		event.begin();
+		try {
+			Relation relation = object.getRelation();
+			RelationEntity relationEntity = relation.getRelationEntity();
+			NamedInstance targetInst = object.getTarget();
 		
-		Stereotype stereotype = (Stereotype) iriToTypeMap.get(relationEntity.getIri());
-		if (stereotype == null) {
-			throw new IllegalArgumentException("stereotype "+relationEntity.getIri()+" is not found in the profile");
-		}
+			Stereotype stereotype = (Stereotype) iriToTypeMap.get(relationEntity.getIri());
+			if (stereotype == null) {
+				throw new IllegalArgumentException("stereotype "+relationEntity.getIri()+" is not found in the profile");
+			}
 
-		List<org.eclipse.uml2.uml.Class> metaclasses = stereotype.getAllExtendedMetaclasses();
-		if (metaclasses.isEmpty()) {
-			throw new IllegalArgumentException("stereotype "+relationEntity.getIri()+" does not extend any metaclass");
-		}
+			List<org.eclipse.uml2.uml.Class> metaclasses = stereotype.getAllExtendedMetaclasses();
+			if (metaclasses.isEmpty()) {
+				throw new IllegalArgumentException("stereotype "+relationEntity.getIri()+" does not extend any metaclass");
+			}
 		
-		// reified flow should be triggered if the reified flag is ON
-		EClass eClass = (EClass) UMLPackage.eINSTANCE.getEClassifier(metaclasses.get(0).getName());
+			// reified flow should be triggered if the reified flag is ON
+			EClass eClass = (EClass) UMLPackage.eINSTANCE.getEClassifier(metaclasses.get(0).getName());
 		
-		if (forceReifiedLinks) {
-			PackageableElement element = (PackageableElement) UMLFactory.eINSTANCE.create(eClass) ;
-			element.setName(null);
-			oml2EcoreMap.put(object, element);
+			if (forceReifiedLinks) {
+				PackageableElement element = (PackageableElement) UMLFactory.eINSTANCE.create(eClass) ;
+				element.setName(null);
+				oml2EcoreMap.put(object, element);
 
-			NamedElement source = (relation instanceof ForwardRelation) ?
-					(NamedElement) oml2EcoreMap.get(sourceInst) :
-					(NamedElement) oml2EcoreMap.get(targetInst);
-			NamedElement target = (relation instanceof ForwardRelation) ?
-					(NamedElement) oml2EcoreMap.get(targetInst) :
-						(NamedElement) oml2EcoreMap.get(sourceInst);
+				NamedElement source = (relation instanceof ForwardRelation) ?
+						(NamedElement) oml2EcoreMap.get(sourceInst) :
+						(NamedElement) oml2EcoreMap.get(targetInst);
+				NamedElement target = (relation instanceof ForwardRelation) ?
+						(NamedElement) oml2EcoreMap.get(targetInst) :
+							(NamedElement) oml2EcoreMap.get(sourceInst);
 
-			org.eclipse.uml2.uml.Package package_ = (Package) oml2EcoreMap.get(object.getOntology());
-			package_.getPackagedElements().add(element);
-			Entity entity = getUMLEntityByName(eClass.getName());
-			if (entity instanceof RelationEntity) {
-				Rule rule = getUMLRuleByName(eClass.getName()+"_Rule");
-				Feature sourceFeature = ((FeaturePredicate)rule.getConsequent().get(0)).getFeature();
-				String sourceName = getNamefromAnnotation(sourceFeature);
-				Feature targetFeature = ((FeaturePredicate)rule.getConsequent().get(1)).getFeature();
-				String targetName = getNamefromAnnotation(targetFeature);
-				EStructuralFeature sourceStructuralFeature = element.eClass().getEStructuralFeature(sourceName);
-				EStructuralFeature targetStructuralFeature = element.eClass().getEStructuralFeature(targetName);
-				setFeatureValue(sourceStructuralFeature,element,Collections.singletonList(source));
-				setFeatureValue(targetStructuralFeature,element,Collections.singletonList(target));
-			}else if (eClass.getClassifierID() == UMLPackage.ASSOCIATION) {
-				setAssociationDetails((Association)element,Collections.singletonList(source), Collections.singletonList(target));
-			}
-			element.applyStereotype(stereotype);
-		}else {
-			NamedElement source = (NamedElement) oml2EcoreMap.get(sourceInst);
-			NamedElement target = (NamedElement) oml2EcoreMap.get(targetInst);
-			EObject sourceApplication = getStereoTypeApplication(sourceInst, source);
-			EObject targetApplication = getStereoTypeApplication(targetInst, target);
-			if (targetApplication==null) {
-				logger.error("could not find stereotype application for link " + target);
+				org.eclipse.uml2.uml.Package package_ = (Package) oml2EcoreMap.get(object.getOntology());
+				package_.getPackagedElements().add(element);
+				Entity entity = getUMLEntityByName(eClass.getName());
+				if (entity instanceof RelationEntity) {
+					Rule rule = getUMLRuleByName(eClass.getName()+"_Rule");
+					Feature sourceFeature = ((FeaturePredicate)rule.getConsequent().get(0)).getFeature();
+					String sourceName = getNamefromAnnotation(sourceFeature);
+					Feature targetFeature = ((FeaturePredicate)rule.getConsequent().get(1)).getFeature();
+					String targetName = getNamefromAnnotation(targetFeature);
+					EStructuralFeature sourceStructuralFeature = element.eClass().getEStructuralFeature(sourceName);
+					EStructuralFeature targetStructuralFeature = element.eClass().getEStructuralFeature(targetName);
+					setFeatureValue(sourceStructuralFeature,element,Collections.singletonList(source));
+					setFeatureValue(targetStructuralFeature,element,Collections.singletonList(target));
+				}else if (eClass.getClassifierID() == UMLPackage.ASSOCIATION) {
+					setAssociationDetails((Association)element,Collections.singletonList(source), Collections.singletonList(target));
+				}
+				element.applyStereotype(stereotype);
+			}else {
+				NamedElement source = (NamedElement) oml2EcoreMap.get(sourceInst);
+				NamedElement target = (NamedElement) oml2EcoreMap.get(targetInst);
+				EObject sourceApplication = getStereoTypeApplication(sourceInst, source);
+				EObject targetApplication = getStereoTypeApplication(targetInst, target);
+				if (targetApplication==null) {
+					logger.error("could not find stereotype application for link " + target);
+				}
+				String relName = object.getRelation().getName();
+				EStructuralFeature feature = sourceApplication.eClass().getEStructuralFeature(relName);
+				if (feature.isMany()) {
+					((List)sourceApplication.eGet(feature,true)).add(targetApplication);
+				}else  {
+					sourceApplication.eSet(feature, targetApplication);
+				}
 			}
-			String relName = object.getRelation().getName();
-			EStructuralFeature feature = sourceApplication.eClass().getEStructuralFeature(relName);
-			if (feature.isMany()) {
-				((List)sourceApplication.eGet(feature,true)).add(targetApplication);
-			}else  {
-				sourceApplication.eSet(feature, targetApplication);
+		} finally {
+			event.end();
+			if (event.shouldCommit()) {
+				event.commit("link", object.eClass(), sourceInst.getIri());
 			}
 		}
 	}
@@ -402,7 +444,9 @@ public class DescriptionBundleToModel {
 				if (links.contains(theEObject) || relations.contains(theEObject)) {
 					return theEObject;
 				}
+				final long start = metrics.beginElement();
 				result = super.doSwitch(classifierID, theEObject);
+				metrics.endElement(theEObject.eClass().getName(), start);
 			}
 			return result;
 		}
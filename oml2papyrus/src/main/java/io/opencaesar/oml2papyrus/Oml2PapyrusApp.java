@@ -18,8 +18,15 @@
 package io.opencaesar.oml2papyrus;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.util.Arrays;
 import java.util.Collections;
 
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
 import org.apache.log4j.Appender;
 import org.apache.log4j.AppenderSkeleton;
 import org.apache.log4j.Level;
@@ -39,12 +46,18 @@ import com.beust.jcommander.JCommander;
 import com.beust.jcommander.Parameter;
 import com.beust.jcommander.ParameterException;
 
+import io.opencaesar.adapters.util.ConversionDaemon;
+import io.opencaesar.adapters.util.ConversionEvent;
+import io.opencaesar.adapters.util.ConversionMetrics;
+import io.opencaesar.adapters.util.DaemonOptions;
+import io.opencaesar.adapters.util.LibraryCache;
 import io.opencaesar.oml.DescriptionBundle;
 import io.opencaesar.oml.Ontology;
 import io.opencaesar.oml.VocabularyBundle;
 import io.opencaesar.oml.dsl.OmlStandaloneSetup;
 import io.opencaesar.oml.util.OmlRead;
 import io.opencaesar.oml.util.OmlXMIResourceFactory;
+import io.opencaesar.oml2papyrus.util.UmlUtils;
 
 public class Oml2PapyrusApp {
 
@@ -82,6 +95,20 @@ public class Oml2PapyrusApp {
 	) 
 	private boolean forceReifiedLinks=false;
 
+	@Parameter(
+		names= {"--metrics"}, 
+		description="Path to a JSON file where the conversion metrics are written (Optional)", 
+		order=7
+	) 
+	private String metricsPath;
+
+	@Parameter(
+		names= {"--jfr"}, 
+		description="Path to a JFR file where the conversion events are recorded (Optional)", 
+		order=8
+	) 
+	private String jfrPath;
+
 	@Parameter(
 		names= {"--debug", "-d"}, 
 		description="Shows debug logging statements", 
@@ -99,6 +126,12 @@ public class Oml2PapyrusApp {
 	
     private final static Logger LOGGER = Logger.getLogger(Oml2PapyrusApp.class);
 
+	private static boolean languageLoaded;
+
+	// the libraries kept loaded between the requests of a daemon
+	private LibraryCache omlLibraries;
+	private LibraryCache umlLibraries;
+
     static {
         DOMConfigurator.configure(ClassLoader.getSystemClassLoader().getResource("log4j.xml"));
     }
@@ -107,11 +140,27 @@ public class Oml2PapyrusApp {
 	 * Main method
 	 */
 	public static void main(String ... args) throws Exception {
+		if (DaemonOptions.isRequested(args)) {
+			final DaemonOptions options = new DaemonOptions();
+			final JCommander builder = JCommander.newBuilder().addObject(options).build();
+			builder.parse(args);
+			if (options.help) {
+				builder.usage();
+				return;
+			}
+			if (options.debug) {
+				final Appender appender = LogManager.getRootLogger().getAppender("stdout");
+				((AppenderSkeleton)appender).setThreshold(Level.DEBUG);
+			}
+			new Oml2PapyrusApp().serve(options.port);
+			return;
+		}
 		final Oml2PapyrusApp app = new Oml2PapyrusApp();
 		final JCommander builder = JCommander.newBuilder().addObject(app).build();
 		builder.parse(args);
 		if (app.help) {
 			builder.usage();
+			JCommander.newBuilder().addObject(new DaemonOptions()).build().usage();
 			return;
 		}
 		if (app.debug) {
@@ -121,7 +170,76 @@ public class Oml2PapyrusApp {
 		if (app.outputFolderPath.endsWith(File.separator)) {
 			app.outputFolderPath = app.outputFolderPath.substring(0, app.outputFolderPath.length()-1);
 		}
-		app.run();
+		final Recording recording = app.startRecording();
+		try {
+			app.run();
+		} finally {
+			app.stopRecording(recording);
+		}
+	}
+
+	/**
+	 * Serves conversion requests, each with its own resource sets, until the daemon is shut down
+	 */
+	private void serve(int port) throws IOException {
+		final LibraryCache omlLibraries = LibraryCache.forOntologies(Arrays.asList(UmlUtils.UML_IRI, UmlUtils.TYPES_IRI), LOGGER);
+		final LibraryCache umlLibraries = LibraryCache.forPathmaps(LOGGER);
+		final ConversionDaemon daemon = new ConversionDaemon(args -> {
+			final Oml2PapyrusApp request = new Oml2PapyrusApp();
+			JCommander.newBuilder().addObject(request).build().parse(args);
+			if (request.help) {
+				throw new ParameterException("A request should have the arguments of a conversion");
+			}
+			if (request.outputFolderPath.endsWith(File.separator)) {
+				request.outputFolderPath = request.outputFolderPath.substring(0, request.outputFolderPath.length()-1);
+			}
+			request.omlLibraries = omlLibraries;
+			request.umlLibraries = umlLibraries;
+			final Recording recording = request.startRecording();
+			try {
+				request.run();
+			} finally {
+				request.stopRecording(recording);
+			}
+		}, LOGGER);
+		if (port > 0) {
+			daemon.serve(port);
+		} else {
+			daemon.serveConsole();
+		}
+	}
+
+	/**
+	 * Loads the Oml language (once per process)
+	 */
+	private static synchronized void loadLanguage() {
+		if (!languageLoaded) {
+			OmlStandaloneSetup.doSetup();
+			OmlXMIResourceFactory.register();
+			languageLoaded = true;
+		}
+	}
+
+	/**
+	 * Starts a JFR recording of the conversion events (if needed)
+	 */
+	private Recording startRecording() throws IOException, ParseException {
+		if (jfrPath == null) {
+			return null;
+		}
+		final Recording recording = new Recording(Configuration.getConfiguration("default"));
+		recording.enable(ConversionEvent.class);
+		recording.setDestination(Paths.get(jfrPath));
+		recording.start();
+		return recording;
+	}
+
+	private void stopRecording(Recording recording) {
+		if (recording != null) {
+			recording.stop();
+			recording.close();
+			LOGGER.info("JFR recording written to " + jfrPath);
+		}
 	}
 
 	/*
@@ -136,45 +254,78 @@ public class Oml2PapyrusApp {
 		LOGGER.info("Input Profile Path= " + inputProfilePath);
 		LOGGER.info("Output Folder Path= " + outputFolderPath);
 		
+		// collect the conversion metrics (if needed)
+		final ConversionMetrics metrics = metricsPath != null ? new ConversionMetrics("oml2papyrus") : ConversionMetrics.NONE;
+		
 		// load the Oml language
-		OmlStandaloneSetup.doSetup();
-		OmlXMIResourceFactory.register();
+		try (ConversionMetrics.Timer t = metrics.phase("setup")) {
+			loadLanguage();
+		}
 				
 		// find the root ontology given its URI
 		final URI ontologyUri = URI.createFileURI(inputOntologyPath);
 		
 		// create the Oml resource set
 		final XtextResourceSet omlResourceSet = new XtextResourceSet();
-
-		// load the root ontology
-		final Resource ontologyResource = omlResourceSet.getResource(ontologyUri, true); 
-		final Ontology rootOntology = OmlRead.getOntology(ontologyResource);
+		if (omlLibraries != null) {
+			omlLibraries.attach(omlResourceSet);
+		}
 
 		// Create the papyrus resource set
 		final ResourceSet papyrusResourceSet = new ResourceSetImpl();
 		UMLResourcesUtil.init(papyrusResourceSet);
-		Resource papyrusResource = null;
+		if (umlLibraries != null) {
+			umlLibraries.attach(papyrusResourceSet);
+		}
+
+		try {
+			// load the root ontology
+			final Ontology rootOntology;
+			try (ConversionMetrics.Timer t = metrics.phase("load")) {
+				final Resource ontologyResource = omlResourceSet.getResource(ontologyUri, true); 
+				rootOntology = OmlRead.getOntology(ontologyResource);
+			}
+
+			Resource papyrusResource = null;
 		
-		// Output folder
-		File outputFolder = new File(outputFolderPath);
-
-		// Convert the input ontology to Papyrus resource
-		if (rootOntology instanceof VocabularyBundle) {
-			papyrusResource = new VocabularyBundleToProfile((VocabularyBundle)rootOntology, outputFolder, papyrusResourceSet, LOGGER).convert();
-		} else if (rootOntology instanceof DescriptionBundle) {
-			if (inputProfilePath == null) {
-				throw new ParameterException("Input profile path is not specified");
+			// Output folder
+			File outputFolder = new File(outputFolderPath);
+
+			// Convert the input ontology to Papyrus resource
+			if (rootOntology instanceof VocabularyBundle) {
+				VocabularyBundleToProfile converter = new VocabularyBundleToProfile((VocabularyBundle)rootOntology, outputFolder, papyrusResourceSet, LOGGER);
+				converter.setMetrics(metrics);
+				papyrusResource = converter.convert();
+			} else if (rootOntology instanceof DescriptionBundle) {
+				if (inputProfilePath == null) {
+					throw new ParameterException("Input profile path is not specified");
+				}
+				URI profileUri = URI.createFileURI(inputProfilePath);
+				Resource profileResource = papyrusResourceSet.getResource(profileUri, true);
+				Profile profile = (Profile) profileResource.getContents().get(0);
+				DescriptionBundleToModel converter = new DescriptionBundleToModel((DescriptionBundle)rootOntology, profile, outputFolder,forceReifiedLinks, papyrusResourceSet, LOGGER);
+				converter.setMetrics(metrics);
+				papyrusResource = converter.convert();
 			}
-			URI profileUri = URI.createFileURI(inputProfilePath);
-			Resource profileResource = papyrusResourceSet.getResource(profileUri, true);
-			Profile profile = (Profile) profileResource.getContents().get(0);
-			papyrusResource = new DescriptionBundleToModel((DescriptionBundle)rootOntology, profile, outputFolder,forceReifiedLinks, papyrusResourceSet, LOGGER).convert();
-		}
 				
-		// save the Papyrus resources
-		if (papyrusResource != null) {
-			LOGGER.info("Saving: "+papyrusResource.getURI());
-			papyrusResource.save(Collections.EMPTY_MAP);
+			// save the Papyrus resources
+			if (papyrusResource != null) {
+				LOGGER.info("Saving: "+papyrusResource.getURI());
+				try (ConversionMetrics.Timer t = metrics.phase("save")) {
+					papyrusResource.save(Collections.EMPTY_MAP);
+				}
+			}
+		
+			// report the conversion metrics
+			if (metricsPath != null) {
+				metrics.report(new File(metricsPath), LOGGER);
+			}
+		} finally {
+			// keep the libraries for the next request (if needed), even if this one failed
+			if (omlLibraries != null) {
+				omlLibraries.release(omlResourceSet);
+				umlLibraries.release(papyrusResourceSet);
+			}
 		}
 		
 		LOGGER.info("=================================================================");
@@ -51,6 +51,7 @@ import org.eclipse.uml2.uml.Property;
 import org.eclipse.uml2.uml.Stereotype;
 import org.eclipse.uml2.uml.resource.UMLResource;
 
+import io.opencaesar.adapters.util.ConversionMetrics;
 import io.opencaesar.oml.AnnotatedElement;
 import io.opencaesar.oml.Annotation;
 import io.opencaesar.oml.Aspect;
@@ -100,6 +101,7 @@ public class VocabularyBundleToProfile {
 	private Model umlMetaModel;
 	private Map<io.opencaesar.oml.Type, Classifier> converted = new HashMap<>();
 	private Map<RelationEntity, AssociationInfo> relationToAssociationInfo = new HashMap<>();
+	private ConversionMetrics metrics = ConversionMetrics.NONE;
 
 	private static Set<String> vocsToSkip = new HashSet<>();
 	static {
@@ -115,6 +117,10 @@ public class VocabularyBundleToProfile {
 		this.logger = logger;
 	}
 
+	public void setMetrics(ConversionMetrics metrics) {
+		this.metrics = metrics;
+	}
+
 	public Resource convert() throws Exception {
 		// Clear all caches
 		converted.clear();
@@ -144,10 +150,15 @@ public class VocabularyBundleToProfile {
 		convertAnnotations(profile, rootOntology);
 		
 		// Populate the profile
-		populateProfile(profile);
+		try (ConversionMetrics.Timer t = metrics.phase("populate profile")) {
+			populateProfile(profile);
+		}
 
 		// Define the profile after all elements have been created
-		profile.define();
+		try (ConversionMetrics.Timer t = metrics.phase("define profile")) {
+			profile.define();
+		}
+		metrics.count("converted types", converted.size());
 
 		return profile.eResource();
 	}
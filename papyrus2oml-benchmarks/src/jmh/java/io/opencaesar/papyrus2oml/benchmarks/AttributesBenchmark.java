@@ -0,0 +1,111 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.papyrus2oml.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.uml2.uml.Class;
+import org.eclipse.uml2.uml.Model;
+import org.eclipse.uml2.uml.Profile;
+import org.eclipse.uml2.uml.Stereotype;
+import org.eclipse.xtext.resource.XtextResourceSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.opencaesar.oml.Description;
+import io.opencaesar.oml.SeparatorKind;
+import io.opencaesar.oml.dsl.OmlStandaloneSetup;
+import io.opencaesar.oml.util.OmlBuilder;
+import io.opencaesar.papyrus2oml.ConversionType;
+import io.opencaesar.papyrus2oml.converters.ConceptInstanceConverter;
+import io.opencaesar.papyrus2oml.util.ResourceConverter.ConversionContext;
+
+/**
+ * Measures converting the attribute values of stereotype applications to scalar property value assertions
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AttributesBenchmark {
+
+	@Param({"1000", "10000"})
+	public int elements;
+
+	private Stereotype block;
+	private List<EObject> applications;
+	private String[] iris;
+	private ConversionContext context;
+	private Description description;
+
+	@Setup(Level.Trial)
+	public void setupTrial() throws IOException {
+		OmlStandaloneSetup.doSetup();
+		File folder = Files.createTempDirectory("papyrus2oml-bench").toFile();
+		ResourceSet resourceSet = BenchmarkModels.createResourceSet();
+		Profile profile = BenchmarkModels.createProfile(resourceSet, URI.createFileURI(new File(folder, "bench.profile.uml").getAbsolutePath()));
+		Model model = BenchmarkModels.createModel(resourceSet, URI.createFileURI(new File(folder, "bench.uml").getAbsolutePath()), elements, 1, profile);
+		block = profile.getOwnedStereotype("Block");
+		applications = new ArrayList<>(elements);
+		List<String> names = new ArrayList<>(elements);
+		model.eAllContents().forEachRemaining(e -> {
+			if (e instanceof Class) {
+				applications.add(((Class)e).getStereotypeApplication(block));
+				names.add(BenchmarkModels.NAMESPACE + "/d#" + ((Class)e).getName());
+			}
+		});
+		iris = names.toArray(new String[names.size()]);
+	}
+
+	@Setup(Level.Invocation)
+	public void setup() {
+		OmlBuilder builder = new OmlBuilder(new XtextResourceSet());
+		builder.start();
+		description = builder.createDescription(URI.createURI(BenchmarkModels.NAMESPACE + "/d.oml"), BenchmarkModels.NAMESPACE + "/d", SeparatorKind.HASH, "d");
+		context = new ConversionContext(null, builder, ConversionType.dsl, BenchmarkModels.createLogger());
+	}
+
+	@Benchmark
+	public Description createAttributes() {
+		for (int i = 0; i < iris.length; i++) {
+			EObject application = applications.get(i);
+			ConceptInstanceConverter.createAttributes(description, context, iris[i], block, application, application.eClass());
+		}
+		return description;
+	}
+}
@@ -0,0 +1,280 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.papyrus2oml.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.uml2.uml.AggregationKind;
+import org.eclipse.uml2.uml.Association;
+import org.eclipse.uml2.uml.Class;
+import org.eclipse.uml2.uml.Dependency;
+import org.eclipse.uml2.uml.LiteralUnlimitedNatural;
+import org.eclipse.uml2.uml.Model;
+import org.eclipse.uml2.uml.Package;
+import org.eclipse.uml2.uml.PrimitiveType;
+import org.eclipse.uml2.uml.Profile;
+import org.eclipse.uml2.uml.Property;
+import org.eclipse.uml2.uml.Stereotype;
+import org.eclipse.uml2.uml.UMLFactory;
+import org.eclipse.uml2.uml.UMLPackage;
+import org.eclipse.uml2.uml.resource.UMLResource;
+import org.eclipse.uml2.uml.resources.util.UMLResourcesUtil;
+
+import io.opencaesar.oml.util.OmlConstants;
+import io.opencaesar.papyrus2oml.util.ResourceConverter;
+
+/**
+ * Creates the synthetic inputs of the benchmarks.
+ * 
+ * A model has a tree of packages with {@link #FANOUT} nested packages per package and the given depth.
+ * The classes are spread evenly over the packages. Each class owns two attributes, and it has an 
+ * association and a dependency to the next class. When the model has a profile applied, each class is 
+ * a «Block» with a mass and a link to the next block, and each dependency is a «Connects».
+ */
+class BenchmarkModels {
+
+	static final int FANOUT = 3;
+	
+	static final String NAMESPACE = "http://bench";
+	static final String PROFILE_IRI = NAMESPACE + "/profile";
+	static final String CATALOG_PROPERTY = "papyrus2oml.benchmark.catalog";
+
+	private static final String OMLIRI = "http://io.opencaesar.oml/omliri";
+
+	private BenchmarkModels() {
+	}
+
+	static Logger createLogger() {
+		Logger logger = Logger.getLogger("papyrus2oml.benchmark");
+		logger.setLevel(Level.WARN);
+		return logger;
+	}
+
+	static ResourceSet createResourceSet() {
+		ResourceSet resourceSet = new ResourceSetImpl();
+		UMLResourcesUtil.init(resourceSet);
+		return resourceSet;
+	}
+
+	/**
+	 * Creates a profile with a «Block» stereotype for classes and a «Connects» stereotype for dependencies
+	 */
+	static Profile createProfile(ResourceSet resourceSet, URI uri) {
+		Model metamodel = (Model) resourceSet.getResource(URI.createURI(UMLResource.UML_METAMODEL_URI), true).getContents().get(0);
+		Class classMetaclass = (Class) metamodel.getOwnedType(UMLPackage.Literals.CLASS.getName());
+		Class dependencyMetaclass = (Class) metamodel.getOwnedType(UMLPackage.Literals.DEPENDENCY.getName());
+		Model primitives = (Model) resourceSet.getResource(URI.createURI(UMLResource.UML_PRIMITIVE_TYPES_LIBRARY_URI), true).getContents().get(0);
+		PrimitiveType stringType = (PrimitiveType) primitives.getOwnedType("String");
+
+		Profile profile = UMLFactory.eINSTANCE.createProfile();
+		profile.setName("profile");
+		profile.setURI(PROFILE_IRI);
+		resourceSet.createResource(uri).getContents().add(profile);
+		profile.createMetaclassReference(classMetaclass);
+		profile.createMetaclassReference(dependencyMetaclass);
+
+		Stereotype block = profile.createOwnedStereotype("Block", false);
+		block.createExtension(classMetaclass, false);
+		annotate(block.createOwnedAttribute("mass", stringType), PROFILE_IRI + "#mass");
+		annotate(block.createOwnedAttribute("parts", block, 0, LiteralUnlimitedNatural.UNLIMITED), PROFILE_IRI + "#parts");
+
+		Stereotype connects = profile.createOwnedStereotype("Connects", false);
+		connects.createExtension(dependencyMetaclass, false);
+
+		profile.define();
+		return profile;
+	}
+
+	private static void annotate(Property property, String iri) {
+		property.createEAnnotation(OMLIRI).getDetails().put("iri", iri);
+	}
+
+	/**
+	 * Creates a model with the given number of classes in a package tree of the given depth
+	 * (and applies the given profile if it is not null)
+	 */
+	static Model createModel(ResourceSet resourceSet, URI uri, int elements, int depth, Profile profile) {
+		Model model = UMLFactory.eINSTANCE.createModel();
+		model.setName(NAMESPACE.substring("http://".length()));
+		resourceSet.createResource(uri).getContents().add(model);
+		if (profile != null) {
+			model.applyProfile(profile);
+		}
+
+		List<Package> packages = new ArrayList<>();
+		createPackages(model, depth, packages);
+		
+		Model primitives = (Model) resourceSet.getResource(URI.createURI(UMLResource.UML_PRIMITIVE_TYPES_LIBRARY_URI), true).getContents().get(0);
+		PrimitiveType stringType = (PrimitiveType) primitives.getOwnedType("String");
+		
+		List<Class> classes = new ArrayList<>(elements);
+		for (int i = 0; i < elements; i++) {
+			Package package_ = packages.get(i % packages.size());
+			Class class_ = package_.createOwnedClass("C" + i, false);
+			class_.createOwnedAttribute("name", stringType);
+			class_.createOwnedAttribute("id", stringType);
+			classes.add(class_);
+		}
+		
+		Stereotype block = profile != null ? profile.getOwnedStereotype("Block") : null;
+		Stereotype connects = profile != null ? profile.getOwnedStereotype("Connects") : null;
+		for (int i = 0; i < elements; i++) {
+			Class source = classes.get(i);
+			Class target = classes.get((i + 1) % elements);
+			Association association = source.createAssociation(true, AggregationKind.NONE_LITERAL, "to" + i, 0, 1, target, 
+					false, AggregationKind.NONE_LITERAL, "from" + i, 0, 1);
+			association.setName("A" + i);
+			Dependency dependency = source.createDependency(target);
+			dependency.setName("D" + i);
+			if (profile != null) {
+				source.applyStereotype(block);
+				source.setValue(block, "mass", String.valueOf(i));
+				dependency.applyStereotype(connects);
+			}
+		}
+		if (profile != null) {
+			for (int i = 0; i < elements; i++) {
+				EObject source = classes.get(i).getStereotypeApplication(block);
+				EObject target = classes.get((i + 1) % elements).getStereotypeApplication(block);
+				EStructuralFeature parts = source.eClass().getEStructuralFeature("parts");
+				@SuppressWarnings("unchecked")
+				List<EObject> values = (List<EObject>) source.eGet(parts);
+				values.add(target);
+			}
+		}
+		return model;
+	}
+
+	private static void createPackages(Package parent, int depth, List<Package> packages) {
+		if (depth > 0) {
+			for (int i = 0; i < FANOUT; i++) {
+				Package package_ = parent.createNestedPackage(parent.getName() + "_" + i);
+				packages.add(package_);
+				createPackages(package_, depth - 1, packages);
+			}
+		}
+	}
+
+	/**
+	 * Writes a model without a profile to the given folder (which can be loaded without an OML catalog)
+	 * 
+	 * @return the model file
+	 */
+	static File writeModel(File folder, int elements, int depth) throws IOException {
+		ResourceSet resourceSet = createResourceSet();
+		File modelFile = new File(folder, "bench.uml");
+		Model model = createModel(resourceSet, URI.createFileURI(modelFile.getAbsolutePath()), elements, depth, null);
+		model.eResource().save(Collections.emptyMap());
+		return modelFile;
+	}
+
+	/**
+	 * Writes a model and its profile, the OML vocabulary of the profile, and a catalog that resolves them 
+	 * (and delegates to the catalog given by the {@value #CATALOG_PROPERTY} system property) to the given folder
+	 * 
+	 * @return the model file
+	 */
+	static File writeFixture(File folder, int elements, int depth) throws IOException {
+		String umlCatalog = System.getProperty(CATALOG_PROPERTY);
+		if (umlCatalog == null) {
+			throw new IllegalStateException("Set -D" + CATALOG_PROPERTY + " to an OML catalog that resolves the UML vocabulary");
+		}
+		File benchFolder = new File(folder, "bench");
+		benchFolder.mkdirs();
+		
+		ResourceSet resourceSet = createResourceSet();
+		Profile profile = createProfile(resourceSet, URI.createFileURI(new File(folder, "bench.profile.uml").getAbsolutePath()));
+		File modelFile = new File(folder, "bench.uml");
+		Model model = createModel(resourceSet, URI.createFileURI(modelFile.getAbsolutePath()), elements, depth, profile);
+		profile.eResource().save(Collections.emptyMap());
+		model.eResource().save(Collections.emptyMap());
+		
+		String vocabulary = String.join("\n",
+			"vocabulary <" + PROFILE_IRI + "#> as profile {",
+			"",
+			"	extends <" + OmlConstants.XSD_NS + "> as xsd",
+			"",
+			"	concept Block",
+			"",
+			"	scalar property mass [",
+			"		domain Block",
+			"		range xsd:string",
+			"	]",
+			"",
+			"	relation entity Part [",
+			"		from Block",
+			"		to Block",
+			"		forward parts",
+			"	]",
+			"",
+			"	relation entity Connects [",
+			"		from Block",
+			"		to Block",
+			"	]",
+			"}",
+			"");
+		Files.write(new File(benchFolder, "profile." + OmlConstants.OML_EXTENSION).toPath(), vocabulary.getBytes(StandardCharsets.UTF_8));
+		
+		String catalog = String.join("\n",
+			"<?xml version='1.0'?>",
+			"<catalog xmlns=\"urn:oasis:names:tc:entity:xmlns:xml:catalog\" prefer=\"public\">",
+			"	<rewriteURI uriStartString=\"" + NAMESPACE + "\" rewritePrefix=\"" + URI.createFileURI(benchFolder.getAbsolutePath()) + "\"/>",
+			"	<nextCatalog catalog=\"" + URI.createFileURI(new File(umlCatalog).getAbsolutePath()) + "\"/>",
+			"</catalog>",
+			"");
+		Files.write(new File(folder, "catalog.xml").toPath(), catalog.getBytes(StandardCharsets.UTF_8));
+		return modelFile;
+	}
+
+	/**
+	 * Visits the contents of a model in the same order as the converter and passes each object to 
+	 * every converter that does not prune it
+	 */
+	static void traverse(List<EObject> contents, List<ResourceConverter> converters) throws IOException {
+		for (EObject eObject : contents) {
+			List<ResourceConverter> accepting = new ArrayList<>(converters.size());
+			for (ResourceConverter converter : converters) {
+				if (!converter.shouldBeIgnored(eObject)) {
+					converter.convertEObject(eObject);
+					accepting.add(converter);
+				}
+			}
+			if (!accepting.isEmpty()) {
+				traverse(eObject.eContents(), accepting);
+			}
+		}
+	}
+
+	static Resource getResource(ResourceSet resourceSet, File file) {
+		return resourceSet.getResource(URI.createFileURI(file.getAbsolutePath()), true);
+	}
+}
@@ -0,0 +1,94 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.papyrus2oml.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.xtext.resource.XtextResourceSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.opencaesar.oml.dsl.OmlStandaloneSetup;
+import io.opencaesar.oml.util.OmlBuilder;
+import io.opencaesar.oml.util.OmlCatalog;
+import io.opencaesar.oml.util.OmlXMIResourceFactory;
+import io.opencaesar.papyrus2oml.ConversionType;
+import io.opencaesar.papyrus2oml.Papyrus2OmlConverter;
+
+/**
+ * Measures a whole conversion (load, traverse, deferred phases and builder finish) of a synthetic model
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ConvertBenchmark {
+
+	@Param({"uml", "dsl", "uml_dsl"})
+	public String conversionType;
+
+	@Param({"1000", "10000"})
+	public int elements;
+
+	@Param({"2", "4"})
+	public int depth;
+
+	private File modelFile;
+	private OmlCatalog catalog;
+	private Logger logger;
+
+	@Setup
+	public void setup() throws IOException {
+		OmlStandaloneSetup.doSetup();
+		OmlXMIResourceFactory.register();
+		File folder = Files.createTempDirectory("papyrus2oml-bench").toFile();
+		modelFile = BenchmarkModels.writeFixture(folder, elements, depth);
+		catalog = OmlCatalog.create(URI.createFileURI(new File(folder, "catalog.xml").getAbsolutePath()));
+		logger = BenchmarkModels.createLogger();
+	}
+
+	@Benchmark
+	public Collection<Resource> convert() throws IOException {
+		XtextResourceSet omlResourceSet = new XtextResourceSet();
+		OmlBuilder builder = new OmlBuilder(omlResourceSet);
+		builder.start();
+		Papyrus2OmlConverter converter = new Papyrus2OmlConverter(modelFile, Collections.emptyList(), catalog, builder, omlResourceSet, ConversionType.valueOf(conversionType), logger);
+		Collection<Resource> resources = converter.convert();
+		builder.finish();
+		return resources;
+	}
+}
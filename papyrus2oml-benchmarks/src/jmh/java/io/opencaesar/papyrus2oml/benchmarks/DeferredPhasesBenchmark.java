@@ -0,0 +1,138 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.papyrus2oml.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.xtext.resource.XtextResourceSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.opencaesar.oml.dsl.OmlStandaloneSetup;
+import io.opencaesar.oml.util.OmlBuilder;
+import io.opencaesar.oml.util.OmlCatalog;
+import io.opencaesar.oml.util.OmlXMIResourceFactory;
+import io.opencaesar.papyrus2oml.ConversionType;
+import io.opencaesar.papyrus2oml.Papyrus2OmlConverter;
+import io.opencaesar.papyrus2oml.util.ResourceConverter;
+
+/**
+ * Measures the deferred relation and link phases in isolation (the traversal that fills them runs in the setup)
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DeferredPhasesBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class Fixture {
+
+		@Param({"dsl", "uml_dsl"})
+		public String conversionType;
+
+		@Param({"1000", "10000"})
+		public int elements;
+
+		File modelFile;
+		OmlCatalog catalog;
+
+		@Setup(Level.Trial)
+		public void setup() throws IOException {
+			OmlStandaloneSetup.doSetup();
+			OmlXMIResourceFactory.register();
+			File folder = Files.createTempDirectory("papyrus2oml-bench").toFile();
+			modelFile = BenchmarkModels.writeFixture(folder, elements, 2);
+			catalog = OmlCatalog.create(URI.createFileURI(new File(folder, "catalog.xml").getAbsolutePath()));
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Relations {
+
+		List<Runnable> deferred;
+
+		@Setup(Level.Invocation)
+		public void setup(Fixture fixture) throws IOException {
+			List<ResourceConverter> converters = traverse(fixture);
+			deferred = new ArrayList<>();
+			for (ResourceConverter converter : converters) {
+				deferred.addAll(converter.getContext().deferredRelations);
+			}
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Links {
+
+		List<Runnable> deferred;
+
+		@Setup(Level.Invocation)
+		public void setup(Fixture fixture) throws IOException {
+			List<ResourceConverter> converters = traverse(fixture);
+			deferred = new ArrayList<>();
+			for (ResourceConverter converter : converters) {
+				converter.getContext().deferredRelations.forEach(Runnable::run);
+				deferred.addAll(converter.getContext().deferredLinks);
+			}
+		}
+	}
+
+	private static List<ResourceConverter> traverse(Fixture fixture) throws IOException {
+		XtextResourceSet omlResourceSet = new XtextResourceSet();
+		OmlBuilder builder = new OmlBuilder(omlResourceSet);
+		builder.start();
+		Papyrus2OmlConverter converter = new Papyrus2OmlConverter(fixture.modelFile, Collections.emptyList(), fixture.catalog, builder, 
+				omlResourceSet, ConversionType.valueOf(fixture.conversionType), BenchmarkModels.createLogger());
+		Resource resource = BenchmarkModels.getResource(BenchmarkModels.createResourceSet(), fixture.modelFile);
+		List<ResourceConverter> converters = new ArrayList<>(converter.getResourceConverters(resource));
+		BenchmarkModels.traverse(resource.getContents(), converters);
+		return converters;
+	}
+
+	@Benchmark
+	public int deferredRelations(Relations state) {
+		state.deferred.forEach(Runnable::run);
+		return state.deferred.size();
+	}
+
+	@Benchmark
+	public int deferredLinks(Links state) {
+		state.deferred.forEach(Runnable::run);
+		return state.deferred.size();
+	}
+}
@@ -0,0 +1,103 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.papyrus2oml.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.resource.XtextResourceSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.opencaesar.oml.Description;
+import io.opencaesar.oml.SeparatorKind;
+import io.opencaesar.oml.dsl.OmlStandaloneSetup;
+import io.opencaesar.oml.util.OmlBuilder;
+import io.opencaesar.papyrus2oml.ConversionType;
+import io.opencaesar.papyrus2oml.util.OMLUtil;
+import io.opencaesar.papyrus2oml.util.ResourceConverter.ConversionContext;
+
+/**
+ * Compares adding the extensions of a description by scanning its imports and through the import index
+ * (each IRI is requested several times, as it happens when many elements refer to the same package)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImportsBenchmark {
+
+	private static final int REQUESTS_PER_IRI = 10;
+
+	@Param({"10", "100", "1000"})
+	public int imports;
+
+	private String[] iris;
+	private OmlBuilder builder;
+	private Description description;
+	private ConversionContext context;
+
+	@Setup(Level.Trial)
+	public void setupTrial() {
+		OmlStandaloneSetup.doSetup();
+		iris = new String[imports];
+		for (int i = 0; i < imports; i++) {
+			iris[i] = BenchmarkModels.NAMESPACE + "/p" + i;
+		}
+	}
+
+	@Setup(Level.Invocation)
+	public void setup() {
+		builder = new OmlBuilder(new XtextResourceSet());
+		builder.start();
+		description = builder.createDescription(URI.createURI(BenchmarkModels.NAMESPACE + "/d.oml"), BenchmarkModels.NAMESPACE + "/d", SeparatorKind.HASH, "d");
+		context = new ConversionContext(null, builder, ConversionType.uml, BenchmarkModels.createLogger());
+	}
+
+	@Benchmark
+	public Description scan() {
+		for (int r = 0; r < REQUESTS_PER_IRI; r++) {
+			for (String iri : iris) {
+				OMLUtil.addExtendsIfNeeded(description, iri, builder);
+			}
+		}
+		return description;
+	}
+
+	@Benchmark
+	public Description indexed() {
+		for (int r = 0; r < REQUESTS_PER_IRI; r++) {
+			for (String iri : iris) {
+				OMLUtil.addExtendsIfNeeded(description, iri, context);
+			}
+		}
+		return description;
+	}
+}
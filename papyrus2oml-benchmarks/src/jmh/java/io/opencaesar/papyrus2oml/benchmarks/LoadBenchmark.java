@@ -0,0 +1,147 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.papyrus2oml.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.eclipse.emf.ecore.resource.Resource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.opencaesar.papyrus2oml.ConversionType;
+import io.opencaesar.papyrus2oml.LoadOption;
+import io.opencaesar.papyrus2oml.Papyrus2OmlConverter;
+
+/**
+ * Measures the load of a synthetic model with each load option on its own (and with all of them).
+ * 
+ * Each option runs in its own fork, where the peak heap of each load (above the heap before it) and
+ * the heap that the loaded model retains are sampled from the heap memory pools and printed at the
+ * end of the trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LoadBenchmark {
+
+	@Param({"none", "parser_pool", "deferred_idref_resolution", "presized_id_map", "lookup_table_cache", "buffered_input", "all"})
+	public String loadOption;
+
+	@Param({"10000", "100000"})
+	public int elements;
+
+	private File modelFile;
+	private Set<LoadOption> loadOptions;
+	private List<MemoryPoolMXBean> heapPools;
+	private Resource resource;
+	private long baseline;
+	private long maxPeak;
+	private long totalRetained;
+	private int iterations;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		File folder = Files.createTempDirectory("papyrus2oml-bench").toFile();
+		modelFile = BenchmarkModels.writeModel(folder, elements, 2);
+		if (loadOption.equals("none")) {
+			loadOptions = EnumSet.noneOf(LoadOption.class);
+		} else if (loadOption.equals("all")) {
+			loadOptions = EnumSet.allOf(LoadOption.class);
+		} else {
+			loadOptions = EnumSet.of(LoadOption.valueOf(loadOption));
+		}
+		heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+				.filter(p -> p.getType() == MemoryType.HEAP)
+				.collect(Collectors.toList());
+	}
+
+	@Setup(Level.Iteration)
+	public void beforeLoad() {
+		resource = null;
+		System.gc();
+		baseline = getUsedHeap();
+		heapPools.forEach(p -> p.resetPeakUsage());
+	}
+
+	@Benchmark
+	public Resource load() throws IOException {
+		resource = new Loader(modelFile, loadOptions).load();
+		return resource;
+	}
+
+	@TearDown(Level.Iteration)
+	public void afterLoad() {
+		long peak = heapPools.stream().mapToLong(p -> p.getPeakUsage().getUsed()).sum() - baseline;
+		System.gc();
+		long retained = getUsedHeap() - baseline;
+		maxPeak = Math.max(maxPeak, peak);
+		totalRetained += retained;
+		iterations++;
+		resource = null;
+	}
+
+	@TearDown(Level.Trial)
+	public void report() {
+		System.out.println(String.format("%s, %d elements: peak heap %d MB, retained heap %d MB (over %d loads)", 
+				loadOption, elements, maxPeak >> 20, (totalRetained / Math.max(1, iterations)) >> 20, iterations));
+	}
+
+	private long getUsedHeap() {
+		return heapPools.stream().mapToLong(p -> p.getUsage().getUsed()).sum();
+	}
+
+	/**
+	 * Loads the input model of a conversion without converting it
+	 */
+	private static class Loader extends Papyrus2OmlConverter {
+
+		Loader(File modelFile, Set<LoadOption> loadOptions) {
+			super(modelFile, Collections.emptyList(), null, null, null, ConversionType.uml, BenchmarkModels.createLogger());
+			setLoadOptions(loadOptions);
+		}
+
+		Resource load() throws IOException {
+			return loadInputResource(createInputResourceSet());
+		}
+	}
+}
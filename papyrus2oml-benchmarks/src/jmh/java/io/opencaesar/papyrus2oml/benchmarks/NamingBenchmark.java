@@ -0,0 +1,90 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.papyrus2oml.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.uml2.uml.Class;
+import org.eclipse.uml2.uml.Element;
+import org.eclipse.uml2.uml.Model;
+import org.eclipse.uml2.uml.NamedElement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.opencaesar.papyrus2oml.util.UmlNameCache;
+import io.opencaesar.papyrus2oml.util.UmlUtils;
+
+/**
+ * Compares computing the OML names of all named elements of a model with and without the name cache
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NamingBenchmark {
+
+	@Param({"1000", "10000"})
+	public int elements;
+
+	@Param({"2", "4"})
+	public int depth;
+
+	private List<Element> named;
+
+	@Setup
+	public void setup() {
+		Model model = BenchmarkModels.createModel(BenchmarkModels.createResourceSet(), URI.createURI("bench.uml"), elements, depth, null);
+		named = new ArrayList<>();
+		model.eAllContents().forEachRemaining(e -> {
+			if (e instanceof Class && ((NamedElement)e).getName() != null) {
+				named.add((Element) e);
+				named.addAll(((Class)e).getOwnedAttributes());
+			}
+		});
+	}
+
+	@Benchmark
+	public void uncached(Blackhole blackhole) {
+		for (Element element : named) {
+			blackhole.consume(UmlUtils.getName(element));
+		}
+	}
+
+	@Benchmark
+	public void cached(Blackhole blackhole) {
+		UmlNameCache names = new UmlNameCache();
+		for (Element element : named) {
+			blackhole.consume(names.getName(element));
+		}
+	}
+}
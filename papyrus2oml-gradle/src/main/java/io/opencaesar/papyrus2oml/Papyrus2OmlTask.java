@@ -17,35 +17,229 @@
  */
 package io.opencaesar.papyrus2oml;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 
+import javax.inject.Inject;
+
 import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.Project;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.file.ProjectLayout;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Classpath;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
 import org.gradle.api.tasks.TaskAction;
-import org.gradle.api.tasks.TaskExecutionException;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkParameters;
+import org.gradle.workers.WorkerExecutor;
+
+import io.opencaesar.papyrus2oml.util.ConversionManifest;
 
-public class Papyrus2OmlTask extends DefaultTask {
+@CacheableTask
+public abstract class Papyrus2OmlTask extends DefaultTask {
 	
 	public String inputModelPath;
 	
+	public List<String> inputModelPaths;
+	
 	public String outputCatalogPath;
 	
+	/**
+	 * The folder where the catalog puts the generated ontologies (i.e., where it rewrites the IRIs of the input
+	 * models), declared as the output of the task (required). It should not hold the catalog or the ontologies it reads.
+	 */
+	public String outputFolderPath = null;
+	
 	public List<String> ignoredIriPrefixes;
 
 	public String conversionType;
 	
+	public List<String> metaclasses;
+	
+	public boolean incremental;
+	
+	public boolean fastLoad;
+	
+	public boolean lowMemory;
+	
+	public int saveThreads = 1;
+	
+	public int batchThreads = 1;
+	
+	public int conversionThreads = 1;
+	
+	public String metricsPath = null;
+	
+	public String jfrPath = null;
+	
 	public boolean debug;
+	
+	/**
+	 * The profiles and models that the input models refer to (e.g., files('path/to/profiles')), so that the
+	 * task reruns when they change
+	 */
+	public FileCollection inputModelLibraries = null;
+	
+	/**
+	 * The OML files (or folders) that the conversion reads through the catalog (e.g., the UML vocabulary
+	 * and the profile vocabularies), so that the task reruns when they change
+	 */
+	public FileCollection referencedOntologies = null;
+	
+	/**
+	 * The classpath of the conversion (by default, the buildscript classpath that provides this task)
+	 */
+	public FileCollection toolClasspath = getBuildscriptClasspath(getProject());
+
+	@Inject
+	public abstract WorkerExecutor getWorkerExecutor();
+
+	@Inject
+	public abstract ProjectLayout getLayout();
+
+	@Inject
+	public abstract ObjectFactory getObjects();
+
+	@InputFiles
+	@PathSensitive(PathSensitivity.RELATIVE)
+	public FileCollection getInputModels() {
+		final ConfigurableFileCollection files = getObjects().fileCollection();
+		for (File inputModelFile : getInputModelFiles()) {
+			if (inputModelFile.isDirectory()) {
+				files.from(getObjects().fileTree().from(inputModelFile).include("**/*.uml"));
+			} else {
+				files.from(inputModelFile);
+			}
+		}
+		return files;
+	}
+
+	@InputFiles
+	@Optional
+	@PathSensitive(PathSensitivity.RELATIVE)
+	public FileCollection getInputModelLibraries() {
+		return inputModelLibraries;
+	}
+
+	@InputFile
+	@PathSensitive(PathSensitivity.RELATIVE)
+	public File getCatalogFile() {
+		return outputCatalogPath != null ? file(outputCatalogPath) : null;
+	}
+
+	@InputFiles
+	@Optional
+	@PathSensitive(PathSensitivity.RELATIVE)
+	public FileCollection getReferencedOntologies() {
+		return referencedOntologies;
+	}
+
+	@Input
+	@Optional
+	public List<String> getIgnoredIriPrefixes() {
+		return ignoredIriPrefixes;
+	}
+
+	@Input
+	@Optional
+	public String getConversionType() {
+		return conversionType;
+	}
+
+	@Input
+	@Optional
+	public List<String> getMetaclasses() {
+		return metaclasses;
+	}
+
+	@OutputDirectory
+	public File getOutputFolder() {
+		return outputFolderPath != null ? file(outputFolderPath) : null;
+	}
+
+	@OutputFile
+	@Optional
+	public File getManifestFile() {
+		final File catalogFile = getCatalogFile();
+		return incremental && catalogFile != null ? new File(catalogFile.getParentFile(), ConversionManifest.FILE_NAME) : null;
+	}
+
+	@OutputFile
+	@Optional
+	public File getMetricsFile() {
+		return metricsPath != null ? file(metricsPath) : null;
+	}
+
+	@OutputFile
+	@Optional
+	public File getJfrFile() {
+		return jfrPath != null ? file(jfrPath) : null;
+	}
+
+	@Classpath
+	public FileCollection getToolClasspath() {
+		return toolClasspath;
+	}
+
+	@Input
+	public boolean isIncremental() {
+		return incremental;
+	}
+
+	@Internal
+	public boolean isFastLoad() {
+		return fastLoad;
+	}
+
+	@Internal
+	public boolean isLowMemory() {
+		return lowMemory;
+	}
+
+	@Internal
+	public int getSaveThreads() {
+		return saveThreads;
+	}
+
+	@Internal
+	public int getBatchThreads() {
+		return batchThreads;
+	}
+
+	@Internal
+	public int getConversionThreads() {
+		return conversionThreads;
+	}
+
+	@Internal
+	public boolean isDebug() {
+		return debug;
+	}
 
     @TaskAction
     public void run() {
         List<String> args = new ArrayList<String>();
-        if (inputModelPath != null) {
+        for (File inputModelFile : getInputModelFiles()) {
 		    args.add("-i");
-		    args.add(inputModelPath);
+		    args.add(inputModelFile.getPath());
         }
         if (outputCatalogPath != null) {
 		    args.add("-o");
-		    args.add(outputCatalogPath);
+		    args.add(getCatalogFile().getPath());
         }
         if (ignoredIriPrefixes != null) {
 	        for (String p : ignoredIriPrefixes) {
@@ -57,14 +251,97 @@ public class Papyrus2OmlTask extends DefaultTask {
 		    args.add("-c");
 		    args.add(conversionType);
         }
+        if (metaclasses != null) {
+	        for (String m : metaclasses) {
+			    args.add("--metaclass");
+			    args.add(m);
+	        }
+        }
+	    if (incremental) {
+		    args.add("--incremental");
+	    }
+	    if (fastLoad) {
+		    args.add("--fast-load");
+	    }
+	    if (lowMemory) {
+		    args.add("--low-memory");
+	    }
+	    if (saveThreads > 1) {
+		    args.add("--save-threads");
+		    args.add(String.valueOf(saveThreads));
+	    }
+	    if (batchThreads > 1) {
+		    args.add("--batch-threads");
+		    args.add(String.valueOf(batchThreads));
+	    }
+	    if (conversionThreads > 1) {
+		    args.add("--conversion-threads");
+		    args.add(String.valueOf(conversionThreads));
+	    }
+	    if (metricsPath != null) {
+		    args.add("--metrics");
+		    args.add(getMetricsFile().getPath());
+	    }
+	    if (jfrPath != null) {
+		    args.add("--jfr");
+		    args.add(getJfrFile().getPath());
+	    }
 	    if (debug) {
 		    args.add("-d");
 	    }
-	    try {
-	    	Papyrus2OmlApp.main(args.toArray(new String[0]));
-		} catch (Exception e) {
-			throw new TaskExecutionException(this, e);
-		}
+	    getWorkerExecutor()
+	    	.classLoaderIsolation(spec -> spec.getClasspath().from(getToolClasspath()))
+	    	.submit(Papyrus2OmlAction.class, parameters -> parameters.getArgs().set(args));
    	}
+
+	/**
+	 * @return the input model files (or folders of them)
+	 */
+	private List<File> getInputModelFiles() {
+		final List<File> files = new ArrayList<>();
+		if (inputModelPath != null) {
+			files.add(file(inputModelPath));
+		}
+		if (inputModelPaths != null) {
+			inputModelPaths.forEach(p -> files.add(file(p)));
+		}
+		return files;
+	}
+
+	/**
+	 * Resolves the given path against the project folder (without accessing the project, which is not available when the task runs)
+	 */
+	private File file(String path) {
+		return getLayout().getProjectDirectory().file(path).getAsFile();
+	}
+
+	/**
+	 * Collects the buildscript classpaths of the given project and its parents
+	 */
+	static FileCollection getBuildscriptClasspath(Project project) {
+		final ConfigurableFileCollection classpath = project.files();
+		for (Project p = project; p != null; p = p.getParent()) {
+			classpath.from(p.getBuildscript().getConfigurations().getByName("classpath"));
+		}
+		return classpath;
+	}
+
+	public interface Papyrus2OmlParameters extends WorkParameters {
+		ListProperty<String> getArgs();
+	}
+
+	/**
+	 * Runs the conversion in the isolated classloader of a worker
+	 */
+	public static abstract class Papyrus2OmlAction implements WorkAction<Papyrus2OmlParameters> {
+		@Override
+		public void execute() {
+			try {
+				Papyrus2OmlApp.main(getParameters().getArgs().get().toArray(new String[0]));
+			} catch (Exception e) {
+				throw new GradleException("Papyrus to Oml conversion failed", e);
+			}
+		}
+	}
     
-}
\ No newline at end of file
+}
@@ -17,22 +17,41 @@
  */
 package io.opencaesar.papyrus2oml;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.log4j.Logger;
-import org.eclipse.emf.common.util.TreeIterator;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
 import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.xmi.XMLParserPool;
+import org.eclipse.emf.ecore.xmi.XMLResource;
+import org.eclipse.emf.ecore.xmi.impl.XMLParserPoolImpl;
 
+import io.opencaesar.adapters.util.ConversionMetrics;
+import io.opencaesar.adapters.util.LibraryCache;
 import io.opencaesar.oml.util.OmlCatalog;
 import io.opencaesar.oml.util.OmlBuilder;
 import io.opencaesar.papyrus2oml.util.ResourceConverter;
+import io.opencaesar.papyrus2oml.util.ResourceConverter.ConversionContext;
 
 public class Ecore2OmlConverter {
 
@@ -40,6 +59,17 @@ public class Ecore2OmlConverter {
 	protected OmlCatalog catalog;
 	protected OmlBuilder builder;
 	protected Logger logger;
+	protected boolean lowMemory;
+	protected Set<LoadOption> loadOptions = EnumSet.noneOf(LoadOption.class);
+	protected ConversionMetrics metrics = ConversionMetrics.NONE;
+	protected LibraryCache libraries;
+
+	// shared by all the loads of this process
+	private static final XMLParserPool PARSER_POOL = new XMLParserPoolImpl();
+	private static final Map<Object, Object> NAME_TO_FEATURE_MAP = Collections.synchronizedMap(new HashMap<>());
+	private static final int INPUT_BUFFER_SIZE = 1 << 20;
+	// a rough average of the number of bytes per object in an XMI file
+	private static final int BYTES_PER_OBJECT = 200;
 	
 	public Ecore2OmlConverter(File inputModelFile, OmlCatalog catalog, OmlBuilder builder, Logger logger) {
 		this.inputModelFile = inputModelFile;
@@ -49,41 +79,212 @@ public class Ecore2OmlConverter {
 	}
 
 	public Collection<Resource> convert() throws IOException {
-		final String path = inputModelFile.getCanonicalPath();
-	
 		// create input resource set
 		ResourceSet resourceSet = createInputResourceSet();
+		if (libraries != null) {
+			libraries.attach(resourceSet);
+		}
 
-		// load input model file
-		Resource resource = resourceSet.getResource(URI.createFileURI(path), true);
+		try {
+			// load input model file
+			Resource resource;
+			try (ConversionMetrics.Timer t = metrics.phase("load")) {
+				resource = loadInputResource(resourceSet);
+			}
 		
-		// convert resource
-		Collection<ResourceConverter> converters = getResourceConverters(resource);
+			// convert resource
+			Collection<ResourceConverter> converters = getResourceConverters(resource);
+			for (ResourceConverter converter : converters) {
+				converter.getContext().metrics = metrics;
+			}
 		
-		// invoke each converter
-		for (ResourceConverter converter : converters) {
-			
-			// get object iterator
-			TreeIterator<EObject> i = resource.getAllContents();
-			
-			// iterate through the objects to convert them
-			while (i.hasNext()) {
-				EObject eObject = i.next();
-				if (converter.shouldBeIgnored(eObject)) {
-					i.prune();
-				} else {
-					converter.convertEObject(eObject);
+			convert(resource, converters);
+			for (ResourceConverter converter : converters) {
+				converter.report();
+			}
+			// the member index is shared by the converters of a resource set, so it is cleared once they all finished
+			for (ResourceConverter converter : converters) {
+				if (converter.getContext().members != null) {
+					converter.getContext().members.clear();
 				}
 			}
-			
-			// finish conversion
-			converter.finish();
+			converted(resource, converters);
+		
+			// release the input model before the output gets resolved and saved (if needed)
+			if (lowMemory) {
+				release(resourceSet, converters);
+			}
+		} finally {
+			// keep the libraries for the next conversion (if needed), even if this one failed
+			if (libraries != null) {
+				libraries.release(resourceSet);
+			}
 		}
 		
 		return builder.getNewResources();
 		
 	}
 	
+	public void setLowMemory(boolean lowMemory) {
+		this.lowMemory = lowMemory;
+	}
+
+	public void setMetrics(ConversionMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Sets the cache of the libraries that the input model refers to (which are then kept after the conversion)
+	 */
+	public void setLibraryCache(LibraryCache libraries) {
+		this.libraries = libraries;
+	}
+
+	public void setLoadOptions(Set<LoadOption> loadOptions) {
+		this.loadOptions = EnumSet.noneOf(LoadOption.class);
+		this.loadOptions.addAll(loadOptions);
+	}
+
+	protected Resource loadInputResource(ResourceSet resourceSet) throws IOException {
+		final Path path = inputModelFile.toPath().toRealPath();
+		final URI uri = URI.createFileURI(path.toString());
+		final long start = System.nanoTime();
+
+		Resource resource;
+		if (loadOptions.isEmpty()) {
+			resource = resourceSet.getResource(uri, true);
+		} else {
+			resource = resourceSet.createResource(uri);
+			Map<Object, Object> options = new HashMap<>(resourceSet.getLoadOptions());
+			if (loadOptions.contains(LoadOption.parser_pool)) {
+				options.put(XMLResource.OPTION_USE_PARSER_POOL, PARSER_POOL);
+				options.put(XMLResource.OPTION_USE_DEPRECATED_METHODS, Boolean.FALSE);
+			}
+			if (loadOptions.contains(LoadOption.deferred_idref_resolution)) {
+				options.put(XMLResource.OPTION_DEFER_IDREF_RESOLUTION, Boolean.TRUE);
+			}
+			if (loadOptions.contains(LoadOption.lookup_table_cache)) {
+				options.put(XMLResource.OPTION_USE_XML_NAME_TO_FEATURE_MAP, NAME_TO_FEATURE_MAP);
+			}
+			if (loadOptions.contains(LoadOption.presized_id_map) && resource instanceof ResourceImpl) {
+				int expectedSize = (int) Math.min(Integer.MAX_VALUE / 2, Files.size(path) / BYTES_PER_OBJECT);
+				((ResourceImpl)resource).setIntrinsicIDToEObjectMap(new HashMap<>(Math.max(16, expectedSize * 4 / 3)));
+			}
+			if (loadOptions.contains(LoadOption.buffered_input)) {
+				try (InputStream in = new BufferedInputStream(Channels.newInputStream(FileChannel.open(path, StandardOpenOption.READ)), INPUT_BUFFER_SIZE)) {
+					resource.load(in, options);
+				}
+			} else {
+				resource.load(options);
+			}
+		}
+
+		final long elapsed = (System.nanoTime() - start) / 1000000;
+		logger.info("Loaded " + uri + " in " + elapsed + " ms (options " + loadOptions + ")");
+		return resource;
+	}
+
+	/**
+	 * @return an upper bound of the number of objects in the given input resource
+	 */
+	protected int getExpectedObjectCount(Resource resource) {
+		if (resource instanceof XMLResource) {
+			int count = ((XMLResource)resource).getEObjectToIDMap().size();
+			if (count > 0) {
+				return count;
+			}
+		}
+		return (int) Math.min(Integer.MAX_VALUE / 2, inputModelFile.length() / BYTES_PER_OBJECT);
+	}
+
+	/**
+	 * Visits each object of the given resource once, passing it to every converter that does not prune it, 
+	 * then finishes the converters
+	 */
+	protected void convert(Resource resource, Collection<ResourceConverter> converters) throws IOException {
+		try (ConversionMetrics.Timer t = metrics.phase("traverse")) {
+			traverse(resource, converters, metrics);
+		}
+		for (ResourceConverter converter : converters) {
+			converter.finish();
+		}
+	}
+
+	/**
+	 * Visits each object of the given resource once, passing it to every converter that does not prune it, and
+	 * measures the conversions of the objects with the given metrics (so concurrent traversals use their own)
+	 */
+	protected void traverse(Resource resource, Collection<ResourceConverter> converters, ConversionMetrics metrics) throws IOException {
+		convertContents(resource.getContents(), new ArrayList<>(converters), metrics);
+	}
+
+	/**
+	 * Called after all the converters of the given resource have finished
+	 */
+	protected void converted(Resource resource, Collection<ResourceConverter> converters) throws IOException {
+	}
+
+	private void release(ResourceSet resourceSet, Collection<ResourceConverter> converters) {
+		for (ResourceConverter converter : converters) {
+			converter.getContext().release();
+		}
+		int count = resourceSet.getResources().size();
+		if (libraries != null) {
+			libraries.release(resourceSet);
+		} else {
+			for (Resource r : resourceSet.getResources()) {
+				r.unload();
+				r.eAdapters().clear();
+			}
+			resourceSet.getResources().clear();
+		}
+		logger.info("Released " + count + " input resource(s)");
+	}
+
+	private void convertContents(List<EObject> contents, List<ResourceConverter> converters, ConversionMetrics metrics) throws IOException {
+		for (EObject eObject : contents) {
+			List<ResourceConverter> accepting = convertEObject(eObject, converters, metrics);
+			if (!accepting.isEmpty()) {
+				convertContents(eObject.eContents(), accepting, metrics);
+			}
+		}
+	}
+
+	/**
+	 * Converts the given object with each of the given converters (in order) and
+	 * returns the converters that did not prune its subtree
+	 */
+	private List<ResourceConverter> convertEObject(EObject eObject, List<ResourceConverter> converters, ConversionMetrics metrics) throws IOException {
+		List<ResourceConverter> accepting = converters;
+		for (int c = 0; c < converters.size(); c++) {
+			ResourceConverter converter = converters.get(c);
+			if (converter.shouldBeIgnored(eObject)) {
+				if (accepting == converters) {
+					accepting = new ArrayList<>(converters.subList(0, c));
+				}
+			} else {
+				convertEObject(converter, eObject, metrics);
+				if (accepting != converters) {
+					accepting.add(converter);
+				}
+			}
+		}
+		return accepting;
+	}
+
+	private void convertEObject(ResourceConverter converter, EObject eObject, ConversionMetrics metrics) throws IOException {
+		final ConversionContext context = converter.getContext();
+		final int deferred = context.deferredRelations.size();
+		final long start = metrics.beginElement();
+		converter.convertEObject(eObject);
+		metrics.endElement(eObject.eClass().getName(), start);
+		if (context.deferredRelationOwners != null) {
+			for (int i = deferred; i < context.deferredRelations.size(); i++) {
+				context.deferredRelationOwners.add(eObject);
+			}
+		}
+	}
+
 	protected ResourceSet createInputResourceSet() {
 		return new ResourceSetImpl();
 	}
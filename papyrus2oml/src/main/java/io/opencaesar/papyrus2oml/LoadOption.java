@@ -0,0 +1,34 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.papyrus2oml;
+
+/**
+ * Options that tune the loading of large input models
+ */
+public enum LoadOption {
+	/** parse with a shared XML parser pool */
+	parser_pool,
+	/** resolve IDREFs once at the end of the load instead of as they are read */
+	deferred_idref_resolution,
+	/** pre-size the intrinsic id map from the size of the input file */
+	presized_id_map,
+	/** cache the lookup of features by XML name across loads */
+	lookup_table_cache,
+	/** read the input file through a large buffered NIO channel */
+	buffered_input
+}
@@ -18,11 +18,21 @@
 package io.opencaesar.papyrus2oml;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumSet;
 import java.util.List;
 
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
 import org.apache.log4j.Appender;
 import org.apache.log4j.AppenderSkeleton;
 import org.apache.log4j.Level;
@@ -38,13 +48,26 @@ import com.beust.jcommander.JCommander;
 import com.beust.jcommander.Parameter;
 import com.beust.jcommander.ParameterException;
 
+import io.opencaesar.adapters.util.ConversionDaemon;
+import io.opencaesar.adapters.util.ConversionEvent;
+import io.opencaesar.adapters.util.ConversionMetrics;
+import io.opencaesar.adapters.util.DaemonOptions;
+import io.opencaesar.adapters.util.LibraryCache;
 import io.opencaesar.oml.Ontology;
 import io.opencaesar.oml.dsl.OmlStandaloneSetup;
 import io.opencaesar.oml.util.OmlBuilder;
 import io.opencaesar.oml.util.OmlCatalog;
 import io.opencaesar.oml.util.OmlRead;
 import io.opencaesar.oml.util.OmlXMIResourceFactory;
-import io.opencaesar.papyrus2oml.util.OMLUtil;
+import io.opencaesar.papyrus2oml.util.CatalogResolver;
+import io.opencaesar.papyrus2oml.util.ConversionManifest;
+import io.opencaesar.papyrus2oml.util.IriMatcher;
+import io.opencaesar.papyrus2oml.util.MetaclassPruningTable;
+import io.opencaesar.papyrus2oml.util.ModelBatch;
+import io.opencaesar.papyrus2oml.util.PackageFingerprint;
+import io.opencaesar.papyrus2oml.util.ResourceSaver;
+import io.opencaesar.papyrus2oml.util.SynchronizedOmlBuilder;
+import io.opencaesar.papyrus2oml.util.UmlUtils;
 
 public class Papyrus2OmlApp {
 
@@ -52,12 +75,12 @@ public class Papyrus2OmlApp {
 
 	@Parameter(
 			names= {"--input-model-path","-i"}, 
-			description="Path to the input Papyrus UML2 model file (Required)",
+			description="Path to an input Papyrus UML2 model file, or to a folder of them (Required, repeatable)",
 			validateWith=InputFilePath.class, 
 			required=true, 
 			order=1
 	)
-	private String inputModelPath = null;
+	private List<String> inputModelPaths = null;
 
 	@Parameter(
 		names= {"--output-catalog-path", "-o"}, 
@@ -70,7 +93,7 @@ public class Papyrus2OmlApp {
 		
 	@Parameter(
 			names= {"--ignored-iri-prefix","-p"}, 
-			description="Prefixes of IRIs to ignore converting (Optional)",
+			description="Prefixes of IRIs to ignore converting, or glob:pattern or regex:pattern matching whole IRIs (Optional)",
 			required=false, 
 			order=3
 	)
@@ -86,10 +109,74 @@ public class Papyrus2OmlApp {
 	)
 	private ConversionType conversionType = ConversionType.uml;
 	
+	@Parameter(
+		names= {"--incremental"}, 
+		description="Skips converting and saving the descriptions of the packages that did not change since the last incremental run (Optional)", 
+		order=5
+	)
+	private boolean incremental;
+	
+	@Parameter(
+		names= {"--fast-load"}, 
+		description="Loads the input model with all the tuned load options (Optional)", 
+		order=6
+	)
+	private boolean fastLoad;
+	
+	@Parameter(
+		names= {"--low-memory"}, 
+		description="Converts the packages in groups, saving and unloading the descriptions of each group before converting the next one, and releases the input model once it is converted (Optional)", 
+		order=7
+	)
+	private boolean lowMemory;
+	
+	@Parameter(
+		names= {"--save-threads"}, 
+		description="Number of threads that write the files of the OML ontologies (Optional, default is 1)", 
+		order=8
+	)
+	private int saveThreads = 1;
+	
+	@Parameter(
+		names= {"--metrics"}, 
+		description="Path to a JSON file where the conversion metrics are written (Optional)", 
+		order=9
+	)
+	private String metricsPath;
+	
+	@Parameter(
+		names= {"--jfr"}, 
+		description="Path to a JFR file where the conversion events are recorded (Optional)", 
+		order=10
+	)
+	private String jfrPath;
+	
+	@Parameter(
+		names= {"--batch-threads"}, 
+		description="Number of input models that are converted at the same time (Optional, default is 1)", 
+		order=11
+	)
+	private int batchThreads = 1;
+	
+	@Parameter(
+		names= {"--conversion-threads"}, 
+		description="Number of threads that convert the packages of an input model at the same time, producing the same ontologies as one thread (Optional, default is 1)", 
+		order=12
+	)
+	private int conversionThreads = 1;
+	
+	@Parameter(
+		names= {"--metaclass"}, 
+		description="Name of a UML metaclass whose instances (and those of its subclasses) are converted, restricting a UML conversion to the given ones (Optional, repeatable)", 
+		validateWith=MetaclassName.class, 
+		order=13
+	)
+	private List<String> metaclasses = null;
+	
 	@Parameter(
 		names= {"--debug", "-d"}, 
 		description="Shows debug logging statements", 
-		order=5
+		order=14
 	)
 	private boolean debug;
 
@@ -97,27 +184,117 @@ public class Papyrus2OmlApp {
 		names= {"--help","-h"}, 
 		description="Displays summary of options", 
 		help=true, 
-		order=6) 
+		order=15) 
 	private boolean help;
 
 	private Logger LOGGER = LogManager.getLogger(Papyrus2OmlApp.class);
 
+	private static boolean languageLoaded;
+	
+	// the libraries kept loaded between the requests of a daemon
+	private LibraryCache omlLibraries;
+	private LibraryCache umlLibraries;
+	
+	private IriMatcher ignoredIris;
+
 	/*
 	 * Main method
 	 */
 	public static void main(String ... args) throws Exception {
+		if (DaemonOptions.isRequested(args)) {
+			final DaemonOptions options = new DaemonOptions();
+			final JCommander builder = JCommander.newBuilder().addObject(options).build();
+			builder.parse(args);
+			if (options.help) {
+				builder.usage();
+				return;
+			}
+			if (options.debug) {
+				final Appender appender = LogManager.getRootLogger().getAppender("stdout");
+				((AppenderSkeleton)appender).setThreshold(Level.DEBUG);
+			}
+			new Papyrus2OmlApp().serve(options.port);
+			return;
+		}
 		final Papyrus2OmlApp app = new Papyrus2OmlApp();
 		final JCommander builder = JCommander.newBuilder().addObject(app).build();
 		builder.parse(args);
 		if (app.help) {
 			builder.usage();
+			JCommander.newBuilder().addObject(new DaemonOptions()).build().usage();
 			return;
 		}
 		if (app.debug) {
 			final Appender appender = LogManager.getRootLogger().getAppender("stdout");
 			((AppenderSkeleton)appender).setThreshold(Level.DEBUG);
 		}
-		app.run();
+		final Recording recording = app.startRecording();
+		try {
+			app.run();
+		} finally {
+			app.stopRecording(recording);
+		}
+	}
+
+	/**
+	 * Serves conversion requests, each with its own resource sets, until the daemon is shut down
+	 */
+	private void serve(int port) throws IOException {
+		final LibraryCache omlLibraries = LibraryCache.forOntologies(Collections.singletonList(UmlUtils.UML_IRI), LOGGER);
+		final LibraryCache umlLibraries = LibraryCache.forPathmaps(LOGGER);
+		final ConversionDaemon daemon = new ConversionDaemon(args -> {
+			final Papyrus2OmlApp request = new Papyrus2OmlApp();
+			JCommander.newBuilder().addObject(request).build().parse(args);
+			if (request.help) {
+				throw new ParameterException("A request should have the arguments of a conversion");
+			}
+			request.omlLibraries = omlLibraries;
+			request.umlLibraries = umlLibraries;
+			final Recording recording = request.startRecording();
+			try {
+				request.run();
+			} finally {
+				request.stopRecording(recording);
+			}
+		}, LOGGER);
+		if (port > 0) {
+			daemon.serve(port);
+		} else {
+			daemon.serveConsole();
+		}
+	}
+
+	/**
+	 * Loads the Oml language (once per process)
+	 */
+	private static synchronized void loadLanguage() {
+		if (!languageLoaded) {
+			OmlStandaloneSetup.doSetup();
+			OmlXMIResourceFactory.register();
+			languageLoaded = true;
+		}
+	}
+
+	/**
+	 * Starts a JFR recording of the conversion events (if needed)
+	 */
+	private Recording startRecording() throws IOException, ParseException {
+		if (jfrPath == null) {
+			return null;
+		}
+		final Recording recording = new Recording(Configuration.getConfiguration("default"));
+		recording.enable(ConversionEvent.class);
+		recording.setDestination(Paths.get(jfrPath));
+		recording.start();
+		return recording;
+	}
+
+	private void stopRecording(Recording recording) {
+		if (recording != null) {
+			recording.stop();
+			recording.close();
+			LOGGER.info("JFR recording written to " + jfrPath);
+		}
 	}
 
 	/*
@@ -128,46 +305,174 @@ public class Papyrus2OmlApp {
 		LOGGER.info("                        S T A R T");
 		LOGGER.info("                      Papyrus to Oml "+getAppVersion());
 		LOGGER.info("=================================================================");
-		LOGGER.info("Input Model Path= " + inputModelPath);
+		LOGGER.info("Input Model Paths= " + inputModelPaths);
 		LOGGER.info("Output Catalog Path= " + outputCatalogPath);
 		
-		// create the input model file
-		final File inputModelFile = new File(inputModelPath);
+		// collect the input model files
+		final List<File> inputModelFiles = ModelBatch.collect(inputModelPaths);
+		
+		// compile the ignored IRI patterns
+		ignoredIris = new IriMatcher(ignoredIriPrefixes);
+		
+		// collect the conversion metrics (if needed)
+		final ConversionMetrics metrics = metricsPath != null ? new ConversionMetrics("papyrus2oml") : ConversionMetrics.NONE;
 
-		// load the Oml language
-		OmlStandaloneSetup.doSetup();
-		OmlXMIResourceFactory.register();
+		final CatalogResolver resolver;
+		final OmlCatalog catalog;
+		try (ConversionMetrics.Timer t = metrics.phase("setup")) {
+			// load the Oml language
+			loadLanguage();
+			
+			// load the Oml catalog (or reuse it if unchanged since the last request)
+			resolver = CatalogResolver.get(URI.createFileURI(new File(outputCatalogPath).getAbsolutePath()), LOGGER);
+			catalog = resolver.getCatalog();
+		}
 		
-		// load the Oml catalog
-		final OmlCatalog catalog = OmlCatalog.create(URI.createFileURI(outputCatalogPath));
+		// load the fingerprints of the last run (if needed)
+		final ConversionManifest manifest = incremental ? ConversionManifest.load(new File(outputCatalogPath), getManifestHeader(resolver)) : null;
 		
+		if (inputModelFiles.size() == 1) {
+			convert(inputModelFiles.get(0), catalog, manifest, metrics, omlLibraries, umlLibraries);
+		} else {
+			// convert the models after the models they refer to, each model borrowing libraries that no other model
+			// uses at the same time (a resource can only be in one resource set)
+			final ModelBatch batch = new ModelBatch(inputModelFiles, LOGGER);
+			LOGGER.info("Model dependencies= " + batch);
+			final Deque<LibraryCache[]> idleLibraries = new ArrayDeque<>();
+			final List<LibraryCache[]> batchLibraries = new ArrayList<>();
+			if (omlLibraries != null) {
+				idleLibraries.push(new LibraryCache[] {omlLibraries, umlLibraries});
+			}
+			try {
+				batch.convert(batchThreads, model -> {
+					LibraryCache[] libraries;
+					synchronized (idleLibraries) {
+						libraries = idleLibraries.poll();
+						if (libraries == null) {
+							libraries = new LibraryCache[] {LibraryCache.forOntologies(Collections.singletonList(UmlUtils.UML_IRI), LOGGER), LibraryCache.forPathmaps(LOGGER)};
+							batchLibraries.add(libraries);
+						}
+					}
+					try {
+						final ConversionMetrics modelMetrics = metrics.isEnabled() ? new ConversionMetrics("papyrus2oml") : ConversionMetrics.NONE;
+						convert(model, catalog, manifest, modelMetrics, libraries[0], libraries[1]);
+						metrics.add(modelMetrics);
+					} finally {
+						synchronized (idleLibraries) {
+							idleLibraries.push(libraries);
+						}
+					}
+				});
+			} finally {
+				// drop the libraries of the batch (but keep the ones of the daemon)
+				for (LibraryCache[] libraries : batchLibraries) {
+					libraries[0].clear();
+					libraries[1].clear();
+				}
+			}
+			metrics.count("converted models", inputModelFiles.size());
+		}
+		
+		// save the fingerprints of this run
+		if (manifest != null) {
+			manifest.save();
+		}
+		
+		// report the conversion metrics
+		resolver.report(metrics);
+		if (metricsPath != null) {
+			metrics.report(new File(metricsPath), LOGGER);
+		}
+
+		LOGGER.info("=================================================================");
+		LOGGER.info("                          E N D");
+		LOGGER.info("=================================================================");
+	}
+
+	/**
+	 * Converts the given input model and saves its Oml resources
+	 */
+	private void convert(File inputModelFile, OmlCatalog catalog, ConversionManifest manifest, ConversionMetrics metrics, 
+			LibraryCache omlLibraries, LibraryCache umlLibraries) throws Exception {
 		// create the Oml resource set
 		final XtextResourceSet omlResourceSet = new XtextResourceSet();
 		final List<Resource> omlResources = new ArrayList<>();
+		if (omlLibraries != null) {
+			omlLibraries.attach(omlResourceSet);
+		}
 
-		// create the Oml builder
-		final OmlBuilder builder = new OmlBuilder(omlResourceSet);
-		builder.start();
+		try {
+			// create the Oml builder (which the threads of a parallel conversion share)
+			final OmlBuilder builder = conversionThreads > 1 ? new SynchronizedOmlBuilder(omlResourceSet) : new OmlBuilder(omlResourceSet);
+			builder.start();
 				
-		// Convert the input model to OML resources
-		Papyrus2OmlConverter converter = new Papyrus2OmlConverter(inputModelFile, ignoredIriPrefixes, catalog, builder, omlResourceSet,conversionType, LOGGER);
-		omlResources.addAll(converter.convert());
+			// Convert the input model to OML resources
+			Papyrus2OmlConverter converter = new Papyrus2OmlConverter(inputModelFile, ignoredIriPrefixes, catalog, builder, omlResourceSet,conversionType, LOGGER);
+			converter.setManifest(manifest);
+			converter.setLowMemory(lowMemory);
+			converter.setConversionThreads(conversionThreads);
+			converter.setSaver(resources -> save(resources, converter, manifest, metrics));
+			converter.setMetrics(metrics);
+			converter.setLibraryCache(umlLibraries);
+			converter.setMetaclasses(MetaclassPruningTable.getMetaclasses(metaclasses));
+			if (fastLoad) {
+				converter.setLoadOptions(EnumSet.allOf(LoadOption.class));
+			}
+			omlResources.addAll(converter.convert());
 
-		// finish the Oml builder
-		builder.finish();
+			// finish the Oml builder
+			try (ConversionMetrics.Timer t = metrics.phase("builder finish")) {
+				builder.finish();
+			}
 		
-		// save the Oml resources
+			// save the Oml resources (the descriptions of the unchanged packages were not even converted)
+			if (manifest != null) {
+				converter.getFingerprints().forEach(manifest::put);
+			}
+			save(omlResources, converter, manifest, metrics);
+		} finally {
+			// keep the libraries for the next request (if needed), even if this one failed
+			if (omlLibraries != null) {
+				omlLibraries.release(omlResourceSet);
+			}
+		}
+	}
+
+	/**
+	 * Saves the given Oml resources, except the unchanged and the ignored ones
+	 */
+	private void save(Collection<Resource> omlResources, Papyrus2OmlConverter converter, ConversionManifest manifest, ConversionMetrics metrics) throws IOException {
+		final List<Resource> savedResources = new ArrayList<>();
 		for (Resource resource : omlResources) {
-			LOGGER.info("Saving: "+resource.getURI());
 			Ontology ontology = OmlRead.getOntology(resource);
-			if (!OMLUtil.shouldIgnoreIri(ignoredIriPrefixes, ontology.getIri())) {
-				resource.save(Collections.EMPTY_MAP);
+			if (manifest != null) {
+				String fingerprint = converter.getFingerprint(ontology.getIri());
+				if (manifest.isUnchanged(ontology.getIri(), fingerprint, resource)) {
+					LOGGER.info("Unchanged: "+resource.getURI());
+					continue;
+				}
+			}
+			if (!ignoredIris.matches(ontology.getIri())) {
+				savedResources.add(resource);
+			} else {
+				metrics.count("ignored ontologies", 1);
 			}
 		}
+		final ResourceSaver saver = new ResourceSaver(saveThreads, LOGGER);
+		saver.setUnload(lowMemory);
+		try (ConversionMetrics.Timer t = metrics.phase("save")) {
+			saver.save(savedResources);
+		}
+		metrics.count("saved ontologies", savedResources.size());
+	}
 
-		LOGGER.info("=================================================================");
-		LOGGER.info("                          E N D");
-		LOGGER.info("=================================================================");
+	/**
+	 * Get the options that the fingerprints of an incremental run depend on (each fingerprint covers the path 
+	 * of its own input model, so adding a model to a batch keeps the fingerprints of the others)
+	 */
+	private String getManifestHeader(CatalogResolver resolver) throws IOException {
+		return String.join("|", getAppVersion(), conversionType.name(), 
+				String.valueOf(ignoredIriPrefixes), String.valueOf(metaclasses), PackageFingerprint.compute(resolver.getFiles()));
 	}
 
 	/**
@@ -185,8 +490,8 @@ public class Papyrus2OmlApp {
 			final File file = new File(value);
 			final String fName = file.getName();
 			final String fExt = fName.substring(fName.lastIndexOf(".") + 1);
-			if (!file.exists() || !fExt.equals("uml")) {
-				throw new ParameterException("Argument " + value + " should be a valid Papyrus UML2 file path");
+			if (!file.exists() || !(file.isDirectory() || fExt.equals("uml"))) {
+				throw new ParameterException("Argument " + value + " should be a valid Papyrus UML2 file or folder path");
 			}
 	  	}
 	}
@@ -202,6 +507,17 @@ public class Papyrus2OmlApp {
 		
 	}
 
+	public static class MetaclassName implements IParameterValidator {
+		@Override
+		public void validate(String name, String value) throws ParameterException {
+			try {
+				MetaclassPruningTable.getMetaclasses(Collections.singletonList(value));
+			} catch (IllegalArgumentException e) {
+				throw new ParameterException("Argument " + value + " should be the name of a UML metaclass");
+			}
+		}
+	}
+
 	public static class TypeConverter implements IStringConverter<ConversionType> {
 		@Override
 		public ConversionType convert(String value) {
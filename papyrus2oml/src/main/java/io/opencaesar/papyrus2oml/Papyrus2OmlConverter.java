@@ -21,30 +21,77 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import org.apache.log4j.Logger;
 import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.uml2.uml.Element;
 import org.eclipse.uml2.uml.Model;
 import org.eclipse.uml2.uml.Package;
 import org.eclipse.uml2.uml.Profile;
 import org.eclipse.uml2.uml.resources.util.UMLResourcesUtil;
 
+import io.opencaesar.adapters.util.ConversionMetrics;
 import io.opencaesar.oml.util.OmlCatalog;
 import io.opencaesar.oml.util.OmlBuilder;
+import io.opencaesar.papyrus2oml.util.CatalogResolver;
+import io.opencaesar.papyrus2oml.util.ConversionManifest;
+import io.opencaesar.papyrus2oml.util.CrossReferenceTable;
 import io.opencaesar.papyrus2oml.util.DSLPackageConverter;
+import io.opencaesar.papyrus2oml.util.IriMatcher;
+import io.opencaesar.papyrus2oml.util.MemberIndex;
+import io.opencaesar.papyrus2oml.util.PackageFingerprint;
+import io.opencaesar.papyrus2oml.util.PackageGroups;
 import io.opencaesar.papyrus2oml.util.ProfileConverter;
 import io.opencaesar.papyrus2oml.util.ResourceConverter;
+import io.opencaesar.papyrus2oml.util.ResourceConverter.ConversionContext;
+import io.opencaesar.papyrus2oml.util.StereotypeApplicationIndex;
+import io.opencaesar.papyrus2oml.util.SynchronizedOmlBuilder;
 import io.opencaesar.papyrus2oml.util.UMLPackageConverter;
+import io.opencaesar.papyrus2oml.util.UmlUtils;
 
 public class Papyrus2OmlConverter extends Ecore2OmlConverter {
 	
 	private ResourceSet rs;
 	private List<String> ignoredIriPrefixes;
 	private ConversionType conversionType = ConversionType.uml;
+	private ConversionManifest manifest;
+	private List<EClass> metaclasses;
+	private final Map<String, String> fingerprints = new TreeMap<>();
+	private final Map<ConversionContext, Map<String, String>> contextFingerprints = new IdentityHashMap<>();
+	private String rootFingerprint;
+	private Saver saver;
+	private int conversionThreads = 1;
+
+	// the largest number of cross references to reserve room for before converting
+	private static final int MAX_PRESIZED_REFERENCES = 1 << 18;
+
+	/**
+	 * Saves the ontologies converted by a pass of a low-memory conversion
+	 */
+	public interface Saver {
+		void save(Collection<Resource> resources) throws IOException;
+	}
 
 	public Papyrus2OmlConverter(File inputModelFile, List<String> ignoredIriPrefixes, OmlCatalog catalog, OmlBuilder oml, ResourceSet omlResourceSet, ConversionType conversionType, Logger logger) {
 		super(inputModelFile, catalog, oml, logger);
@@ -60,6 +107,457 @@ public class Papyrus2OmlConverter extends Ecore2OmlConverter {
 		return rs;
 	}
 
+	/**
+	 * Makes the conversion incremental: the packages whose fingerprints match the given manifest of the previous run
+	 * (and whose descriptions are still on disk) are not converted again
+	 */
+	public void setManifest(ConversionManifest manifest) {
+		this.manifest = manifest;
+	}
+
+	/**
+	 * Sets how a low-memory conversion saves the ontologies of each of its passes but the last one (whose ontologies 
+	 * are returned as usual)
+	 */
+	public void setSaver(Saver saver) {
+		this.saver = saver;
+	}
+
+	/**
+	 * Sets the number of threads that convert the packages of the input model at the same time (which needs the
+	 * builder to be a {@link SynchronizedOmlBuilder})
+	 */
+	public void setConversionThreads(int conversionThreads) {
+		this.conversionThreads = conversionThreads;
+	}
+
+	/**
+	 * Restricts the UML conversion to instances of the given metaclasses and their subclasses (or null for all)
+	 */
+	public void setMetaclasses(List<EClass> metaclasses) {
+		this.metaclasses = metaclasses;
+	}
+
+	/**
+	 * @return the content fingerprint of the ontology with the given IRI (or null if it was not fingerprinted) 
+	 */
+	public String getFingerprint(String iri) {
+		return fingerprints.get(iri);
+	}
+
+	/**
+	 * @return the content fingerprints of the ontologies of the conversion (including the unchanged ones), keyed by IRI
+	 */
+	public Map<String, String> getFingerprints() {
+		return Collections.unmodifiableMap(fingerprints);
+	}
+
+	@Override
+	protected void convert(Resource resource, Collection<ResourceConverter> converters) throws IOException {
+		EObject root = resource.getContents().isEmpty() ? null : resource.getContents().get(0);
+		if (!(root instanceof Package) || root instanceof Profile || converters.isEmpty()) {
+			super.convert(resource, converters);
+		} else if (lowMemory && saver != null) {
+			convertInGroups(resource, converters);
+		} else if (conversionThreads > 1) {
+			convertInParallel(resource, converters);
+		} else {
+			super.convert(resource, converters);
+		}
+	}
+
+	/**
+	 * A low-memory conversion converts the packages in groups, each after the groups it refers to, and saves and 
+	 * unloads the descriptions of each group before converting the next one (so the heap holds the descriptions of 
+	 * one group and of those it refers to, rather than all of them); the last pass then converts the bundle
+	 */
+	private void convertInGroups(Resource resource, Collection<ResourceConverter> converters) throws IOException {
+		ConversionContext first = converters.iterator().next().getContext();
+		List<Package> packages = getDescribedPackages((Package) resource.getContents().get(0), first.ignoredIris);
+		packages.removeAll(first.unchangedPackages);
+		PackageGroups groups = new PackageGroups(packages, StereotypeApplicationIndex.get(resource));
+		logger.info("Conversion passes: " + groups);
+		for (Set<Package> group : groups.getGroups()) {
+			convert(resource, converters, group, groups.getDependencies(group));
+		}
+		for (ResourceConverter converter : converters) {
+			converter.getContext().convertedPackages = Collections.emptySet();
+			converter.getContext().convertsBundle = true;
+		}
+		super.convert(resource, converters);
+	}
+
+	/**
+	 * Converts the descriptions of the given group of packages, then saves and unloads them
+	 */
+	private void convert(Resource resource, Collection<ResourceConverter> converters, Set<Package> group, Set<Package> dependencies) throws IOException {
+		for (ResourceConverter converter : converters) {
+			converter.getContext().convertedPackages = group;
+			converter.getContext().convertsBundle = false;
+		}
+		super.convert(resource, converters);
+
+		// the references to the members of the groups converted before are resolved in their saved descriptions
+		CatalogResolver resolver = converters.iterator().next().getContext().resolver;
+		List<Resource> unloaded = new ArrayList<>(builder.getNewResources());
+		for (Package dependency : dependencies) {
+			URI uri = resolver.resolveOmlUri(UmlUtils.getIRI(dependency));
+			if (rs.getResource(uri, false) == null && uri.isFile() && new File(uri.toFileString()).exists()) {
+				unloaded.add(rs.getResource(uri, true));
+			}
+		}
+		List<Resource> resources = new ArrayList<>(builder.getNewResources());
+		try (ConversionMetrics.Timer t = metrics.phase("builder finish")) {
+			builder.finish();
+		}
+		saver.save(resources);
+
+		// the members of the saved descriptions are only referred to by IRI from now on
+		MemberIndex members = MemberIndex.get(rs);
+		for (Resource r : unloaded) {
+			members.remove(r);
+			r.unload();
+			rs.getResources().remove(r);
+		}
+		for (ResourceConverter converter : converters) {
+			converter.getContext().forget(group);
+		}
+		builder.start();
+	}
+
+	/**
+	 * A parallel conversion splits the packages into parts of about the same size and traverses each part on a thread
+	 * of a fork-join pool with its own converters, which share the synchronized builder, the member index and the 
+	 * (resolved) input model. Since the converters defer the references between elements, the parts do not depend on
+	 * each other: once they are all traversed, their cross references are merged, their deferred relations run in 
+	 * model order (since a relation may refer to one converted before it) and their deferred links run in parallel.
+	 * The last pass then converts the bundle, so each ontology is the same as when converted on one thread.
+	 */
+	private void convertInParallel(Resource resource, Collection<ResourceConverter> converters) throws IOException {
+		if (!(builder instanceof SynchronizedOmlBuilder)) {
+			logger.warn("Converting on one thread since the OML builder is not synchronized");
+			super.convert(resource, converters);
+			return;
+		}
+		Package root = (Package) resource.getContents().get(0);
+		List<ResourceConverter> mainConverters = new ArrayList<>(converters);
+		ConversionContext first = mainConverters.get(0).getContext();
+		List<Package> packages = getDescribedPackages(root, first.ignoredIris);
+		packages.removeAll(first.unchangedPackages);
+		List<Set<Package>> parts = split(packages, conversionThreads);
+		if (parts.size() < 2) {
+			super.convert(resource, converters);
+			return;
+		}
+		logger.info("Conversion parts: " + packages.size() + " packages in " + parts.size() + " parts");
+
+		// resolve the proxies up front, so the threads only read the input model
+		try (ConversionMetrics.Timer t = metrics.phase("resolve")) {
+			EcoreUtil.resolveAll(resource.getResourceSet());
+		}
+
+		List<List<ResourceConverter>> workers = new ArrayList<>();
+		List<ConversionMetrics> workerMetrics = new ArrayList<>();
+		for (Set<Package> part : parts) {
+			ConversionMetrics partMetrics = metrics.isEnabled() ? new ConversionMetrics(null) : ConversionMetrics.NONE;
+			List<ResourceConverter> worker = createResourceConverters(root);
+			for (ResourceConverter converter : worker) {
+				ConversionContext context = converter.getContext();
+				context.metrics = partMetrics;
+				context.unchangedPackages = first.unchangedPackages;
+				context.convertedPackages = part;
+				context.convertsBundle = false;
+				context.deferredRelationOwners = new ArrayList<>();
+			}
+			workers.add(worker);
+			workerMetrics.add(partMetrics);
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(parts.size());
+		try {
+			try (ConversionMetrics.Timer t = metrics.phase("traverse")) {
+				invokeAll(pool, workers.size(), i -> traverse(resource, workers.get(i), workerMetrics.get(i)));
+			}
+			Map<EObject, Integer> ranks = rankDeferredRelationOwners(resource, workers);
+			for (int c = 0; c < mainConverters.size(); c++) {
+				final int converter = c;
+				CrossReferenceTable references = mainConverters.get(c).getContext().references;
+				for (List<ResourceConverter> worker : workers) {
+					references.putAll(worker.get(c).getContext().references);
+				}
+				for (List<ResourceConverter> worker : workers) {
+					worker.get(c).getContext().references = references;
+				}
+				runDeferredRelations(workers, c, ranks);
+				invokeAll(pool, workers.size(), i -> workers.get(i).get(converter).runDeferredLinks());
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		for (int i = 0; i < workers.size(); i++) {
+			for (ResourceConverter converter : workers.get(i)) {
+				converter.report();
+			}
+			metrics.add(workerMetrics.get(i));
+		}
+
+		for (ResourceConverter converter : mainConverters) {
+			converter.getContext().convertedPackages = Collections.emptySet();
+			converter.getContext().convertsBundle = true;
+		}
+		super.convert(resource, converters);
+	}
+
+	/**
+	 * @return the given packages split into at most the given number of parts of about the same number of elements,
+	 * where a package nested in an element is kept with the package of the element (whose traversal reaches it)
+	 */
+	private static List<Set<Package>> split(List<Package> packages, int count) {
+		Map<Package, Set<Package>> units = new LinkedHashMap<>();
+		Map<Package, Integer> sizes = new HashMap<>();
+		for (Package package_ : packages) {
+			Package unit = package_;
+			while (unit.eContainer() != null && !(unit.eContainer() instanceof Package)) {
+				unit = ((Element) unit.eContainer()).getNearestPackage();
+			}
+			units.computeIfAbsent(unit, u -> new LinkedHashSet<>()).add(package_);
+			sizes.merge(unit, countElements(package_), Integer::sum);
+		}
+		List<Package> largestFirst = new ArrayList<>(units.keySet());
+		largestFirst.sort((a, b) -> Integer.compare(sizes.get(b), sizes.get(a)));
+
+		// each unit goes to the smallest part so far
+		List<Set<Package>> parts = new ArrayList<>();
+		int[] partSizes = new int[Math.min(count, units.size())];
+		for (int i = 0; i < partSizes.length; i++) {
+			parts.add(new LinkedHashSet<>());
+		}
+		for (Package unit : largestFirst) {
+			int smallest = 0;
+			for (int i = 1; i < partSizes.length; i++) {
+				if (partSizes[i] < partSizes[smallest]) {
+					smallest = i;
+				}
+			}
+			parts.get(smallest).addAll(units.get(unit));
+			partSizes[smallest] += sizes.get(unit);
+		}
+		return parts;
+	}
+
+	private static int countElements(Package package_) {
+		int count = 0;
+		TreeIterator<EObject> i = package_.eAllContents();
+		while (i.hasNext()) {
+			if (i.next() instanceof Package) {
+				i.prune();
+			} else {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * @return the positions in the given resource of the objects whose conversions deferred relations
+	 */
+	private static Map<EObject, Integer> rankDeferredRelationOwners(Resource resource, List<List<ResourceConverter>> workers) {
+		Map<EObject, Integer> ranks = new IdentityHashMap<>();
+		for (List<ResourceConverter> worker : workers) {
+			for (ResourceConverter converter : worker) {
+				for (EObject owner : converter.getContext().deferredRelationOwners) {
+					ranks.put(owner, -1);
+				}
+			}
+		}
+		int rank = 0;
+		int ranked = 0;
+		TreeIterator<EObject> i = resource.getAllContents();
+		while (ranked < ranks.size() && i.hasNext()) {
+			EObject eObject = i.next();
+			if (ranks.containsKey(eObject)) {
+				ranks.put(eObject, rank);
+				ranked++;
+			}
+			rank++;
+		}
+		return ranks;
+	}
+
+	/**
+	 * Runs the deferred relations of the given converter of all the parts in the order of their owners in the model
+	 * (i.e., in the order of a traversal on one thread), then drops them
+	 */
+	private void runDeferredRelations(List<List<ResourceConverter>> workers, int converter, Map<EObject, Integer> ranks) {
+		// the relations of a part are already in model order, so they are sorted by owner and then by part
+		List<int[]> relations = new ArrayList<>();
+		for (int w = 0; w < workers.size(); w++) {
+			ConversionContext context = workers.get(w).get(converter).getContext();
+			for (int r = 0; r < context.deferredRelations.size(); r++) {
+				relations.add(new int[] {ranks.get(context.deferredRelationOwners.get(r)), w, r});
+			}
+		}
+		relations.sort((a, b) -> a[0] != b[0] ? Integer.compare(a[0], b[0]) : a[1] != b[1] ? Integer.compare(a[1], b[1]) : Integer.compare(a[2], b[2]));
+		try (ConversionMetrics.Timer t = metrics.phase("deferred relations")) {
+			for (int[] relation : relations) {
+				workers.get(relation[1]).get(converter).getContext().deferredRelations.get(relation[2]).run();
+			}
+		}
+		metrics.count("deferred relations", relations.size());
+		for (List<ResourceConverter> worker : workers) {
+			worker.get(converter).getContext().deferredRelations.clear();
+			worker.get(converter).getContext().deferredRelationOwners.clear();
+		}
+	}
+
+	/**
+	 * Runs the given task for each of the given number of parts on the given pool, and waits for them
+	 */
+	private static void invokeAll(ForkJoinPool pool, int parts, PartTask task) throws IOException {
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < parts; i++) {
+			final int part = i;
+			futures.add(pool.submit(() -> {
+				task.run(part);
+				return null;
+			}));
+		}
+		try {
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			} else if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IOException(e.getCause());
+		}
+	}
+
+	private interface PartTask {
+		void run(int part) throws IOException;
+	}
+
+	@Override
+	protected void converted(Resource resource, Collection<ResourceConverter> converters) throws IOException {
+		for (ResourceConverter converter : converters) {
+			ConversionContext context = converter.getContext();
+			Map<String, String> packageFingerprints = contextFingerprints.get(context);
+			if (packageFingerprints != null && context.descriptionBundle != null) {
+				fingerprints.put(context.descriptionBundle.getIri(), PackageFingerprint.combine(rootFingerprint, packageFingerprints));
+			}
+		}
+	}
+
+	/**
+	 * Fingerprints the packages converted by the given converters before the traversal, and marks the packages whose 
+	 * descriptions have the same fingerprints as in the previous run as unchanged, so they are neither converted nor 
+	 * saved again (the elements of other packages that refer to theirs are linked to the previous descriptions)
+	 */
+	private void fingerprint(Package rootPackage, List<ResourceConverter> converters) throws IOException {
+		ConversionContext first = converters.get(0).getContext();
+		StereotypeApplicationIndex applications = StereotypeApplicationIndex.get(rootPackage.eResource());
+		String environment = PackageFingerprint.computeEnvironment(inputModelFile.getCanonicalPath(), rootPackage, getVocabularyFiles(rootPackage, first.resolver));
+		rootFingerprint = PackageFingerprint.compute(rootPackage, applications, environment);
+		Set<Package> unchangedPackages = new HashSet<>();
+		for (Package package_ : getDescribedPackages(rootPackage, first.ignoredIris)) {
+			String fingerprint = PackageFingerprint.compute(package_, applications, environment);
+			// a package is only kept when the descriptions of all the converters are (since they refer to each other)
+			boolean unchanged = !ownsNestedPackages(package_);
+			for (ResourceConverter converter : converters) {
+				ConversionContext context = converter.getContext();
+				String iri = UmlUtils.getIRI(package_) + (context.postFix.isEmpty() ? "" : "-" + context.postFix);
+				contextFingerprints.computeIfAbsent(context, c -> new TreeMap<>()).put(iri, fingerprint);
+				fingerprints.put(iri, fingerprint);
+				unchanged &= manifest.isUnchanged(iri, fingerprint, context.resolver.resolveOmlUri(iri));
+			}
+			if (unchanged) {
+				unchangedPackages.add(package_);
+			}
+		}
+		for (ResourceConverter converter : converters) {
+			converter.getContext().unchangedPackages = unchangedPackages;
+		}
+		logger.info("Unchanged packages: " + unchangedPackages.size());
+	}
+
+	/**
+	 * @return the packages of the given root package that get converted to descriptions, i.e., those that are not ignored 
+	 * and own elements other than packages
+	 */
+	private static List<Package> getDescribedPackages(Package rootPackage, IriMatcher ignoredIris) {
+		List<Package> packages = new ArrayList<>();
+		if (hasElements(rootPackage)) {
+			packages.add(rootPackage);
+		}
+		TreeIterator<EObject> i = rootPackage.eAllContents();
+		while (i.hasNext()) {
+			EObject eObject = i.next();
+			if (eObject instanceof Package) {
+				Package package_ = (Package) eObject;
+				if (ignoredIris.matches(UmlUtils.getIRI(package_))) {
+					i.prune();
+				} else if (hasElements(package_)) {
+					packages.add(package_);
+				}
+			}
+		}
+		return packages;
+	}
+
+	private static boolean hasElements(Package package_) {
+		return package_.getPackagedElements().stream().anyMatch(e -> !(e instanceof Package));
+	}
+
+	/**
+	 * @return whether a package is nested in an element of the given package (rather than in the package itself), 
+	 * since such a package is only converted when the element is
+	 */
+	private static boolean ownsNestedPackages(Package package_) {
+		for (EObject child : package_.eContents()) {
+			if (!(child instanceof Package)) {
+				TreeIterator<EObject> i = child.eAllContents();
+				while (i.hasNext()) {
+					if (i.next() instanceof Package) {
+						return true;
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the OML files that the descriptions are converted against (i.e., the UML vocabularies and the vocabularies 
+	 * of the applied profiles), sorted by path
+	 */
+	private static Collection<File> getVocabularyFiles(Package rootPackage, CatalogResolver resolver) throws IOException {
+		Set<String> iris = new TreeSet<>();
+		iris.add(UmlUtils.UML_IRI);
+		iris.add(UmlUtils.UML_BUNDLE_IRI);
+		for (Profile profile : rootPackage.getAllAppliedProfiles()) {
+			iris.add(UmlUtils.getIRI(profile));
+			profile.eAllContents().forEachRemaining(e -> {
+				if (e instanceof Package) {
+					iris.add(UmlUtils.getIRI((Package) e));
+				}
+			});
+		}
+		Set<File> files = new TreeSet<>();
+		for (String iri : iris) {
+			URI uri = resolver.resolveOmlUri(iri);
+			if (uri.isFile()) {
+				files.add(new File(uri.toFileString()));
+			}
+		}
+		return files;
+	}
+
 	@Override
 	public Collection<ResourceConverter> getResourceConverters(Resource resource) throws IOException {
 		List<ResourceConverter> converters = new ArrayList<>();
@@ -68,20 +566,41 @@ public class Papyrus2OmlConverter extends Ecore2OmlConverter {
 			if (root instanceof Profile) {
 				converters.add(new ProfileConverter((Profile)root, catalog, builder,conversionType, logger));
 			} else if (root instanceof Package) {
-				if (conversionType == ConversionType.uml || conversionType == ConversionType.uml_dsl) {
-					converters.add(new UMLPackageConverter((Package)root, ignoredIriPrefixes, catalog, builder, rs,conversionType, logger));
+				converters.addAll(createResourceConverters((Package) root));
+				if (manifest != null && !converters.isEmpty()) {
+					fingerprint((Package) root, converters);
 				}
-				if (conversionType == ConversionType.dsl || conversionType == ConversionType.uml_dsl) {
-					Package rootPackage = (Package) root; 
-					Model model = rootPackage.getModel();
-					EList<Profile> profiles = model.getAllAppliedProfiles();
-					if (!profiles.isEmpty()) {
-						converters.add(new DSLPackageConverter(rootPackage, profiles.get(0), ignoredIriPrefixes, catalog, builder, rs,conversionType, logger));
-					}
+				// size the cross references of the first converter (which sees every element) once up front instead of
+				// rehashing them while converting; the estimate is capped and the table grows on demand past it
+				if (!converters.isEmpty()) {
+					int expectedObjectCount = Math.min(getExpectedObjectCount(resource), MAX_PRESIZED_REFERENCES);
+					converters.get(0).getContext().references.ensureCapacity(expectedObjectCount);
 				}
 			}
 		}
 		return converters;
 	}
+
+	/**
+	 * @return new converters of the given root package (a parallel conversion creates them for each of its parts)
+	 */
+	private List<ResourceConverter> createResourceConverters(Package rootPackage) {
+		List<ResourceConverter> converters = new ArrayList<>();
+		if (conversionType == ConversionType.uml || conversionType == ConversionType.uml_dsl) {
+			UMLPackageConverter converter = new UMLPackageConverter(rootPackage, ignoredIriPrefixes, catalog, builder, rs,conversionType, logger);
+			if (metaclasses != null) {
+				converter.setMetaclasses(metaclasses);
+			}
+			converters.add(converter);
+		}
+		if (conversionType == ConversionType.dsl || conversionType == ConversionType.uml_dsl) {
+			Model model = rootPackage.getModel();
+			EList<Profile> profiles = model.getAllAppliedProfiles();
+			if (!profiles.isEmpty()) {
+				converters.add(new DSLPackageConverter(rootPackage, profiles.get(0), ignoredIriPrefixes, catalog, builder, rs,conversionType, logger));
+			}
+		}
+		return converters;
+	}
 	
 }
@@ -17,7 +17,10 @@
  */
 package io.opencaesar.papyrus2oml.converters;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.ecore.EAttribute;
@@ -29,11 +32,11 @@ import org.eclipse.uml2.uml.Enumeration;
 import org.eclipse.uml2.uml.EnumerationLiteral;
 import org.eclipse.uml2.uml.Property;
 import org.eclipse.uml2.uml.Stereotype;
+import org.eclipse.uml2.uml.util.UMLUtil;
 
 import io.opencaesar.oml.Description;
 import io.opencaesar.oml.Literal;
 import io.opencaesar.oml.Member;
-import io.opencaesar.oml.util.OmlRead;
 import io.opencaesar.papyrus2oml.ConversionType;
 import io.opencaesar.papyrus2oml.util.OMLUtil;
 import io.opencaesar.papyrus2oml.util.ResourceConverter.ConversionContext;
@@ -43,29 +46,47 @@ public class ConceptInstanceConverter {
 	
 	static public void convert(Element element, Description description, List<Stereotype> stereotypes, List<Member> types,
 			ConversionContext context) {
-		String instanceIri = UmlUtils.getIRI(description, element);
+		String instanceIri = UmlUtils.getIRI(description, element, context);
 		Member instance = null;
 		if (context.conversionType==ConversionType.dsl) {
-			instance = context.builder.addConceptInstance(description,  UmlUtils.getName(element));
+			instance = context.builder.addConceptInstance(description,  context.names.getName(element));
+			context.members.add(instance);
 		}else if (!types.isEmpty() || !stereotypes.isEmpty()){
 			instanceIri = UmlUtils.getUMLIRI(element, context);
 			String ontIri = UmlUtils.getUMLONTIRI(element, context);
-			OMLUtil.addExtendsIfNeeded(description, ontIri, context.builder);
-			instance = OmlRead.getMemberByIri(description, instanceIri);
+			OMLUtil.addExtendsIfNeeded(description, ontIri, context);
+			instance = context.members.getMemberByIri(description, instanceIri);
+			if (instance == null) {
+				// the UML instance of a relation (e.g., a dependency) is only created when the UML converter finishes
+				final String umlInstanceIri = instanceIri;
+				context.deferredRelations.add(() -> {
+					Member umlInstance = context.members.getMemberByIri(description, umlInstanceIri);
+					if (umlInstance != null) {
+						convert(element, description, stereotypes, types, context, umlInstanceIri, umlInstance);
+					} else {
+						context.logger.warn("Could not find the UML instance " + umlInstanceIri + " of " + UMLUtil.getQualifiedText(element));
+					}
+				});
+			}
 		}
 		
 		if (instance!=null) {
-			context.umlToOml.put(element, instance);
-			for (Member t : types) {
-				context.builder.addConceptTypeAssertion(description, instanceIri, t.getIri());
-			}
-		
-			// get the stereoType applications
-			for (Stereotype stereoType : stereotypes) {
-				EObject stApplication = element.getStereotypeApplication(stereoType);
-				EClass eClass = stApplication.eClass();
-				createAttributesAndReferences(description, context, instanceIri, stereoType, stApplication, eClass,false);
-			}
+			convert(element, description, stereotypes, types, context, instanceIri, instance);
+		}
+	}
+
+	private static void convert(Element element, Description description, List<Stereotype> stereotypes, List<Member> types,
+			ConversionContext context, String instanceIri, Member instance) {
+		context.references.put(element, instance);
+		for (Member t : types) {
+			context.builder.addConceptTypeAssertion(description, instanceIri, t.getIri());
+		}
+	
+		// get the stereoType applications
+		for (Stereotype stereoType : stereotypes) {
+			EObject stApplication = context.stereotypeApplications.getStereotypeApplication(element, stereoType);
+			EClass eClass = stApplication.eClass();
+			createAttributesAndReferences(description, context, instanceIri, stereoType, stApplication, eClass,false);
 		}
 	}
 	
@@ -76,58 +97,103 @@ public class ConceptInstanceConverter {
 
 	private static void createAttributesAndReferences(Description description, ConversionContext context,
 			String instanceIri, Stereotype stereoType, EObject stApplication, EClass eClass, boolean attrOnly) {
-		EList<Property> props = stereoType.allAttributes();
-		for (Property prop : props) {
-			if (context.shouldFilterFeature(prop)) {
-				continue;
-			}
-			EStructuralFeature feature = eClass.getEStructuralFeature(prop.getName());
-			if (feature==null) {
-				continue;
-			}
-			Object val = stApplication.eGet(feature);
-			if (prop.isMultivalued()) {
+		PropertyPlan[] plan = context.stereotypePlans
+				.computeIfAbsent(stereoType, s -> new HashMap<>())
+				.computeIfAbsent(eClass, c -> createPlan(stereoType, c, context));
+		for (PropertyPlan prop : plan) {
+			Object val = stApplication.eGet(prop.feature);
+			if (prop.multivalued) {
 				EList<?> values = (EList<?>) val;
 				if (!values.isEmpty()) {
-					String propIRI = UmlUtils.getIri(prop);
-					if (propIRI.isEmpty()) {
-						context.logger.error("Could not get IRI for " + prop.getName());
+					if (prop.iri.isEmpty()) {
+						context.logger.error("Could not get IRI for " + prop.name);
 						continue;
 					}
-					if (feature instanceof EAttribute) {
+					if (prop.attribute) {
 						for (Object value  : values) {
-							if (prop.getType() instanceof Enumeration) {
-								Enumeration _enum = (Enumeration) prop.getType();
-								EnumerationLiteral literal = _enum.getOwnedLiteral(value.toString());
-								value = UmlUtils.getOmlName(literal);
+							if (prop.literals != null) {
+								value = prop.getLiteralName(value.toString());
 							}
-							addScalarProperty(description, context, instanceIri, propIRI, value);
+							addScalarProperty(description, context, instanceIri, prop.iri, value);
 							// TODO: handle structure
 						}
 					} else if (!attrOnly) {
-						addLink(description, context, instanceIri, val, propIRI);
+						addLink(description, context, instanceIri, val, prop.iri);
 					}
 				}
 			} else if (val!=null) {
-				String propIRI = UmlUtils.getIri(prop);
-				if (propIRI.isEmpty()) {
-					context.logger.error("Could not get IRI for " + prop.getName());
+				if (prop.iri.isEmpty()) {
+					context.logger.error("Could not get IRI for " + prop.name);
 					continue;
 				}
-				if (feature instanceof EAttribute) {
-					addScalarProperty(description, context, instanceIri, propIRI, val);
+				if (prop.attribute) {
+					addScalarProperty(description, context, instanceIri, prop.iri, val);
 				} else if (!attrOnly) {
-					addLink(description, context, instanceIri, val, propIRI);
+					addLink(description, context, instanceIri, val, prop.iri);
 				}
 			}
 			
 		}
 	}
 
+	private static PropertyPlan[] createPlan(Stereotype stereoType, EClass eClass, ConversionContext context) {
+		List<PropertyPlan> plan = new ArrayList<>();
+		for (Property prop : stereoType.allAttributes()) {
+			if (context.shouldFilterFeature(prop)) {
+				continue;
+			}
+			EStructuralFeature feature = eClass.getEStructuralFeature(prop.getName());
+			if (feature==null) {
+				continue;
+			}
+			plan.add(new PropertyPlan(prop, feature));
+		}
+		return plan.toArray(new PropertyPlan[plan.size()]);
+	}
+
+	/**
+	 * A stereotype property resolved against the EClass of the stereotype application
+	 */
+	public static class PropertyPlan {
+		private final Property property;
+		private final String name;
+		private final EStructuralFeature feature;
+		private final String iri;
+		private final boolean multivalued;
+		private final boolean attribute;
+		private final Map<String, String> literals;
+
+		private PropertyPlan(Property property, EStructuralFeature feature) {
+			this.property = property;
+			this.name = property.getName();
+			this.feature = feature;
+			this.iri = UmlUtils.getIri(property);
+			this.multivalued = property.isMultivalued();
+			this.attribute = feature instanceof EAttribute;
+			if (property.getType() instanceof Enumeration) {
+				literals = new HashMap<>();
+				for (EnumerationLiteral literal : ((Enumeration) property.getType()).getOwnedLiterals()) {
+					literals.putIfAbsent(literal.getName(), UmlUtils.getOmlName(literal));
+				}
+			} else {
+				literals = null;
+			}
+		}
+
+		private String getLiteralName(String value) {
+			String name = literals.get(value);
+			if (name == null) {
+				EnumerationLiteral literal = ((Enumeration) property.getType()).getOwnedLiteral(value);
+				name = UmlUtils.getOmlName(literal);
+			}
+			return name;
+		}
+	}
+
 	private static void addLink(Description description, ConversionContext context, String instanceIri, Object val, String propIRI) {
 		context.deferredLinks.add(new LinkConverter(description, instanceIri, propIRI, val, context ));
 		String ontIRI = UmlUtils.getOntIRI(propIRI);
-		OMLUtil.addUsesIfNeeded(description, ontIRI, context.builder);
+		OMLUtil.addUsesIfNeeded(description, ontIRI, context);
 	}
 
 	private static void addScalarProperty(Description description, ConversionContext context, String instanceIri,
@@ -23,9 +23,9 @@ import org.eclipse.emf.ecore.EObject;
 import org.eclipse.uml2.uml.Element;
 import org.eclipse.uml2.uml.util.UMLUtil;
 
+import io.opencaesar.adapters.util.ConversionEvent;
 import io.opencaesar.oml.Description;
 import io.opencaesar.oml.IdentifiedElement;
-import io.opencaesar.oml.Ontology;
 import io.opencaesar.papyrus2oml.util.OMLUtil;
 import io.opencaesar.papyrus2oml.util.ResourceConverter.ConversionContext;
 
@@ -63,26 +63,37 @@ public class LinkConverter implements Runnable {
 	@SuppressWarnings("rawtypes")
 	@Override
 	public void run() {
-		if (target instanceof List) {
-			List elements = (List)target;
-			for (Object value : elements) {
-				createLink(value);
+		final ConversionEvent event = new ConversionEvent();
+		event.begin();
+		try {
+			if (target instanceof List) {
+				List elements = (List)target;
+				for (Object value : elements) {
+					createLink(value);
+				}
+			}else {
+				createLink(target);
+			}
+		} finally {
+			event.end();
+			if (event.shouldCommit()) {
+				Object value = (target instanceof List && !((List)target).isEmpty()) ? ((List)target).get(0) : target;
+				event.commit("link", value instanceof EObject ? ((EObject)value).eClass() : null, instanceIri);
 			}
-		}else {
-			createLink(target);
 		}
 	}
 
 	protected void createLink(Object value) {
 		EObject eValue = (EObject)value;		
 		Element baseElemnt = UMLUtil.getBaseElement(eValue);
-		IdentifiedElement omlElement = context.umlToOml.get(baseElemnt);
-		if (omlElement==null) {
-			omlElement = context.getOmlElementForIgnoredElement(baseElemnt, description) ;
+		String targetIri = context.references.getIri(baseElemnt);
+		String ontologyIri = context.references.getOntologyIri(baseElemnt);
+		if (targetIri==null) {
+			IdentifiedElement omlElement = context.getOmlElementForIgnoredElement(baseElemnt, description) ;
+			targetIri = omlElement.getIri();
+			ontologyIri = omlElement.getOntology().getIri();
 		}
-		Ontology ont = omlElement.getOntology();
-		String targetIri = omlElement.getIri();
-		OMLUtil.addExtendsIfNeeded(description, ont.getIri(), context.builder);
+		OMLUtil.addExtendsIfNeeded(description, ontologyIri, context);
 		context.builder.addLinkAssertion(description, instanceIri, relationIri, targetIri);
 	}
 	
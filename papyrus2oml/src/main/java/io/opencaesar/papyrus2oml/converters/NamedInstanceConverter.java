@@ -23,7 +23,6 @@ import java.util.List;
 
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.resource.Resource;
-import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.uml2.uml.Element;
 import org.eclipse.uml2.uml.Package;
 import org.eclipse.uml2.uml.Stereotype;
@@ -43,32 +42,31 @@ import io.opencaesar.papyrus2oml.util.UmlUtils;
 public class NamedInstanceConverter {
 
 	static public void convert(Element element, ConversionContext context) throws IOException {
-		String name =  UmlUtils.getName(element);
+		String name =  context.names.getName(element);
 		if (name == null || name.isEmpty()) {
 			// Notice that some relations in UML could be anonymous
 			// so we need to still handle them as unreified relations
 			return;
 		}
-		Description description = (Description) context.umlToOml.get(element.getNearestPackage());
+		Description description = context.descriptions.get(element.getNearestPackage());
 		if (description == null) {
 			// this means the element is owned by the root model
 			// which is mapped to a description bundle not a description
 			return;
 		}
 
-		ResourceSet rs = description.eResource().getResourceSet();
 		List<Member> types = new ArrayList<>();
-		List<Stereotype> stereotypes = element.getAppliedStereotypes();
+		List<Stereotype> stereotypes = context.stereotypeApplications.getAppliedStereotypes(element);
 		for (Stereotype s : stereotypes) {
 			Package package_ = s.getNearestPackage();
-			Import i = OMLUtil.addUsesIfNeeded(description, UmlUtils.getIRI(package_), context.builder);
-			Member type = (Member) context.umlToOml.get(s);
+			Import i = OMLUtil.addUsesIfNeeded(description, UmlUtils.getIRI(package_), context);
+			Member type = context.stereotypeTypes.get(s);
 			if (type == null) {
 				URI uri = OmlRead.getResolvedUri(i);
 				if (uri == null) {
 					throw new RuntimeException("Cannot resolve IRI '" + UmlUtils.getIRI(package_) + "'");
 				}
-				Resource r = rs.getResource(uri, true);
+				Resource r = context.members.getResource(uri);
 				Vocabulary vocabulary = (Vocabulary) OmlRead.getOntology(r);
 				if (vocabulary == null) {
 					throw new RuntimeException("Cannot load vocabylary '" + UmlUtils.getIRI(package_) + "'");
@@ -77,7 +75,7 @@ public class NamedInstanceConverter {
 				if (type == null) {
 					throw new RuntimeException("Cannot find entity equivalent to '" + s.getQualifiedName() + "'");
 				}
-				context.umlToOml.put(s, type);
+				context.stereotypeTypes.put(s, type);
 			}
 			types.add(type);
 		}
@@ -44,9 +44,16 @@ public class PackageConverter {
 			String iri = UmlUtils.getIRI(package_);
 			String calcuatedPostFix = postFix.isEmpty() ? "" : ("-" + postFix);
 			iri += calcuatedPostFix;
-			final URI uri = URI.createURI(context.catalog.resolveURI(iri) + "." + OmlConstants.OML_EXTENSION);
+			if (context.isSkipped(package_)) {
+				// the description is kept from the previous incremental run or converted by another pass
+				if(context.descriptionBundle!=null) {
+					context.builder.addDescriptionBundleInclusion(context.descriptionBundle, iri, null);
+				}
+				return;
+			}
+			final URI uri = context.resolver.resolveOmlUri(iri);
 			Description description = context.builder.createDescription(uri, iri, SeparatorKind.HASH, prefix+calcuatedPostFix);
-			context.umlToOml.put(package_, description);
+			context.descriptions.put(package_, description);
 
 			context.builder.addDescriptionUsage(description, OmlConstants.OWL_IRI, null);
 			if(context.descriptionBundle!=null) {
@@ -65,8 +72,8 @@ public class PackageConverter {
 		boolean empty = package_.getPackagedElements().stream().filter(e -> !(e instanceof Package)).count() == 0;
 		String calcuatedPostFix = (postFix.isEmpty() || context.conversionType == ConversionType.uml_dsl) ? "" : ("-" + postFix);
 		iri = empty ? iri + calcuatedPostFix : iri + "-bundle";
-		final URI uri = URI.createURI(context.catalog.resolveURI(iri) +   "." + OmlConstants.OML_EXTENSION);
-		if (context.conversionType != ConversionType.uml_dsl || context.DSL) {
+		final URI uri = context.resolver.resolveOmlUri(iri);
+		if (context.convertsBundle && (context.conversionType != ConversionType.uml_dsl || context.DSL)) {
 			DescriptionBundle bundle = context.builder.createDescriptionBundle(uri, iri, SeparatorKind.HASH, prefix + calcuatedPostFix);
 			context.descriptionBundle = bundle;
 			if (context.conversionType == ConversionType.uml) {
@@ -34,11 +34,11 @@ import org.eclipse.uml2.uml.Stereotype;
 import org.eclipse.uml2.uml.Type;
 import org.eclipse.uml2.uml.util.UMLUtil;
 
+import io.opencaesar.adapters.util.ConversionEvent;
 import io.opencaesar.oml.Description;
 import io.opencaesar.oml.IdentifiedElement;
 import io.opencaesar.oml.Member;
 import io.opencaesar.oml.RelationEntity;
-import io.opencaesar.oml.util.OmlRead;
 import io.opencaesar.papyrus2oml.ConversionType;
 import io.opencaesar.papyrus2oml.util.OMLUtil;
 import io.opencaesar.papyrus2oml.util.ResourceConverter.ConversionContext;
@@ -62,6 +62,8 @@ public class RelationConverter implements Runnable {
 
 	@Override
 	public void run() {
+		final ConversionEvent event = new ConversionEvent();
+		event.begin();
 		try {
 			canHandleRelation();
 			String instanceIri= "";
@@ -78,29 +80,38 @@ public class RelationConverter implements Runnable {
 					sources = extractValuesIRIs(element, context, description, sourceName);
 					targets = extractValuesIRIs(element, context, description, targetName);
 				}
-				instance = context.builder.addRelationInstance(description, UmlUtils.getName(element), sources, targets);
+				instance = context.builder.addRelationInstance(description, context.names.getName(element), sources, targets);
+				context.members.add(instance);
 				instanceIri = instance.getIri();
 			}else if (!types.isEmpty()){
 				instanceIri = UmlUtils.getUMLIRI(element, context);
 				String ontIri = UmlUtils.getUMLONTIRI(element, context);
-				OMLUtil.addExtendsIfNeeded(description, ontIri, context.builder);
-				instance = OmlRead.getMemberByIri(description, instanceIri);
+				OMLUtil.addExtendsIfNeeded(description, ontIri, context);
+				instance = context.members.getMemberByIri(description, instanceIri);
+				if (instance == null) {
+					throw new UnsupportedOperationException("Skipping relation " + UMLUtil.getQualifiedText(element) + " whose UML instance " + instanceIri + " was not converted");
+				}
 			}
-			
-			assert (instance!=null && !instanceIri.isEmpty());
 	
 			int index = 0;
 			for (Member t : types) {
 				context.builder.addRelationTypeAssertion(description, instanceIri, t.getIri());
 				Stereotype st = stereotypes.get(index);
-				EObject stApp = element.getStereotypeApplication(st);
+				EObject stApp = context.stereotypeApplications.getStereotypeApplication(element, st);
 				EClass eClass = stApp.eClass();
 				ConceptInstanceConverter.createAttributes(description, context, instanceIri, st, stApp, eClass);
 				index++;
 			}
-			context.umlToOml.put(element, instance);
+			if (instance != null) {
+				context.references.put(element, instance);
+			}
 		}catch (UnsupportedOperationException exp) {
 			context.logger.warn(exp.getMessage());
+		} finally {
+			event.end();
+			if (event.shouldCommit()) {
+				event.commit("relation", element.eClass(), context.references.getIri(element));
+			}
 		}
 	}
 
@@ -119,13 +130,23 @@ public class RelationConverter implements Runnable {
 
 	private String getIRI(Property property) {
 		Type value = property.getType();
-		IdentifiedElement e = context.umlToOml.get(value);
-		OMLUtil.addExtendsIfNeeded(description, e.getOntology().getIri(), context.builder);
-		return e.getIri();
+		String iri = context.references.getIri(value);
+		String ontologyIri = context.references.getOntologyIri(value);
+		if (iri == null) {
+			Member member = context.getUnchangedMember(value);
+			if (member == null) {
+				throw new UnsupportedOperationException("Skipping relation " + UMLUtil.getQualifiedText(element) + " whose end " + 
+						(value != null ? UMLUtil.getQualifiedText(value) : property.getName()) + " was not converted");
+			}
+			iri = member.getIri();
+			ontologyIri = member.getOntology().getIri();
+		}
+		OMLUtil.addExtendsIfNeeded(description, ontologyIri, context);
+		return iri;
 	}
 
 	private static String getFeatureName(Element element, boolean source, ConversionContext context) {
-		RelationEntity entity = (RelationEntity) context.getUmlOmlElementByName(element.eClass().getName());
+		RelationEntity entity = (RelationEntity) context.umlTables.getType(element.eClass());
 		Member namedMember = null;
 		if (source) {
 			namedMember = OMLUtil.getSourceRelation(entity, context);
@@ -171,12 +192,15 @@ public class RelationConverter implements Runnable {
 		List<String> result = new ArrayList<>();
 		Collection<?> valueAsCollection = extractValues(element, featureName);
 		for (Object value : valueAsCollection) {
-			IdentifiedElement e = context.umlToOml.get(value);
-			if (e==null) {
-				e = context.getOmlElementForIgnoredElement((Element)value, description) ;
+			String iri = context.references.getIri(value);
+			String ontologyIri = context.references.getOntologyIri(value);
+			if (iri==null) {
+				IdentifiedElement e = context.getOmlElementForIgnoredElement((Element)value, description) ;
+				iri = e.getIri();
+				ontologyIri = e.getOntology().getIri();
 			}
-			result.add(e.getIri());
-			OMLUtil.addExtendsIfNeeded(description, e.getOntology().getIri(), context.builder);
+			result.add(iri);
+			OMLUtil.addExtendsIfNeeded(description, ontologyIri, context);
 		}
 		return result;
 	}
@@ -37,12 +37,13 @@ public class UMLConceptInstanceConverter {
 	
 	public static void convert(Element element, Member type,ConversionContext context ) {
 		// attributes in this case are the properties of the element.eClass
-		Description description = (Description) context.umlToOml.get(element.getNearestPackage());
-		ConceptInstance instance = context.builder.addConceptInstance(description, UmlUtils.getName(element));
+		Description description = context.descriptions.get(element.getNearestPackage());
+		ConceptInstance instance = context.builder.addConceptInstance(description, context.names.getName(element));
 		String instanceIRI = instance.getIri();
 		context.builder.addConceptTypeAssertion(description, instanceIRI, type.getIri());
-		context.umlToOml.put(element, instance);
-		OMLUtil.addUsesIfNeeded(description,  type.getOntology().getIri(), context.builder);	
+		context.references.put(element, instance);
+		context.members.add(instance);
+		OMLUtil.addUsesIfNeeded(description,  type.getOntology().getIri(), context);	
 		createAttributes(element, context, description, instanceIRI);
 		createReferences(element, context, description, instanceIRI);
 	}
@@ -18,8 +18,7 @@
 package io.opencaesar.papyrus2oml.converters;
 
 import io.opencaesar.oml.Description;
-import io.opencaesar.oml.IdentifiedElement;
-import io.opencaesar.oml.Ontology;
+import io.opencaesar.oml.Member;
 import io.opencaesar.papyrus2oml.util.OMLUtil;
 import io.opencaesar.papyrus2oml.util.ResourceConverter.ConversionContext;
 
@@ -30,13 +29,17 @@ public class UMLLinkConverter extends LinkConverter {
 	}
 	
 	protected void createLink(Object value) {
-		IdentifiedElement omlElement = getContext().umlToOml.get(value);
-		if (omlElement==null) {
-			return;
+		String targetIri = getContext().references.getIri(value);
+		String ontologyIri = getContext().references.getOntologyIri(value);
+		if (targetIri==null) {
+			Member member = getContext().getUnchangedMember(value);
+			if (member==null) {
+				return;
+			}
+			targetIri = member.getIri();
+			ontologyIri = member.getOntology().getIri();
 		}
-		Ontology ont = omlElement.getOntology();
-		String targetIri = omlElement.getIri();
-		OMLUtil.addExtendsIfNeeded(getDescription(), ont.getIri(), getContext().builder);
+		OMLUtil.addExtendsIfNeeded(getDescription(), ontologyIri, getContext());
 		getContext().builder.addLinkAssertion(getDescription(), getInstanceIri(), getRelationIri(), targetIri);
 	}
 
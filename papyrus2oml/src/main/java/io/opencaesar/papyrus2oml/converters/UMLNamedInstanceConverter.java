@@ -18,11 +18,12 @@
 package io.opencaesar.papyrus2oml.converters;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.resource.Resource;
-import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.uml2.uml.Element;
 import org.eclipse.uml2.uml.Package;
 import org.eclipse.uml2.uml.Stereotype;
@@ -41,60 +42,97 @@ import io.opencaesar.papyrus2oml.util.ResourceConverter.ConversionContext;
 import io.opencaesar.papyrus2oml.util.UmlUtils;
 
 public class UMLNamedInstanceConverter {
-	private static final String CONCEPT_POSTFIX = "_Concept";
-	private static final String RELATION_POSTFIX = "_Relation";
 	
+	/**
+	 * Converts an element whose metaclass has already been resolved to a conversion
+	 */
+	@FunctionalInterface
+	public interface Handler {
+		void convert(Element element, Description description, ConversionContext context);
+	}
+
 	static public void convert(Element element, ConversionContext context) throws IOException {
-		String name = UmlUtils.getName(element);
+		String name = context.names.getName(element);
 		if (name != null && !name.isEmpty()) {
-			Description description = (Description) context.umlToOml.get(element.getNearestPackage());
+			Description description = context.descriptions.get(element.getNearestPackage());
 			if (description == null) {
 				return;// parent package was not mapped
 			}
-			ResourceSet rs = description.eResource().getResourceSet();
-			Member type = context.getUmlOmlElementByName(element.eClass().getName());
-			if (type instanceof Concept) {
-				UMLConceptInstanceConverter.convert(element, type, context);
-			} else if (type instanceof RelationEntity) {
-				context.deferredRelations.add(new UMLRelationConverter(element,(RelationEntity) type, description, context));
-			} else if (type instanceof Aspect){
-				/// UML_DSL and stereotyped => relation
-				if (context.conversionType == ConversionType.uml_dsl && shouldCreateRelation(element, description,rs, context)) {
-					createRelationInstance(description, element, context);
-				} else {
-					createConceptInstance(element, context);
-				}
-			}else {
-				context.logger.warn("Did not convert: " + element);
-			}
+			Handler handler = context.umlHandlers.computeIfAbsent(element.eClass(), c -> createHandler(c, context));
+			handler.convert(element, description, context);
 		}else {
 			context.logger.warn("Did not convert: " + element);
 		}
 	}
 
-	private static void createConceptInstance(Element element, ConversionContext context) {
-		Concept conceptType = (Concept) context.getUmlOmlElementByName(element.eClass().getName() + CONCEPT_POSTFIX);
-		UMLConceptInstanceConverter.convert(element, conceptType, context);
+	private static Handler createHandler(EClass eClass, ConversionContext context) {
+		Member type = context.umlTables.getType(eClass);
+		if (type instanceof Concept) {
+			return (element, description, c) -> UMLConceptInstanceConverter.convert(element, type, c);
+		} else if (type instanceof RelationEntity) {
+			return (element, description, c) -> c.deferredRelations.add(new UMLRelationConverter(element, (RelationEntity) type, description, c));
+		} else if (type instanceof Aspect) {
+			Concept conceptType = (Concept) context.umlTables.getConceptType(eClass);
+			Handler createConceptInstance = (element, description, c) -> UMLConceptInstanceConverter.convert(element, conceptType, c);
+			if (context.conversionType == ConversionType.uml_dsl) {
+				/// UML_DSL and stereotyped => relation
+				RelationEntity relType = (RelationEntity) context.umlTables.getRelationType(eClass);
+				Handler createRelationInstance = (element, description, c) -> c.deferredRelations.add(new UMLRelationConverter(element, relType, description, c));
+				return (element, description, c) -> {
+					if (shouldCreateRelation(element, description, c)) {
+						createRelationInstance.convert(element, description, c);
+					} else {
+						createConceptInstance.convert(element, description, c);
+					}
+				};
+			}
+			return createConceptInstance;
+		}
+		return (element, description, c) -> c.logger.warn("Did not convert: " + element);
+	}
+
+	/**
+	 * The decision of whether elements with a given list of applied stereotypes are converted to relations, along with
+	 * the IRIs of the vocabularies that the decision needed (which are used by the description of each such element)
+	 */
+	public static final class StereotypeDecision {
+		private final String[] vocabularyIris;
+		private final boolean relation;
+
+		private StereotypeDecision(String[] vocabularyIris, boolean relation) {
+			this.vocabularyIris = vocabularyIris;
+			this.relation = relation;
+		}
 	}
 
-	private static void createRelationInstance(Description description, Element element, ConversionContext context) {
-		RelationEntity relType = (RelationEntity) context.getUmlOmlElementByName(element.eClass().getName() + RELATION_POSTFIX);
-		context.deferredRelations.add(new UMLRelationConverter(element, relType, description, context));
+	private static boolean shouldCreateRelation(Element element, Description description, ConversionContext context) {
+		List<Stereotype> stereotypes = context.stereotypeApplications.getAppliedStereotypes(element);
+		StereotypeDecision decision = context.stereotypeDecisions.get(stereotypes);
+		if (decision == null) {
+			decision = decide(stereotypes, description, context);
+			context.stereotypeDecisions.put(stereotypes, decision);
+		} else {
+			for (String iri : decision.vocabularyIris) {
+				OMLUtil.addUsesIfNeeded(description, iri, context);
+			}
+		}
+		return decision.relation;
 	}
 
-	private static boolean shouldCreateRelation(Element element, Description description, ResourceSet rs, ConversionContext context) {
+	private static StereotypeDecision decide(List<Stereotype> stereotypes, Description description, ConversionContext context) {
 		// check if there is an stereotype for association 
-		List<Stereotype> stereotypes = element.getAppliedStereotypes();
+		List<String> iris = new ArrayList<>(stereotypes.size());
 		for (Stereotype sterotype : stereotypes) {
 			Package package_ = sterotype.getNearestPackage();
-			Import i = OMLUtil.addUsesIfNeeded(description, UmlUtils.getIRI(package_), context.builder);
-			Member type = (Member) context.umlToOml.get(sterotype);
+			iris.add(UmlUtils.getIRI(package_));
+			Import i = OMLUtil.addUsesIfNeeded(description, UmlUtils.getIRI(package_), context);
+			Member type = context.stereotypeTypes.get(sterotype);
 			if (type == null) {
 				URI uri = OmlRead.getResolvedUri(i);
 				if (uri == null) {
 					throw new RuntimeException("Cannot resolve IRI '" + UmlUtils.getIRI(package_) + "'");
 				}
-				Resource r = rs.getResource(uri, true);
+				Resource r = context.members.getResource(uri);
 				Vocabulary vocabulary = (Vocabulary) OmlRead.getOntology(r);
 				if (vocabulary == null) {
 					throw new RuntimeException("Cannot load vocabylary '" + UmlUtils.getIRI(package_) + "'");
@@ -103,11 +141,12 @@ public class UMLNamedInstanceConverter {
 				if (type == null) {
 					throw new RuntimeException("Cannot find entity equivalent to '" + sterotype.getQualifiedName() + "'");
 				}
-				if (type instanceof RelationEntity) {
-					return true;
-				}
+				context.stereotypeTypes.put(sterotype, type);
+			}
+			if (type instanceof RelationEntity) {
+				return new StereotypeDecision(iris.toArray(new String[iris.size()]), true);
 			}
 		}
-		return false;
+		return new StereotypeDecision(iris.toArray(new String[iris.size()]), false);
 	}
 }
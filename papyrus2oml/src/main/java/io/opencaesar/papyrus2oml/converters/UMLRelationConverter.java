@@ -24,20 +24,18 @@ import java.util.List;
 import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.uml2.uml.Association;
 import org.eclipse.uml2.uml.Element;
-import org.eclipse.uml2.uml.NamedElement;
 import org.eclipse.uml2.uml.Package;
 import org.eclipse.uml2.uml.Type;
+import org.eclipse.uml2.uml.util.UMLUtil;
 
+import io.opencaesar.adapters.util.ConversionEvent;
 import io.opencaesar.oml.Description;
 import io.opencaesar.oml.IdentifiedElement;
-import io.opencaesar.oml.Member;
-import io.opencaesar.oml.Ontology;
 import io.opencaesar.oml.Relation;
 import io.opencaesar.oml.RelationEntity;
 import io.opencaesar.oml.RelationInstance;
 import io.opencaesar.papyrus2oml.util.OMLUtil;
 import io.opencaesar.papyrus2oml.util.ResourceConverter.ConversionContext;
-import io.opencaesar.papyrus2oml.util.UmlUtils;
 
 public class UMLRelationConverter implements Runnable {
 
@@ -55,7 +53,16 @@ public class UMLRelationConverter implements Runnable {
 
 	@Override
 	public void run() {
-		createInstance((RelationEntity) type,element,context,description);
+		final ConversionEvent event = new ConversionEvent();
+		event.begin();
+		try {
+			createInstance((RelationEntity) type,element,context,description);
+		} finally {
+			event.end();
+			if (event.shouldCommit()) {
+				event.commit("relation", element.eClass(), context.references.getIri(element));
+			}
+		}
 	}
 	
 	private static RelationInstance createInstance(RelationEntity type, Element element, ConversionContext context, Description description) {
@@ -65,51 +72,26 @@ public class UMLRelationConverter implements Runnable {
 			if (element instanceof Association) {
 				Association assoc = (Association) element;
 				Type source = assoc.getMemberEnds().get(0).getType();
-				IdentifiedElement e = context.umlToOml.get(source);
-				sources.add(e.getIri());
+				sources.add(getEndIri(element, source, context, description));
 			} else {
-				Relation sourceR = OMLUtil.getSourceRelation(entity, context);
-				while (sourceR == null && !entity.getOwnedSpecializations().isEmpty()) {
-					RelationEntity superEntity = entity.getOwnedSpecializations().stream()
-							.map(s -> s.getSpecializedTerm())
-							.filter(t -> t instanceof RelationEntity)
-							.map(t -> (RelationEntity) t)
-							.findFirst().orElse(null);
-					if (superEntity == null) {
-						break;
-					}
-					entity = superEntity;
-					sourceR = OMLUtil.getSourceRelation(entity, context);
-				}
+				Relation sourceR = context.umlTables.getResolvedSourceRelation(entity);
 				sources.addAll(convertElements(element, context, description, sourceR));
 			}
 			List<String> targets = new ArrayList<>();
 			if (element instanceof Association) {
 				Association assoc = (Association) element;
 				Type target = assoc.getMemberEnds().get(1).getType();
-				IdentifiedElement e = context.umlToOml.get(target);
-				targets.add(e.getIri());
+				targets.add(getEndIri(element, target, context, description));
 			} else {
-				Relation targetR = OMLUtil.getTargetRelation(entity, context);
-				while (targetR == null && !entity.getOwnedSpecializations().isEmpty()) {
-					RelationEntity superEntity = entity.getOwnedSpecializations().stream()
-							.map(s -> s.getSpecializedTerm())
-							.filter(t -> t instanceof RelationEntity)
-							.map(t -> (RelationEntity) t)
-							.findFirst().orElse(null);
-					if (superEntity == null) {
-						break;
-					}
-					entity = superEntity;
-					targetR = OMLUtil.getTargetRelation(entity, context);
-				}
+				Relation targetR = context.umlTables.getResolvedTargetRelation(entity);
 				targets = convertElements(element, context, description, targetR);
 			}
-			RelationInstance instance = context.builder.addRelationInstance(description,  UmlUtils.getName(element), sources, targets);
+			RelationInstance instance = context.builder.addRelationInstance(description,  context.names.getName(element), sources, targets);
 			context.builder.addRelationTypeAssertion(description, instance.getIri(), type.getIri());
 			UMLConceptInstanceConverter.createAttributes(element, context, description, instance.getIri());
 			UMLConceptInstanceConverter.createReferences(element, context, description, instance.getIri());
-			context.umlToOml.put(element, instance);
+			context.references.put(element, instance);
+			context.members.add(instance);
 			return instance;
 		} catch (UnsupportedOperationException exp) {
 			context.logger.warn(exp.getMessage());
@@ -117,6 +99,36 @@ public class UMLRelationConverter implements Runnable {
 		}
 	}
 
+	/**
+	 * @return the IRI of the member the given end of the given relation was converted to, which is looked up in the 
+	 * ontology of the end when it belongs to another model or to an ignored package (the description then extends it)
+	 * @throws UnsupportedOperationException if the end was not converted (e.g., its metaclass was not selected) or 
+	 * cannot be found, so the relation gets skipped
+	 */
+	private static String getEndIri(Element element, Object end, ConversionContext context, Description description) {
+		if (end instanceof Package) {
+			throw new UnsupportedOperationException("Can not handle relations with package end yet");
+		}
+		String iri = context.references.getIri(end);
+		String ontologyIri = context.references.getOntologyIri(end);
+		if (iri == null && end instanceof Element && context.isConvertedElsewhere((Element) end)) {
+			try {
+				IdentifiedElement e = context.getOmlElementForIgnoredElement((Element) end, description);
+				iri = e.getIri();
+				ontologyIri = e.getOntology().getIri();
+			} catch (RuntimeException e) {
+				throw new UnsupportedOperationException("Skipping relation " + UMLUtil.getQualifiedText(element) + " whose end " + 
+						UMLUtil.getQualifiedText((Element) end) + " cannot be found: " + e.getMessage());
+			}
+		}
+		if (iri == null) {
+			throw new UnsupportedOperationException("Skipping relation " + UMLUtil.getQualifiedText(element) + " whose end " + 
+					(end instanceof Element ? UMLUtil.getQualifiedText((Element) end) : String.valueOf(end)) + " was not converted");
+		}
+		OMLUtil.addExtendsIfNeeded(description, ontologyIri, context);
+		return iri;
+	}
+
 	private static List<String> convertElements(Element element, ConversionContext context, Description description, Relation relation) {
 		List<String> elements = new ArrayList<>();
 		if (relation != null) {
@@ -125,35 +137,10 @@ public class UMLRelationConverter implements Runnable {
 			Object values = element.eGet(f);
 			if (values instanceof Collection<?>) {
 				for (Object value : ((Collection<?>) values)) {
-					if (value instanceof Package) {
-						throw new UnsupportedOperationException("Can not handle relations with package end yet");
-					}
-					IdentifiedElement e = context.umlToOml.get(value);
-					if (e==null) {
-						e = context.getOmlElementForIgnoredElement((Element)value, description) ;
-						if (e==null) {
-							// should happen only if the element is a relation 
-							// just in case we have a relation with source relation
-							NamedElement sourceELment = (NamedElement)value;
-							Member srcType = context.getUmlOmlElementByName(sourceELment.eClass().getName());
-							createInstance((RelationEntity)srcType, sourceELment, context, description);
-							e = context.umlToOml.get(value);
-						}
-					}
-					elements.add(e.getIri());
-					Ontology ont = e.getOntology();
-					OMLUtil.addExtendsIfNeeded(description, ont.getIri(), context.builder);
+					elements.add(getEndIri(element, value, context, description));
 				}
 			} else {
-				if (values instanceof Package) {
-					throw new UnsupportedOperationException("Can not handle relations with package end yet");
-				}
-				IdentifiedElement e = context.umlToOml.get(values);
-				if (e==null) {
-					e = context.getOmlElementForIgnoredElement((Element)values, description) ;
-				}
-				elements.add(e.getIri());
-				OMLUtil.addExtendsIfNeeded(description, e.getOntology().getIri(), context.builder);
+				elements.add(getEndIri(element, values, context, description));
 			}
 		}
 		return elements;
@@ -0,0 +1,307 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.papyrus2oml.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import io.opencaesar.adapters.util.ConversionMetrics;
+import io.opencaesar.oml.util.OmlCatalog;
+import io.opencaesar.oml.util.OmlConstants;
+import io.opencaesar.oml.util.OmlRead;
+
+/**
+ * Resolves IRIs through an OML catalog with the catalog's rules compiled and the resolved URIs memoized.
+ * 
+ * The uri and rewriteURI entries of the catalog (and of its next catalogs) are compiled into a map and a prefix trie,
+ * so the longest matching rewrite rule is found in one pass over the IRI. An IRI that no compiled rule matches, or any
+ * IRI of a catalog with entries that are not compiled, is resolved by the {@link OmlCatalog} itself. Resolvers are 
+ * shared per catalog file and recompiled once any of the catalog files changed; only the most recently used ones are
+ * kept, so a long running process that goes through many catalogs does not retain them all.
+ */
+public class CatalogResolver {
+
+	static final int MAX_RESOLVERS = 8;
+
+	// the shared resolvers in access order (the least recently used one is evicted first)
+	private static final Map<URI, CatalogResolver> RESOLVERS = new LinkedHashMap<URI, CatalogResolver>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<URI, CatalogResolver> eldest) {
+			if (size() > MAX_RESOLVERS) {
+				BY_CATALOG.remove(eldest.getValue().catalog);
+				return true;
+			}
+			return false;
+		}
+	};
+	private static final Map<OmlCatalog, CatalogResolver> BY_CATALOG = new IdentityHashMap<>();
+
+	private final OmlCatalog catalog;
+	private final CompiledCatalog compiled;
+	private final Map<File, Long> timeStamps = new LinkedHashMap<>();
+	private final Map<String, URI> omlUris = new ConcurrentHashMap<>();
+	private final Map<String, URI> resolvedUris = new ConcurrentHashMap<>();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder nanos = new LongAdder();
+
+	private CatalogResolver(OmlCatalog catalog, URI catalogUri) throws IOException {
+		this.catalog = catalog;
+		this.compiled = catalogUri != null ? compile(catalogUri, timeStamps) : null;
+	}
+
+	/**
+	 * @return the resolver of the catalog with the given file URI (compiled again if any of its files changed)
+	 */
+	public static synchronized CatalogResolver get(URI catalogUri, Logger logger) throws IOException {
+		CatalogResolver resolver = RESOLVERS.get(catalogUri);
+		if (resolver != null && !resolver.isChanged()) {
+			return resolver;
+		}
+		if (resolver != null) {
+			logger.info("Catalog changed: " + catalogUri);
+			BY_CATALOG.remove(resolver.catalog);
+		}
+		resolver = new CatalogResolver(OmlCatalog.create(catalogUri), catalogUri);
+		RESOLVERS.put(catalogUri, resolver);
+		BY_CATALOG.put(resolver.catalog, resolver);
+		if (resolver.compiled == null) {
+			logger.info("Catalog has entries that are not compiled: " + catalogUri);
+		}
+		return resolver;
+	}
+
+	/**
+	 * @return the shared resolver of the given catalog, or a new one that only memoizes for its caller if the catalog 
+	 * was not created by a shared resolver
+	 */
+	public static synchronized CatalogResolver of(OmlCatalog catalog) {
+		CatalogResolver resolver = BY_CATALOG.get(catalog);
+		if (resolver == null) {
+			try {
+				resolver = new CatalogResolver(catalog, null);
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+		return resolver;
+	}
+
+	public OmlCatalog getCatalog() {
+		return catalog;
+	}
+
+	/**
+	 * @return the catalog files that were read when the resolver was compiled
+	 */
+	public Collection<File> getFiles() {
+		return Collections.unmodifiableSet(timeStamps.keySet());
+	}
+
+	/**
+	 * @return the URI of the OML file of the ontology with the given IRI (as given by {@link OmlCatalog#resolveURI(String)})
+	 */
+	public URI resolveOmlUri(String iri) throws IOException {
+		URI uri = omlUris.get(iri);
+		if (uri != null) {
+			hits.increment();
+			return uri;
+		}
+		final long start = System.nanoTime();
+		uri = URI.createURI(resolveURI(iri) + "." + OmlConstants.OML_EXTENSION);
+		omlUris.put(iri, uri);
+		misses.increment();
+		nanos.add(System.nanoTime() - start);
+		return uri;
+	}
+
+	/**
+	 * @return the URI of the existing OML file of the ontology with the given IRI, as resolved from the given resource
+	 * (as given by {@link OmlRead#getResolvedUri(Resource, URI)}), or null if there is none yet
+	 */
+	public URI getResolvedUri(Resource resource, String iri) {
+		// resources in the same folder resolve through the same catalog
+		final String key = resource.getURI().trimSegments(1) + " " + iri;
+		URI uri = resolvedUris.get(key);
+		if (uri != null) {
+			hits.increment();
+			return uri;
+		}
+		final long start = System.nanoTime();
+		uri = OmlRead.getResolvedUri(resource, URI.createURI(iri));
+		if (uri != null) {
+			// only found files are remembered, since a missing one may be saved later in the run
+			resolvedUris.put(key, uri);
+		}
+		misses.increment();
+		nanos.add(System.nanoTime() - start);
+		return uri;
+	}
+
+	/**
+	 * @return the given IRI rewritten by the catalog rules
+	 */
+	public String resolveURI(String iri) throws IOException {
+		String resolved = compiled != null ? compiled.resolve(iri) : null;
+		return resolved != null ? resolved : catalog.resolveURI(iri);
+	}
+
+	/**
+	 * Adds the resolutions since the last report to the given metrics
+	 */
+	public void report(ConversionMetrics metrics) {
+		metrics.cache("catalog resolutions", hits.sumThenReset(), misses.sumThenReset());
+		metrics.count("catalog resolution micros", nanos.sumThenReset() / 1000);
+	}
+
+	private boolean isChanged() {
+		for (Map.Entry<File, Long> entry : timeStamps.entrySet()) {
+			if (entry.getKey().lastModified() != entry.getValue()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the compiled catalog with the given file URI, or null if it has entries that are not compiled
+	 */
+	private static CompiledCatalog compile(URI catalogUri, Map<File, Long> timeStamps) throws IOException {
+		final File file = new File(catalogUri.toFileString());
+		if (timeStamps.containsKey(file)) {
+			return new CompiledCatalog(); // a catalog that was already visited adds no rules
+		}
+		timeStamps.put(file, file.lastModified());
+		final Document document;
+		try {
+			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+			factory.setNamespaceAware(true);
+			document = factory.newDocumentBuilder().parse(file);
+		} catch (ParserConfigurationException | SAXException e) {
+			throw new IOException("Cannot parse catalog " + file, e);
+		}
+		final CompiledCatalog compiled = new CompiledCatalog();
+		final NodeList entries = document.getDocumentElement().getChildNodes();
+		for (int i = 0; i < entries.getLength(); i++) {
+			Node node = entries.item(i);
+			if (!(node instanceof Element)) {
+				continue;
+			}
+			Element entry = (Element) node;
+			if (entry.hasAttributeNS("http://www.w3.org/XML/1998/namespace", "base")) {
+				return null;
+			}
+			String name = entry.getLocalName();
+			if ("rewriteURI".equals(name)) {
+				compiled.addRewrite(entry.getAttribute("uriStartString"), resolve(entry.getAttribute("rewritePrefix"), catalogUri));
+			} else if ("uri".equals(name)) {
+				compiled.exact.putIfAbsent(entry.getAttribute("name"), resolve(entry.getAttribute("uri"), catalogUri));
+			} else if ("nextCatalog".equals(name)) {
+				URI nextUri = URI.createURI(resolve(entry.getAttribute("catalog"), catalogUri));
+				CompiledCatalog next = nextUri.isFile() ? compile(nextUri, timeStamps) : null;
+				if (next == null) {
+					return null;
+				}
+				compiled.next.add(next);
+			} else {
+				return null; // e.g., delegateURI, system or group entries
+			}
+		}
+		return compiled;
+	}
+
+	private static String resolve(String reference, URI base) {
+		URI uri = URI.createURI(reference);
+		return (uri.isRelative() ? uri.resolve(base) : uri).toString();
+	}
+
+	/**
+	 * The uri and rewriteURI entries of a catalog, which are tried before the entries of its next catalogs
+	 */
+	private static class CompiledCatalog {
+		private final Map<String, String> exact = new HashMap<>();
+		private final TrieNode rewrites = new TrieNode();
+		private final List<CompiledCatalog> next = new ArrayList<>();
+
+		private void addRewrite(String start, String prefix) {
+			TrieNode node = rewrites;
+			for (int i = 0; i < start.length(); i++) {
+				node = node.children.computeIfAbsent(start.charAt(i), c -> new TrieNode());
+			}
+			if (node.prefix == null) {
+				node.prefix = prefix;
+			}
+		}
+
+		private String resolve(String iri) {
+			String resolved = exact.get(iri);
+			if (resolved != null) {
+				return resolved;
+			}
+			// the longest matching start string wins
+			TrieNode node = rewrites;
+			String prefix = node.prefix;
+			int length = 0;
+			for (int i = 0; i < iri.length() && node != null; i++) {
+				node = node.children.get(iri.charAt(i));
+				if (node != null && node.prefix != null) {
+					prefix = node.prefix;
+					length = i + 1;
+				}
+			}
+			if (prefix != null) {
+				return prefix + iri.substring(length);
+			}
+			for (CompiledCatalog catalog : next) {
+				resolved = catalog.resolve(iri);
+				if (resolved != null) {
+					return resolved;
+				}
+			}
+			return null;
+		}
+	}
+
+	private static class TrieNode {
+		private final Map<Character, TrieNode> children = new HashMap<>(4);
+		private String prefix;
+	}
+}
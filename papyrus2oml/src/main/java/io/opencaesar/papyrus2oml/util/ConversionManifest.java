@@ -0,0 +1,112 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.papyrus2oml.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+
+/**
+ * The fingerprints of the ontologies produced by a previous run, stored next to the output catalog.
+ * 
+ * The fingerprints of a previous run are only trusted if it used the same header (tool version, 
+ * conversion options and catalog files); otherwise every ontology is considered changed. The 
+ * manifest is written to a temporary file that is then renamed over the previous one, so an 
+ * interrupted run never leaves a truncated manifest behind.
+ */
+public class ConversionManifest {
+
+	public static final String FILE_NAME = ".papyrus2oml.manifest";
+	
+	private static final String HEADER = "@header";
+
+	private final File file;
+	private final String header;
+	private final Properties previous = new Properties();
+	private final Properties current = new Properties();
+
+	private ConversionManifest(File file, String header) {
+		this.file = file;
+		this.header = header;
+		current.setProperty(HEADER, header);
+	}
+
+	public static ConversionManifest load(File catalogFile, String header) throws IOException {
+		ConversionManifest manifest = new ConversionManifest(new File(catalogFile.getAbsoluteFile().getParentFile(), FILE_NAME), header);
+		if (manifest.file.exists()) {
+			try (InputStream in = new FileInputStream(manifest.file)) {
+				manifest.previous.load(in);
+			}
+			if (!header.equals(manifest.previous.getProperty(HEADER))) {
+				manifest.previous.clear();
+			}
+		}
+		return manifest;
+	}
+
+	/**
+	 * @return whether the given ontology resource has the same fingerprint as in the previous run and is still on disk
+	 */
+	public boolean isUnchanged(String iri, String fingerprint, Resource resource) {
+		return isUnchanged(iri, fingerprint, resource.getURI());
+	}
+
+	/**
+	 * @return whether the ontology with the given IRI has the same fingerprint as in the previous run and is still on 
+	 * disk at the given URI
+	 */
+	public boolean isUnchanged(String iri, String fingerprint, URI uri) {
+		if (fingerprint == null || !fingerprint.equals(previous.getProperty(iri))) {
+			return false;
+		}
+		return uri.isFile() && new File(uri.toFileString()).exists();
+	}
+
+	public void put(String iri, String fingerprint) {
+		if (fingerprint != null) {
+			current.setProperty(iri, fingerprint);
+		}
+	}
+
+	public void save() throws IOException {
+		Path target = file.toPath().toAbsolutePath();
+		Path temp = Files.createTempFile(target.getParent(), "." + target.getFileName(), ".tmp");
+		try {
+			try (OutputStream out = Files.newOutputStream(temp)) {
+				current.store(out, "papyrus2oml fingerprints");
+			}
+			try {
+				Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+}
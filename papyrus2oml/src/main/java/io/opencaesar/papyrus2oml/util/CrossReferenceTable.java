@@ -0,0 +1,206 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.papyrus2oml.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.opencaesar.oml.Member;
+import io.opencaesar.oml.Ontology;
+
+/**
+ * Maps converted input elements to the IRIs of their OML members without holding on to the members.
+ * 
+ * Elements are keyed by identity in an open-addressing table. Each entry keeps the member's name 
+ * relative to its ontology's namespace and the id of that ontology, whose IRI and namespace are
+ * stored once. 
+ */
+public class CrossReferenceTable {
+
+	private static final int MAX_CAPACITY = 1 << 30;
+
+	private Object[] keys;
+	private String[] names;
+	// the ontology id of each entry (or its complement when the name is a full IRI)
+	private int[] ontologies;
+	private int size;
+
+	private final List<String> ontologyIris = new ArrayList<>();
+	private final List<String> namespaces = new ArrayList<>();
+	private final Map<String, Integer> ontologyIds = new HashMap<>();
+
+	public CrossReferenceTable(int expectedSize) {
+		allocate(capacityFor(expectedSize));
+	}
+
+	/**
+	 * Grows the table (if needed) so that it holds the given number of entries without rehashing
+	 */
+	public void ensureCapacity(int expectedSize) {
+		int capacity = capacityFor(expectedSize);
+		if (capacity > keys.length) {
+			rehash(capacity);
+		}
+	}
+
+	public void put(Object element, Member member) {
+		final Ontology ontology = member.getOntology();
+		put(element, member.getIri(), ontology.getIri(), ontology.getNamespace());
+	}
+
+	/**
+	 * Maps the given element to the given member IRI of the ontology with the given IRI and namespace
+	 */
+	public void put(Object element, String iri, String ontologyIri, String namespace) {
+		int id = ontologyIds.computeIfAbsent(ontologyIri, k -> {
+			ontologyIris.add(k);
+			namespaces.add(namespace);
+			return ontologyIris.size() - 1;
+		});
+		String name;
+		if (iri.startsWith(namespaces.get(id))) {
+			name = iri.substring(namespaces.get(id).length());
+		} else {
+			name = iri;
+			id = ~id;
+		}
+		if ((size + 1) * 2 > keys.length) {
+			rehash(keys.length << 1);
+		}
+		int index = indexOf(element);
+		if (keys[index] == null) {
+			keys[index] = element;
+			size++;
+		}
+		names[index] = name;
+		ontologies[index] = id;
+	}
+
+	/**
+	 * Adds the entries of the given table (e.g., of a conversion that ran on another thread)
+	 */
+	public void putAll(CrossReferenceTable other) {
+		ensureCapacity(size + other.size);
+		for (int i = 0; i < other.keys.length; i++) {
+			if (other.keys[i] != null) {
+				int id = other.ontologies[i];
+				int ontology = id >= 0 ? id : ~id;
+				String iri = id >= 0 ? other.namespaces.get(id) + other.names[i] : other.names[i];
+				put(other.keys[i], iri, other.ontologyIris.get(ontology), other.namespaces.get(ontology));
+			}
+		}
+	}
+
+	public boolean contains(Object element) {
+		return element != null && keys[indexOf(element)] != null;
+	}
+
+	/**
+	 * @return the IRI of the member the given element was converted to (or null if it was not converted)
+	 */
+	public String getIri(Object element) {
+		if (element == null) {
+			return null;
+		}
+		int index = indexOf(element);
+		if (keys[index] == null) {
+			return null;
+		}
+		int id = ontologies[index];
+		return id >= 0 ? namespaces.get(id) + names[index] : names[index];
+	}
+
+	/**
+	 * @return the IRI of the ontology of the member the given element was converted to (or null if it was not converted)
+	 */
+	public String getOntologyIri(Object element) {
+		if (element == null) {
+			return null;
+		}
+		int index = indexOf(element);
+		if (keys[index] == null) {
+			return null;
+		}
+		int id = ontologies[index];
+		return ontologyIris.get(id >= 0 ? id : ~id);
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public void clear() {
+		Arrays.fill(keys, null);
+		Arrays.fill(names, null);
+		size = 0;
+		ontologyIris.clear();
+		namespaces.clear();
+		ontologyIds.clear();
+	}
+
+	private int indexOf(Object element) {
+		final int mask = keys.length - 1;
+		int h = System.identityHashCode(element);
+		int index = (h ^ (h >>> 16)) & mask;
+		while (keys[index] != null && keys[index] != element) {
+			index = (index + 1) & mask;
+		}
+		return index;
+	}
+
+	private void allocate(int capacity) {
+		keys = new Object[capacity];
+		names = new String[capacity];
+		ontologies = new int[capacity];
+	}
+
+	private void rehash(int capacity) {
+		if (capacity > MAX_CAPACITY) {
+			throw new IllegalStateException("Cross reference table is full");
+		}
+		final Object[] oldKeys = keys;
+		final String[] oldNames = names;
+		final int[] oldOntologies = ontologies;
+		allocate(capacity);
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != null) {
+				int index = indexOf(oldKeys[i]);
+				keys[index] = oldKeys[i];
+				names[index] = oldNames[i];
+				ontologies[index] = oldOntologies[i];
+			}
+		}
+	}
+
+	// keeps the table at most half full
+	private static int capacityFor(int expectedSize) {
+		int capacity = 16;
+		while (capacity < MAX_CAPACITY && capacity < expectedSize * 2L) {
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d references to %d ontologies (capacity %d)", size, ontologyIris.size(), keys.length);
+	}
+}
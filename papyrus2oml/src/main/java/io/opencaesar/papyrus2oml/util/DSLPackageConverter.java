@@ -28,6 +28,7 @@ import org.eclipse.uml2.uml.Package;
 import org.eclipse.uml2.uml.Profile;
 import org.eclipse.uml2.uml.ProfileApplication;
 
+import io.opencaesar.adapters.util.ConversionEvent;
 import io.opencaesar.oml.util.OmlCatalog;
 import io.opencaesar.oml.util.OmlBuilder;
 import io.opencaesar.papyrus2oml.ConversionType;
@@ -41,6 +42,7 @@ public class DSLPackageConverter extends ResourceConverter {
 			OmlBuilder builder, ResourceSet rs, ConversionType conversionType, Logger logger) {
 		super(new ConversionContext(ignoredIriPrefixes, catalog, builder, rs,conversionType, logger));
 		context.rootPackage = rootPackage;
+		context.stereotypeApplications = StereotypeApplicationIndex.get(rootPackage.eResource());
 		context.DSL =true;
 		logger.info("DLS converter in : " + (conversionType==ConversionType.dsl? " DSL mode" : "UML-DSL model"));
 		if (conversionType==ConversionType.uml_dsl) {
@@ -50,12 +52,15 @@ public class DSLPackageConverter extends ResourceConverter {
 
 	@Override
 	public boolean shouldBeIgnored(EObject eObject) {
-		if (eObject instanceof Package) {
-			Package pkg = (Package) eObject;
-			String iri = UmlUtils.getIRI(pkg);
-			if (OMLUtil.shouldIgnoreIri(context.ignoredIriPrefixes, iri)) {
-				return true;
-			}
+		if (eObject instanceof Package && context.shouldIgnorePackage((Package) eObject)) {
+			return true;
+		}
+		if (eObject instanceof ProfileApplication) {
+			// the profile applications contribute to the bundle
+			return !context.convertsBundle;
+		}
+		if (context.isOwnedBySkippedPackage(eObject)) {
+			return true;
 		}
 		return !(eObject instanceof Element);
 	}
@@ -63,22 +68,30 @@ public class DSLPackageConverter extends ResourceConverter {
 	@Override
 	public void finish() {
 		context.logger.info("Reations Conversion: ");
-		context.deferredRelations.forEach(r -> r.run());
-		context.deferredLinks.forEach(l -> l.run());
+		runDeferred();
 	}
 
 	@Override
 	public void convertEObject(EObject eObject) throws IOException {
-		if (eObject == context.rootPackage) {
-			PackageConverter.convertRootPackage(context.rootPackage,context.postFix, context);
-		} else if (eObject instanceof Package) {
-			PackageConverter.convertPackage((Package) eObject,context.postFix, context);
-		} else if (eObject instanceof ProfileApplication) {
-			ProfileApplicationConverter.convert((ProfileApplication) eObject, context);
-		} else if (eObject instanceof Element) {
-			NamedInstanceConverter.convert((Element) eObject, context);
-		} else {
-			context.logger.warn("Not Converted : " + eObject.eClass().getName());
+		final ConversionEvent event = new ConversionEvent();
+		event.begin();
+		try {
+			if (eObject == context.rootPackage) {
+				PackageConverter.convertRootPackage(context.rootPackage,context.postFix, context);
+			} else if (eObject instanceof Package) {
+				PackageConverter.convertPackage((Package) eObject,context.postFix, context);
+			} else if (eObject instanceof ProfileApplication) {
+				ProfileApplicationConverter.convert((ProfileApplication) eObject, context);
+			} else if (eObject instanceof Element) {
+				NamedInstanceConverter.convert((Element) eObject, context);
+			} else {
+				context.logger.warn("Not Converted : " + eObject.eClass().getName());
+			}
+		} finally {
+			event.end();
+			if (event.shouldCommit()) {
+				event.commit("convert", eObject.eClass(), context.getConvertedIri(eObject));
+			}
 		}
 	}
 }
\ No newline at end of file
@@ -0,0 +1,103 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.papyrus2oml.util;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import io.opencaesar.oml.Description;
+import io.opencaesar.oml.DescriptionExtension;
+import io.opencaesar.oml.DescriptionUsage;
+import io.opencaesar.oml.Import;
+import io.opencaesar.oml.util.OmlBuilder;
+
+/**
+ * An index of the usage and extension imports of each description, keyed by their IRI.
+ * 
+ * A description is indexed from its owned imports the first time it is seen, after which 
+ * the index is kept up to date by adding imports through it.
+ */
+public class ImportIndex {
+
+	private final Map<Description, Map<String, DescriptionUsage>> usages = new IdentityHashMap<>();
+	private final Map<Description, Map<String, DescriptionExtension>> extensions = new IdentityHashMap<>();
+	private long avoided;
+
+	public DescriptionUsage addUsesIfNeeded(Description description, String iri, OmlBuilder builder) {
+		Map<String, DescriptionUsage> imports = usages.computeIfAbsent(description, d -> index(d, DescriptionUsage.class));
+		DescriptionUsage usage = imports.get(iri);
+		if (usage != null) {
+			avoided++;
+			return usage;
+		}
+		usage = builder.addDescriptionUsage(description, iri, null);
+		imports.put(iri, usage);
+		return usage;
+	}
+
+	public DescriptionExtension addExtendsIfNeeded(Description description, String iri, OmlBuilder builder) {
+		if (description.getIri().equals(iri)) {
+			return null;
+		}
+		Map<String, DescriptionExtension> imports = extensions.computeIfAbsent(description, d -> index(d, DescriptionExtension.class));
+		DescriptionExtension extension = imports.get(iri);
+		if (extension != null) {
+			avoided++;
+			return extension;
+		}
+		extension = builder.addDescriptionExtension(description, iri, null);
+		imports.put(iri, extension);
+		return extension;
+	}
+
+	private static <T extends Import> Map<String, T> index(Description description, Class<T> kind) {
+		Map<String, T> imports = new HashMap<>();
+		for (Import i : description.getOwnedImports()) {
+			if (kind.isInstance(i)) {
+				imports.putIfAbsent(i.getUri(), kind.cast(i));
+			}
+		}
+		return imports;
+	}
+
+	/**
+	 * Drops the imports of the given description (once it is saved)
+	 */
+	public void remove(Description description) {
+		usages.remove(description);
+		extensions.remove(description);
+	}
+
+	public void clear() {
+		usages.clear();
+		extensions.clear();
+	}
+
+	/**
+	 * @return the number of imports that were found in the index instead of being added again
+	 */
+	public long getAvoided() {
+		return avoided;
+	}
+	
+	@Override
+	public String toString() {
+		return avoided + " duplicate imports avoided";
+	}
+}
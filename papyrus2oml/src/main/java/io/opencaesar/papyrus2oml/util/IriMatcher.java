@@ -0,0 +1,112 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.papyrus2oml.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Matches IRIs against a set of ignore patterns compiled once.
+ * 
+ * A plain pattern is an IRI prefix; all of them are compiled into one character trie, so an IRI is matched against 
+ * all the prefixes in a single pass over it. A pattern starting with "glob:" or "regex:" must match the whole IRI, 
+ * where a glob's '*' matches within a path segment, '**' matches across segments and '?' matches one character.
+ */
+public class IriMatcher {
+
+	public static final IriMatcher NONE = new IriMatcher(null);
+
+	private static final String GLOB = "glob:";
+	private static final String REGEX = "regex:";
+
+	private final TrieNode prefixes = new TrieNode();
+	private final List<Pattern> patterns = new ArrayList<>();
+	private final boolean empty;
+
+	public IriMatcher(List<String> ignoredIriPatterns) {
+		if (ignoredIriPatterns != null) {
+			for (String pattern : ignoredIriPatterns) {
+				if (pattern.startsWith(GLOB)) {
+					patterns.add(Pattern.compile(toRegex(pattern.substring(GLOB.length()))));
+				} else if (pattern.startsWith(REGEX)) {
+					patterns.add(Pattern.compile(pattern.substring(REGEX.length())));
+				} else {
+					addPrefix(pattern);
+				}
+			}
+		}
+		empty = !prefixes.terminal && prefixes.children.isEmpty() && patterns.isEmpty();
+	}
+
+	public boolean matches(String iri) {
+		if (empty || iri == null) {
+			return false;
+		}
+		TrieNode node = prefixes;
+		for (int i = 0; !node.terminal; i++) {
+			if (i == iri.length() || (node = node.children.get(iri.charAt(i))) == null) {
+				break;
+			}
+		}
+		if (node != null && node.terminal) {
+			return true;
+		}
+		for (Pattern pattern : patterns) {
+			if (pattern.matcher(iri).matches()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void addPrefix(String prefix) {
+		TrieNode node = prefixes;
+		for (int i = 0; i < prefix.length(); i++) {
+			node = node.children.computeIfAbsent(prefix.charAt(i), c -> new TrieNode());
+		}
+		node.terminal = true;
+	}
+
+	private static String toRegex(String glob) {
+		StringBuilder regex = new StringBuilder();
+		for (int i = 0; i < glob.length(); i++) {
+			char c = glob.charAt(i);
+			if (c == '*' && i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+				regex.append(".*");
+				i++;
+			} else if (c == '*') {
+				regex.append("[^/#]*");
+			} else if (c == '?') {
+				regex.append("[^/#]");
+			} else if ("\\.[]{}()+-^$|".indexOf(c) >= 0) {
+				regex.append('\\').append(c);
+			} else {
+				regex.append(c);
+			}
+		}
+		return regex.toString();
+	}
+
+	private static class TrieNode {
+		private final Map<Character, TrieNode> children = new HashMap<>(4);
+		private boolean terminal;
+	}
+}
@@ -0,0 +1,204 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.papyrus2oml.util;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+import io.opencaesar.adapters.util.ConversionMetrics;
+import io.opencaesar.oml.Member;
+import io.opencaesar.oml.Ontology;
+import io.opencaesar.oml.util.OmlRead;
+
+/**
+ * A resource set wide index of members by IRI.
+ * 
+ * The index is filled incrementally: a resource is indexed as a whole the first time one of
+ * its members is looked up, and members created during the conversion are added as they are
+ * created. A lookup that misses the index falls back to {@link OmlRead}.
+ * 
+ * The members are held weakly (their resources keep them), and the index is cleared once a
+ * conversion is finished, so it does not keep the members of a run alive.
+ * 
+ * The index is locked on its resource set, like the {@link SynchronizedOmlBuilder}, so the conversions
+ * of a parallel run can look up (and load) ontologies while others build theirs.
+ */
+public class MemberIndex extends AdapterImpl {
+
+	private final ResourceSet resourceSet;
+	private final Map<String, WeakReference<Member>> members = new HashMap<>();
+	private final Set<Resource> indexed = Collections.newSetFromMap(new IdentityHashMap<>());
+	private long hits;
+	private long misses;
+	private long reportedHits;
+	private long reportedMisses;
+
+	public static MemberIndex get(ResourceSet resourceSet) {
+		MemberIndex index = (MemberIndex) EcoreUtil.getAdapter(resourceSet.eAdapters(), MemberIndex.class);
+		if (index == null) {
+			index = new MemberIndex(resourceSet);
+			resourceSet.eAdapters().add(index);
+		}
+		return index;
+	}
+
+	private MemberIndex(ResourceSet resourceSet) {
+		this.resourceSet = resourceSet;
+	}
+
+	@Override
+	public boolean isAdapterForType(Object type) {
+		return type == MemberIndex.class;
+	}
+
+	public Member getMemberByIri(ResourceSet resourceSet, String iri) {
+		synchronized (this.resourceSet) {
+			Member member = get(iri);
+			if (member != null) {
+				hits++;
+				return member;
+			}
+			misses++;
+			member = OmlRead.getMemberByIri(resourceSet, iri);
+			return found(iri, member);
+		}
+	}
+
+	public Member getMemberByIri(Ontology ontology, String iri) {
+		synchronized (resourceSet) {
+			Member member = get(iri);
+			if (member != null) {
+				hits++;
+				return member;
+			}
+			misses++;
+			member = OmlRead.getMemberByIri(ontology, iri);
+			return found(iri, member);
+		}
+	}
+
+	/**
+	 * @return the resource with the given URI in the resource set of the index, loaded if needed
+	 */
+	public Resource getResource(URI uri) {
+		synchronized (resourceSet) {
+			return resourceSet.getResource(uri, true);
+		}
+	}
+
+	private Member get(String iri) {
+		WeakReference<Member> reference = members.get(iri);
+		return reference != null ? reference.get() : null;
+	}
+
+	private Member found(String iri, Member member) {
+		if (member != null) {
+			members.put(iri, new WeakReference<>(member));
+			index(member.eResource());
+		}
+		return member;
+	}
+
+	public void add(Member member) {
+		synchronized (resourceSet) {
+			members.put(member.getIri(), new WeakReference<>(member));
+		}
+	}
+
+	public void index(Resource resource) {
+		synchronized (resourceSet) {
+			if (resource != null && indexed.add(resource)) {
+				TreeIterator<EObject> i = resource.getAllContents();
+				while (i.hasNext()) {
+					EObject eObject = i.next();
+					if (eObject instanceof Member) {
+						Member member = (Member) eObject;
+						if (get(member.getIri()) == null) {
+							members.put(member.getIri(), new WeakReference<>(member));
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Evicts the members of the given resource (before it gets unloaded)
+	 */
+	public void remove(Resource resource) {
+		synchronized (resourceSet) {
+			if (resource != null) {
+				indexed.remove(resource);
+				TreeIterator<EObject> i = resource.getAllContents();
+				while (i.hasNext()) {
+					EObject eObject = i.next();
+					if (eObject instanceof Member) {
+						String iri = ((Member)eObject).getIri();
+						if (get(iri) == eObject) {
+							members.remove(iri);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Drops all the members and indexed resources (once a conversion is finished)
+	 */
+	public void clear() {
+		synchronized (resourceSet) {
+			members.clear();
+			indexed.clear();
+		}
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Adds the lookups since the last report to the given metrics (so the converters sharing the index count them once)
+	 */
+	public void report(ConversionMetrics metrics) {
+		metrics.cache("members", hits - reportedHits, misses - reportedMisses);
+		reportedHits = hits;
+		reportedMisses = misses;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d members from %d resources, %d hits, %d misses", members.size(), indexed.size(), hits, misses);
+	}
+}
@@ -0,0 +1,180 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.papyrus2oml.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.uml2.uml.UMLPackage;
+
+/**
+ * Immutable tables of the UML metaclasses whose instances the UML conversion visits, precomputed once from the 
+ * UML vocabulary.
+ * 
+ * A metaclass is converted if the vocabulary maps it (and it is selected, when the conversion is restricted to some 
+ * metaclasses and their subclasses). A subtree is visited only if its root metaclass is converted, is a package, or
+ * can contain (through any containment, transitively) an instance of such a metaclass; every other subtree (e.g., 
+ * of value specifications or comments when they are not mapped) is pruned as a whole. Metaclasses of other 
+ * metamodels are always visited, and selected if they specialize a selected UML metaclass.
+ */
+public class MetaclassPruningTable {
+
+	private final boolean restricted;
+	private final Set<EClass> selected;
+	private final Set<EClass> converted;
+	private final Set<EClass> visited;
+
+	/**
+	 * @param umlTables the tables of the UML vocabulary
+	 * @param metaclasses the metaclasses to restrict the conversion to (or null to convert all the mapped ones)
+	 */
+	public MetaclassPruningTable(UmlVocabularyTables umlTables, Collection<EClass> metaclasses) {
+		final List<EClass> eClasses = new ArrayList<>();
+		for (EClassifier classifier : UMLPackage.eINSTANCE.getEClassifiers()) {
+			if (classifier instanceof EClass) {
+				eClasses.add((EClass) classifier);
+			}
+		}
+		
+		// the concrete subclasses of each metaclass (including itself)
+		final Map<EClass, List<EClass>> subclasses = new IdentityHashMap<>();
+		for (EClass eClass : eClasses) {
+			if (!eClass.isAbstract()) {
+				subclasses.computeIfAbsent(eClass, c -> new ArrayList<>()).add(eClass);
+				for (EClass superClass : eClass.getEAllSuperTypes()) {
+					subclasses.computeIfAbsent(superClass, c -> new ArrayList<>()).add(eClass);
+				}
+			}
+		}
+
+		final Set<EClass> selected = newSet();
+		final Set<EClass> converted = newSet();
+		final Set<EClass> visited = newSet();
+		for (EClass eClass : eClasses) {
+			if (metaclasses == null || metaclasses.stream().anyMatch(m -> m.isSuperTypeOf(eClass))) {
+				selected.add(eClass);
+			}
+			if (selected.contains(eClass) && umlTables.getType(eClass) != null && !isNeverConverted(eClass)) {
+				converted.add(eClass);
+			}
+			if (converted.contains(eClass) || UMLPackage.Literals.PACKAGE.isSuperTypeOf(eClass)) {
+				visited.add(eClass);
+			}
+		}
+
+		// visit the metaclasses that can contain visited ones (until no more are found)
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (EClass eClass : eClasses) {
+				if (!visited.contains(eClass) && canContain(eClass, visited, subclasses)) {
+					visited.add(eClass);
+					changed = true;
+				}
+			}
+		}
+
+		this.restricted = metaclasses != null;
+		this.selected = Collections.unmodifiableSet(selected);
+		this.converted = Collections.unmodifiableSet(converted);
+		this.visited = Collections.unmodifiableSet(visited);
+	}
+
+	private static Set<EClass> newSet() {
+		return Collections.newSetFromMap(new IdentityHashMap<>());
+	}
+
+	private static boolean isNeverConverted(EClass eClass) {
+		// these are handled as imports when an external element is referenced
+		return UMLPackage.Literals.PACKAGE_IMPORT.isSuperTypeOf(eClass) || UMLPackage.Literals.ELEMENT_IMPORT.isSuperTypeOf(eClass);
+	}
+
+	private static boolean canContain(EClass eClass, Set<EClass> visited, Map<EClass, List<EClass>> subclasses) {
+		for (EReference containment : eClass.getEAllContainments()) {
+			for (EClass contained : subclasses.getOrDefault(containment.getEReferenceType(), Collections.emptyList())) {
+				if (visited.contains(contained)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the UML metaclasses with the given names (or null if no names are given)
+	 * @throws IllegalArgumentException if a name is not of a UML metaclass
+	 */
+	public static List<EClass> getMetaclasses(Collection<String> names) {
+		if (names == null || names.isEmpty()) {
+			return null;
+		}
+		final Map<String, EClass> byName = new HashMap<>();
+		for (EClassifier classifier : UMLPackage.eINSTANCE.getEClassifiers()) {
+			if (classifier instanceof EClass) {
+				byName.put(classifier.getName(), (EClass) classifier);
+			}
+		}
+		final List<EClass> metaclasses = new ArrayList<>();
+		for (String name : names) {
+			EClass eClass = byName.get(name);
+			if (eClass == null) {
+				throw new IllegalArgumentException(name + " is not a UML metaclass");
+			}
+			metaclasses.add(eClass);
+		}
+		return metaclasses;
+	}
+
+	/**
+	 * @return whether instances of the given metaclass are selected for conversion
+	 */
+	public boolean isSelected(EClass eClass) {
+		if (eClass.getEPackage() != UMLPackage.eINSTANCE) {
+			return !restricted || eClass.getEAllSuperTypes().stream().anyMatch(selected::contains);
+		}
+		return selected.contains(eClass);
+	}
+
+	/**
+	 * @return whether instances of the given metaclass are converted
+	 */
+	public boolean isConverted(EClass eClass) {
+		return converted.contains(eClass);
+	}
+
+	/**
+	 * @return whether the subtrees of instances of the given metaclass need to be visited
+	 */
+	public boolean isVisited(EClass eClass) {
+		return eClass.getEPackage() != UMLPackage.eINSTANCE || visited.contains(eClass);
+	}
+
+	@Override
+	public String toString() {
+		return converted.size() + " converted and " + visited.size() + " visited metaclass(es)";
+	}
+}
@@ -0,0 +1,270 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.papyrus2oml.util;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.URI;
+
+/**
+ * A batch of input models converted in one run.
+ * 
+ * A model that refers to elements of another model of the batch depends on it, since those elements are converted 
+ * by looking up the saved output of the other model. The references are found by scanning the XMI text for URIs of
+ * other .uml files (relative, file or platform resource ones), without loading the models. Each model is converted 
+ * once all the models it depends on are, and independent models are converted at the same time (up to a given number 
+ * of threads).
+ */
+public class ModelBatch {
+
+	// a relative, file or platform URI of a .uml file followed by a fragment (e.g., href="other.uml#_id")
+	private static final Pattern MODEL_REFERENCE = Pattern.compile("([^\"'\\s#<>]+\\.uml)#");
+
+	private final List<File> models;
+	private final Set<File> modelSet;
+	private final Map<File, Set<File>> dependencies;
+	private final Logger logger;
+
+	/**
+	 * Converts a model of the batch
+	 */
+	public interface Conversion {
+		void convert(File model) throws Exception;
+	}
+
+	public ModelBatch(List<File> models, Logger logger) throws IOException {
+		this.models = models;
+		this.modelSet = new HashSet<>(models);
+		this.logger = logger;
+		this.dependencies = new LinkedHashMap<>();
+		for (File model : models) {
+			dependencies.put(model, findDependencies(model));
+		}
+		removeCycles();
+	}
+
+	/**
+	 * @return the .uml files given directly or found in the given folders (recursively), in a stable order
+	 */
+	public static List<File> collect(List<String> paths) throws IOException {
+		Set<File> files = new LinkedHashSet<>();
+		for (String path : paths) {
+			File file = new File(path);
+			if (file.isDirectory()) {
+				try (Stream<Path> walk = Files.walk(file.toPath())) {
+					walk.filter(p -> p.toString().endsWith(".uml") && Files.isRegularFile(p))
+						.sorted()
+						.forEach(p -> files.add(canonical(p.toFile())));
+				}
+			} else {
+				files.add(canonical(file));
+			}
+		}
+		return new ArrayList<>(files);
+	}
+
+	public List<File> getModels() {
+		return models;
+	}
+
+	/**
+	 * @return the models of the batch that the given model refers to
+	 */
+	public Set<File> getDependencies(File model) {
+		return dependencies.getOrDefault(model, Collections.emptySet());
+	}
+
+	/**
+	 * Converts all the models, each after the models it depends on, with the given number of threads
+	 * 
+	 * @throws Exception the failure of the first model (in batch order) that failed
+	 */
+	public void convert(int threads, Conversion conversion) throws Exception {
+		final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+		final Map<File, CompletableFuture<Void>> futures = new HashMap<>();
+		final AtomicInteger done = new AtomicInteger();
+		try {
+			for (File model : getSchedule()) {
+				CompletableFuture<?>[] before = getDependencies(model).stream().map(futures::get).toArray(CompletableFuture[]::new);
+				futures.put(model, CompletableFuture.allOf(before).thenRunAsync(() -> {
+					logger.info("Converting model " + model);
+					try {
+						conversion.convert(model);
+					} catch (Exception e) {
+						throw new CompletionException(e);
+					}
+					logger.info("Converted model " + model + " (" + done.incrementAndGet() + " of " + models.size() + ")");
+				}, executor));
+			}
+			Exception failure = null;
+			for (File model : models) {
+				try {
+					futures.get(model).join();
+				} catch (CompletionException e) {
+					logger.error("Failed to convert model " + model + ": " + e.getCause());
+					if (failure == null) {
+						failure = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+					}
+				}
+			}
+			if (failure != null) {
+				throw failure;
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * @return the models in an order where each model comes after the models it depends on
+	 */
+	private List<File> getSchedule() {
+		final Set<File> schedule = new LinkedHashSet<>();
+		for (File model : models) {
+			schedule(model, schedule);
+		}
+		return new ArrayList<>(schedule);
+	}
+
+	private void schedule(File model, Set<File> schedule) {
+		if (!schedule.contains(model)) {
+			for (File dependency : getDependencies(model)) {
+				schedule(dependency, schedule);
+			}
+			schedule.add(model);
+		}
+	}
+
+	private Set<File> findDependencies(File model) throws IOException {
+		final Set<File> found = new LinkedHashSet<>();
+		final Set<URI> unmapped = new LinkedHashSet<>();
+		final URI base = URI.createFileURI(model.getPath());
+		try (BufferedReader reader = Files.newBufferedReader(model.toPath(), StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.indexOf(".uml#") < 0) {
+					continue;
+				}
+				Matcher matcher = MODEL_REFERENCE.matcher(line);
+				while (matcher.find()) {
+					URI uri = URI.createURI(matcher.group(1));
+					if (uri.isRelative()) {
+						uri = uri.resolve(base);
+					}
+					File dependency = null;
+					if (uri.isFile()) {
+						dependency = canonical(new File(uri.toFileString()));
+					} else if (uri.isPlatformResource()) {
+						dependency = getPlatformResourceModel(uri);
+						if (dependency == null) {
+							unmapped.add(uri);
+						}
+					}
+					if (modelSet.contains(dependency) && !dependency.equals(model)) {
+						found.add(dependency);
+					}
+				}
+			}
+		}
+		for (URI uri : unmapped) {
+			logger.warn("Model " + model + " refers to " + uri + ", which is not mapped to a model of the batch; it may be converted before it");
+		}
+		return found;
+	}
+
+	/**
+	 * @return the model of the batch whose path ends with the project and path of the given platform resource URI
+	 * (or null if there is none)
+	 */
+	private File getPlatformResourceModel(URI uri) {
+		final String suffix = uri.toPlatformString(true);
+		for (File model : models) {
+			if (model.getPath().replace(File.separatorChar, '/').endsWith(suffix)) {
+				return model;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Drops the dependencies that close a cycle (the models of a cycle may then be converted at the same time)
+	 */
+	private void removeCycles() {
+		final Set<File> visited = new LinkedHashSet<>();
+		final Set<File> visiting = new LinkedHashSet<>();
+		for (File model : models) {
+			removeCycles(model, visited, visiting);
+		}
+	}
+
+	private void removeCycles(File model, Set<File> visited, Set<File> visiting) {
+		if (visited.contains(model)) {
+			return;
+		}
+		visiting.add(model);
+		for (File dependency : new ArrayList<>(getDependencies(model))) {
+			if (visiting.contains(dependency)) {
+				logger.warn("Models " + model + " and " + dependency + " refer to each other; the dependency of " + model + " on " + dependency + " is ignored, so they may be converted at the same time");
+				dependencies.get(model).remove(dependency);
+			} else {
+				removeCycles(dependency, visited, visiting);
+			}
+		}
+		visiting.remove(model);
+		visited.add(model);
+	}
+
+	private static File canonical(File file) {
+		try {
+			return file.getCanonicalFile();
+		} catch (IOException e) {
+			return file.getAbsoluteFile();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return models.stream()
+			.map(m -> m.getName() + " -> " + getDependencies(m).stream().map(File::getName).collect(Collectors.toList()))
+			.collect(Collectors.joining(", "));
+	}
+}
@@ -17,40 +17,23 @@
  */
 package io.opencaesar.papyrus2oml.util;
 
-import java.util.List;
-
 import io.opencaesar.oml.Description;
 import io.opencaesar.oml.DescriptionExtension;
 import io.opencaesar.oml.DescriptionUsage;
-import io.opencaesar.oml.FeaturePredicate;
 import io.opencaesar.oml.Import;
 import io.opencaesar.oml.Relation;
 import io.opencaesar.oml.RelationEntity;
-import io.opencaesar.oml.Rule;
 import io.opencaesar.oml.util.OmlBuilder;
 import io.opencaesar.papyrus2oml.util.ResourceConverter.ConversionContext;
 
 public class OMLUtil {
 
 	static public Relation getSourceRelation(RelationEntity entity, ConversionContext context) {
-		Rule rule = (Rule) context.getUmlOmlElementByName(entity.getName()+"_Rule");
-		return (rule != null) ? (Relation)((FeaturePredicate)rule.getConsequent().get(0)).getFeature() : null;
+		return context.umlTables.getSourceRelation(entity);
 	}
 		
 	static public Relation getTargetRelation(RelationEntity entity, ConversionContext context) {
-		Rule rule = (Rule) context.getUmlOmlElementByName(entity.getName()+"_Rule");
-		return (rule != null) ? (Relation)((FeaturePredicate)rule.getConsequent().get(1)).getFeature() : null;
-	}
-
-	static public boolean shouldIgnoreIri(List<String> ignoredIriPrefixes, String iri) {
-		if (ignoredIriPrefixes!=null) {
-			for (String prefix : ignoredIriPrefixes) {
-				if (iri.startsWith(prefix)) {
-					return true;
-				}
-			}
-		}
-		return false;
+		return context.umlTables.getTargetRelation(entity);
 	}
 
 	static public DescriptionUsage addUsesIfNeeded(Description description, String iri, OmlBuilder builder) {
@@ -74,4 +57,12 @@ public class OMLUtil {
 		return builder.addDescriptionExtension(description, iri, null);
 	}
 
+	static public DescriptionUsage addUsesIfNeeded(Description description, String iri, ConversionContext context) {
+		return context.imports.addUsesIfNeeded(description, iri, context.builder);
+	}
+
+	static public DescriptionExtension addExtendsIfNeeded(Description description, String iri, ConversionContext context) {
+		return context.imports.addExtendsIfNeeded(description, iri, context.builder);
+	}
+
 }
@@ -0,0 +1,187 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.papyrus2oml.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Map;
+
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.uml2.uml.Element;
+import org.eclipse.uml2.uml.NamedElement;
+import org.eclipse.uml2.uml.Package;
+import org.eclipse.uml2.uml.Profile;
+import org.eclipse.uml2.uml.util.UMLUtil;
+
+/**
+ * Computes content fingerprints of UML packages.
+ * 
+ * The fingerprint of a package covers the objects it contains (excluding nested packages, 
+ * which are converted to their own descriptions), their stereotype applications, and the 
+ * names of the elements they reference, since these end up in the IRIs of the converted
+ * description. The XMI ids of unnamed elements are covered too, since they name these elements
+ * (and the elements they own) in the description. It is seeded with the fingerprint of the environment of the conversion, which
+ * covers the path of the input model, the applied profiles (including the IRI annotations of their properties) and the
+ * OML vocabularies that the descriptions are converted against (i.e., the UML vocabularies and those of the profiles).
+ */
+public class PackageFingerprint {
+
+	public static String compute(Package package_, StereotypeApplicationIndex applications, String environment) {
+		MessageDigest digest = createDigest();
+		update(digest, environment);
+		update(digest, UmlUtils.getIRI(package_));
+		digestObject(package_, digest, applications, false);
+		return toHex(digest.digest());
+	}
+
+	/**
+	 * @return a fingerprint of the given model path, of the profiles applied to the given package and of the given 
+	 * files (in iteration order)
+	 */
+	public static String computeEnvironment(String modelPath, Package package_, Collection<File> files) throws IOException {
+		MessageDigest digest = createDigest();
+		update(digest, modelPath);
+		for (Profile profile : package_.getAllAppliedProfiles()) {
+			update(digest, UmlUtils.getIRI(profile));
+			digestObject(profile, digest, null, true);
+		}
+		digestFiles(files, digest);
+		return toHex(digest.digest());
+	}
+
+	/**
+	 * @return a fingerprint of the contents of the given files (in iteration order)
+	 */
+	public static String compute(Collection<File> files) throws IOException {
+		MessageDigest digest = createDigest();
+		digestFiles(files, digest);
+		return toHex(digest.digest());
+	}
+
+	/**
+	 * @return a fingerprint that combines the given fingerprints (keyed by IRI, in iteration order)
+	 */
+	public static String combine(String seed, Map<String, String> fingerprints) {
+		MessageDigest digest = createDigest();
+		update(digest, seed);
+		fingerprints.forEach((iri, fingerprint) -> {
+			update(digest, iri);
+			update(digest, fingerprint);
+		});
+		return toHex(digest.digest());
+	}
+
+	private static void digestObject(EObject eObject, MessageDigest digest, StereotypeApplicationIndex applications, boolean nested) {
+		update(digest, eObject.eClass().getName());
+		if (eObject instanceof Element && isUnnamed((Element) eObject)) {
+			update(digest, UmlUtils._getID((Element) eObject));
+		}
+		for (EStructuralFeature feature : eObject.eClass().getEAllStructuralFeatures()) {
+			if (feature.isDerived() || feature.isTransient() || !eObject.eIsSet(feature)) {
+				continue;
+			}
+			if (feature instanceof EReference && ((EReference)feature).isContainment()) {
+				continue;
+			}
+			update(digest, feature.getName());
+			Object value = eObject.eGet(feature);
+			if (value instanceof Collection<?>) {
+				for (Object v : (Collection<?>) value) {
+					update(digest, (feature instanceof EAttribute) ? String.valueOf(v) : getLabel(v));
+				}
+			} else {
+				update(digest, (feature instanceof EAttribute) ? String.valueOf(value) : getLabel(value));
+			}
+		}
+		if (eObject instanceof Element && applications != null) {
+			for (EObject application : applications.getStereotypeApplications((Element)eObject)) {
+				digestObject(application, digest, applications, false);
+			}
+		}
+		for (EObject child : eObject.eContents()) {
+			if (nested || !(child instanceof Package)) {
+				digestObject(child, digest, applications, nested);
+			}
+		}
+	}
+
+	private static boolean isUnnamed(Element element) {
+		if (element instanceof NamedElement) {
+			String name = ((NamedElement) element).getName();
+			return name == null || name.isEmpty();
+		}
+		return true;
+	}
+
+	private static void digestFiles(Collection<File> files, MessageDigest digest) throws IOException {
+		for (File file : files) {
+			update(digest, file.getPath());
+			if (file.exists()) {
+				digest.update(Files.readAllBytes(file.toPath()));
+			}
+		}
+	}
+
+	private static String getLabel(Object value) {
+		if (value instanceof Package) {
+			return UmlUtils.getIRI((Package)value);
+		} else if (value instanceof Element) {
+			Element element = (Element) value;
+			Package package_ = element.getNearestPackage();
+			if (package_ != null) {
+				return UmlUtils.getIRI(package_) + "#" + UmlUtils.getName(element);
+			}
+		} else if (value instanceof EObject) {
+			Element base = UMLUtil.getBaseElement((EObject)value);
+			if (base != null) {
+				return getLabel(base);
+			}
+		}
+		return (value instanceof EObject) ? EcoreUtil.getURI((EObject)value).toString() : String.valueOf(value);
+	}
+
+	private static void update(MessageDigest digest, String value) {
+		digest.update(value.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+		StringBuilder hex = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes) {
+			hex.append(String.format("%02x", b));
+		}
+		return hex.toString();
+	}
+}
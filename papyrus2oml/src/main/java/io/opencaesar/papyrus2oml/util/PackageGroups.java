@@ -0,0 +1,226 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.papyrus2oml.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.uml2.uml.Element;
+import org.eclipse.uml2.uml.Package;
+import org.eclipse.uml2.uml.util.UMLUtil;
+
+/**
+ * Groups the packages of a model so that each group can be converted (and saved) after the groups it refers to.
+ * 
+ * A package depends on the packages of the elements that its own elements (excluding nested packages) and their 
+ * stereotype applications refer to. The packages that depend on each other, directly or not, end up in the same group,
+ * and the groups are listed after the groups they depend on. Consecutive groups are then merged as long as they hold 
+ * no more elements than the largest group, so a model of many small packages is not converted in as many passes.
+ */
+public class PackageGroups {
+
+	private final List<Package> packages;
+	private final Map<Package, Integer> indices = new HashMap<>();
+	private final List<Set<Integer>> dependencies = new ArrayList<>();
+	private final int[] sizes;
+	private final List<Set<Package>> groups = new ArrayList<>();
+
+	// the state of the search for the strongly connected packages
+	private final int[] index;
+	private final int[] lowLink;
+	private final boolean[] onStack;
+	private final Deque<Integer> stack = new ArrayDeque<>();
+	private int next;
+
+	public PackageGroups(List<Package> packages, StereotypeApplicationIndex applications) {
+		this.packages = packages;
+		this.sizes = new int[packages.size()];
+		for (int i = 0; i < packages.size(); i++) {
+			indices.put(packages.get(i), i);
+			dependencies.add(new LinkedHashSet<>());
+		}
+		for (int i = 0; i < packages.size(); i++) {
+			for (EObject child : packages.get(i).eContents()) {
+				if (!(child instanceof Package)) {
+					collect(child, i, applications);
+				}
+			}
+		}
+		index = new int[packages.size()];
+		lowLink = new int[packages.size()];
+		onStack = new boolean[packages.size()];
+		Arrays.fill(index, -1);
+		List<Set<Integer>> components = new ArrayList<>();
+		for (int i = 0; i < packages.size(); i++) {
+			if (index[i] < 0) {
+				connect(i, components);
+			}
+		}
+		merge(components);
+	}
+
+	/**
+	 * @return the groups of packages, each after the groups it depends on
+	 */
+	public List<Set<Package>> getGroups() {
+		return groups;
+	}
+
+	/**
+	 * @return the packages outside the given group that the packages of the group refer to
+	 */
+	public Set<Package> getDependencies(Set<Package> group) {
+		Set<Package> result = new LinkedHashSet<>();
+		for (Package package_ : group) {
+			for (int dependency : dependencies.get(indices.get(package_))) {
+				if (!group.contains(packages.get(dependency))) {
+					result.add(packages.get(dependency));
+				}
+			}
+		}
+		return result;
+	}
+
+	private void collect(EObject eObject, int source, StereotypeApplicationIndex applications) {
+		sizes[source]++;
+		for (EReference reference : eObject.eClass().getEAllReferences()) {
+			if (reference.isContainment() || reference.isContainer() || reference.isDerived() || reference.isTransient() || !eObject.eIsSet(reference)) {
+				continue;
+			}
+			Object value = eObject.eGet(reference, false);
+			if (value instanceof Collection<?>) {
+				for (Object v : (Collection<?>) value) {
+					depend(source, v);
+				}
+			} else {
+				depend(source, value);
+			}
+		}
+		if (eObject instanceof Element && applications != null) {
+			for (EObject application : applications.getStereotypeApplications((Element) eObject)) {
+				collect(application, source, null);
+			}
+		}
+		for (EObject child : eObject.eContents()) {
+			if (!(child instanceof Package)) {
+				collect(child, source, applications);
+			}
+		}
+	}
+
+	private void depend(int source, Object value) {
+		if (!(value instanceof EObject) || ((EObject) value).eIsProxy()) {
+			return;
+		}
+		Element element = (value instanceof Element) ? (Element) value : UMLUtil.getBaseElement((EObject) value);
+		if (element != null && !(element instanceof Package)) {
+			Integer target = indices.get(element.getNearestPackage());
+			if (target != null && target != source) {
+				dependencies.get(source).add(target);
+			}
+		}
+	}
+
+	/**
+	 * Finds the strongly connected packages (with Tarjan's algorithm), adding each component after the components 
+	 * it depends on
+	 */
+	private void connect(int v, List<Set<Integer>> components) {
+		index[v] = lowLink[v] = next++;
+		stack.push(v);
+		onStack[v] = true;
+		for (int w : dependencies.get(v)) {
+			if (index[w] < 0) {
+				connect(w, components);
+				lowLink[v] = Math.min(lowLink[v], lowLink[w]);
+			} else if (onStack[w]) {
+				lowLink[v] = Math.min(lowLink[v], index[w]);
+			}
+		}
+		if (lowLink[v] == index[v]) {
+			Set<Integer> component = new LinkedHashSet<>();
+			int w;
+			do {
+				w = stack.pop();
+				onStack[w] = false;
+				component.add(w);
+			} while (w != v);
+			components.add(component);
+		}
+	}
+
+	private void merge(List<Set<Integer>> components) {
+		int largest = 0;
+		for (Set<Integer> component : components) {
+			largest = Math.max(largest, size(component));
+		}
+		Set<Integer> merged = new LinkedHashSet<>();
+		int mergedSize = 0;
+		for (Set<Integer> component : components) {
+			int size = size(component);
+			if (!merged.isEmpty() && mergedSize + size > largest) {
+				groups.add(toPackages(merged));
+				merged = new LinkedHashSet<>();
+				mergedSize = 0;
+			}
+			merged.addAll(component);
+			mergedSize += size;
+		}
+		if (!merged.isEmpty()) {
+			groups.add(toPackages(merged));
+		}
+	}
+
+	private int size(Set<Integer> component) {
+		int size = 0;
+		for (int i : component) {
+			size += sizes[i];
+		}
+		return size;
+	}
+
+	private Set<Package> toPackages(Set<Integer> component) {
+		// keep the packages in model order
+		Set<Package> group = new LinkedHashSet<>();
+		component.stream().sorted().forEach(i -> group.add(packages.get(i)));
+		return group;
+	}
+
+	@Override
+	public String toString() {
+		int largest = 0;
+		for (Set<Package> group : groups) {
+			int size = 0;
+			for (Package package_ : group) {
+				size += sizes[indices.get(package_)];
+			}
+			largest = Math.max(largest, size);
+		}
+		return packages.size() + " packages in " + groups.size() + " groups (largest " + largest + " elements)";
+	}
+}
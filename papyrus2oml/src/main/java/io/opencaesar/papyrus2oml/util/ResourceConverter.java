@@ -19,13 +19,17 @@ package io.opencaesar.papyrus2oml.util;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.log4j.Logger;
 import org.eclipse.emf.common.util.Enumerator;
 import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EEnumLiteral;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EStructuralFeature;
@@ -34,7 +38,9 @@ import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.uml2.uml.Element;
 import org.eclipse.uml2.uml.Package;
 import org.eclipse.uml2.uml.Property;
+import org.eclipse.uml2.uml.Stereotype;
 
+import io.opencaesar.adapters.util.ConversionMetrics;
 import io.opencaesar.oml.Description;
 import io.opencaesar.oml.DescriptionBundle;
 import io.opencaesar.oml.IdentifiedElement;
@@ -47,26 +53,50 @@ import io.opencaesar.oml.util.OmlConstants;
 import io.opencaesar.oml.util.OmlRead;
 import io.opencaesar.oml.util.OmlBuilder;
 import io.opencaesar.papyrus2oml.ConversionType;
+import io.opencaesar.papyrus2oml.converters.ConceptInstanceConverter;
+import io.opencaesar.papyrus2oml.converters.UMLNamedInstanceConverter;
 
 public abstract class ResourceConverter {
 	
 	public static class ConversionContext {
 		public List<String> ignoredIriPrefixes;
+		public IriMatcher ignoredIris = IriMatcher.NONE;
+		public long prunedSubtrees;
+		public long prunedElements;
 		public OmlCatalog catalog;
+		public CatalogResolver resolver;
 		public OmlBuilder builder;
 		public Logger logger;
 		public List<Runnable> deferredRelations = new ArrayList<>();
 		public List<Runnable> deferredLinks = new ArrayList<>();
+		// the object whose conversion deferred each deferred relation (only kept by the traversals of a parallel run)
+		public List<EObject> deferredRelationOwners;
 		public Package rootPackage;
-		public Map<Element, io.opencaesar.oml.IdentifiedElement> umlToOml = new HashMap<>();
+		public final Map<Package, Description> descriptions = new HashMap<>();
+		public Set<Package> unchangedPackages = Collections.emptySet();
+		public Set<Package> convertedPackages;
+		public boolean convertsBundle = true;
+		// replaced by the table of the whole model once the traversals of a parallel run are merged
+		public CrossReferenceTable references = new CrossReferenceTable(1024);
 		private Vocabulary umlVoc;
 		public DescriptionBundle descriptionBundle;
 		public ConversionType conversionType;
 		public String postFix = "";
 		public boolean DSL = false;
+		public final UmlNameCache names = new UmlNameCache();
+		public final ImportIndex imports = new ImportIndex();
+		public MemberIndex members;
+		public StereotypeApplicationIndex stereotypeApplications;
+		public UmlVocabularyTables umlTables;
+		public final Map<EClass, UMLNamedInstanceConverter.Handler> umlHandlers = new HashMap<>();
+		public final Map<Stereotype, Member> stereotypeTypes = new HashMap<>();
+		public final Map<List<Stereotype>, UMLNamedInstanceConverter.StereotypeDecision> stereotypeDecisions = new HashMap<>();
+		public final Map<Stereotype, Map<EClass, ConceptInstanceConverter.PropertyPlan[]>> stereotypePlans = new HashMap<>();
+		public ConversionMetrics metrics = ConversionMetrics.NONE;
 
 		public ConversionContext(OmlCatalog cat, OmlBuilder builder, ConversionType conversionType, Logger logger) {
 			this.catalog = cat;
+			this.resolver = CatalogResolver.of(cat);
 			this.builder = builder;
 			this.logger = logger;
 			this.conversionType = conversionType;
@@ -75,37 +105,166 @@ public abstract class ResourceConverter {
 		public ConversionContext(List<String> ignoredIriPrefixes, OmlCatalog cat, OmlBuilder builder, ResourceSet rs, ConversionType conversionType, Logger logger) {
 			this(cat,builder,conversionType,logger);
 			this.ignoredIriPrefixes = ignoredIriPrefixes;
+			this.ignoredIris = new IriMatcher(ignoredIriPrefixes);
+			this.members = MemberIndex.get(rs);
 			try {
-				final URI umlUri = URI.createURI(catalog.resolveURI(UmlUtils.UML_IRI) + "." + OmlConstants.OML_EXTENSION);
+				final URI umlUri = resolver.resolveOmlUri(UmlUtils.UML_IRI);
 				Resource r = rs.getResource(umlUri, true);
 				umlVoc = (Vocabulary) OmlRead.getOntology(r);
+				umlTables = UmlVocabularyTables.get(umlVoc);
+				members.index(r);
 				
 			} catch (IOException e) {
 				logger.error("Failed to load uml voc");
 			}
 		}
 		
+		/**
+		 * Drops the references this context holds to the input model once the conversion is finished
+		 */
+		public void release() {
+			descriptions.clear();
+			references.clear();
+			deferredRelations.clear();
+			deferredLinks.clear();
+			names.clear();
+			imports.clear();
+			umlHandlers.clear();
+			stereotypeTypes.clear();
+			stereotypeDecisions.clear();
+			stereotypePlans.clear();
+			stereotypeApplications = null;
+			unchangedPackages = Collections.emptySet();
+			rootPackage = null;
+		}
+		
+		/**
+		 * @return whether the given package matches an ignored IRI pattern (so its whole subtree is pruned)
+		 */
+		public boolean shouldIgnorePackage(Package pkg) {
+			if (!ignoredIris.matches(UmlUtils.getIRI(pkg))) {
+				return false;
+			}
+			pruned(pkg);
+			return true;
+		}
+
+		/**
+		 * Counts the given object's subtree as pruned
+		 */
+		public void pruned(EObject eObject) {
+			prunedSubtrees++;
+			if (metrics.isEnabled()) {
+				prunedElements++;
+				eObject.eAllContents().forEachRemaining(e -> prunedElements++);
+			}
+		}
+
+		/**
+		 * @return whether the description of the given package is not converted by this traversal, either because it 
+		 * is kept from the previous incremental run or because it is converted by another pass of a low-memory conversion
+		 */
+		public boolean isSkipped(Package pkg) {
+			return unchangedPackages.contains(pkg) || (convertedPackages != null && !convertedPackages.contains(pkg));
+		}
+
+		/**
+		 * @return whether the given object is directly owned by a skipped package, so its subtree is not converted
+		 */
+		public boolean isOwnedBySkippedPackage(EObject eObject) {
+			return !(eObject instanceof Package) && eObject.eContainer() instanceof Package && isSkipped((Package) eObject.eContainer());
+		}
+
+		/**
+		 * Drops the descriptions of the given packages once they are saved (their converted elements keep their IRIs)
+		 */
+		public void forget(Collection<Package> packages) {
+			for (Package pkg : packages) {
+				Description description = descriptions.remove(pkg);
+				if (description != null) {
+					imports.remove(description);
+				}
+			}
+		}
+
+		/**
+		 * @return whether the given element is converted by another conversion, i.e., it belongs to another model, 
+		 * to an ignored package or to an unchanged package, so the member it was converted to is looked up in the 
+		 * ontology of its package
+		 */
+		public boolean isConvertedElsewhere(Element element) {
+			if (rootPackage == null || element.eResource() != rootPackage.eResource()) {
+				return true;
+			}
+			if (unchangedPackages.contains(element.getNearestPackage())) {
+				return true;
+			}
+			for (Package pkg = element.getNearestPackage(); pkg != null; pkg = pkg.getNestingPackage()) {
+				if (ignoredIris.matches(UmlUtils.getIRI(pkg))) {
+					return true;
+				}
+			}
+			return false;
+		}
+
 		public IdentifiedElement getOmlElementForIgnoredElement(Element element, Description description) {
 			String targetIri = getIgnoredElementIRI(element, this);
-			Member omlElement = OmlRead.getMemberByIri(description.eResource().getResourceSet(), targetIri);
+			Member omlElement = members.getMemberByIri(description.eResource().getResourceSet(), targetIri);
 			if(omlElement==null) {
 				throw new RuntimeException("Element " + targetIri + " cannot be found");
 			}
 			return omlElement;
 		}
 		
+		/**
+		 * @return the member that the given object was converted to by the previous incremental run (or null if it 
+		 * is not owned by an unchanged package or was not converted)
+		 */
+		public Member getUnchangedMember(Object value) {
+			if (!(value instanceof Element) || !unchangedPackages.contains(((Element) value).getNearestPackage())) {
+				return null;
+			}
+			String iri = getIgnoredElementIRI((Element) value, this);
+			return members.getMemberByIri(umlVoc.eResource().getResourceSet(), iri);
+		}
+
 		private static String getIgnoredElementIRI(Element element, ConversionContext context) {
 			Package pkg = element.getNearestPackage();
 			// try load the elements ontology directly from context 
 			var bundleResource = context.umlVoc.eResource();
-			var ontologyUri = OmlRead.getResolvedUri(bundleResource, URI.createURI(pkg.getURI()));
-			Resource ontologyResource = bundleResource.getResourceSet().getResource(ontologyUri, true);
+			URI ontologyUri;
+			if (context.unchangedPackages.contains(pkg)) {
+				// the (UML) description of an unchanged package was saved by the previous run
+				try {
+					ontologyUri = context.resolver.resolveOmlUri(UmlUtils.getIRI(pkg));
+				} catch (IOException e) {
+					throw new RuntimeException(e);
+				}
+			} else {
+				ontologyUri = (pkg != null && pkg.getURI() != null) ? context.resolver.getResolvedUri(bundleResource, pkg.getURI()) : null;
+			}
+			if (ontologyUri == null) {
+				throw new RuntimeException("Ontology " + (pkg != null ? pkg.getURI() : null) + " cannot be found");
+			}
+			Resource ontologyResource = context.members.getResource(ontologyUri);
+			context.members.index(ontologyResource);
 			Ontology ontology = OmlRead.getOntology(ontologyResource);
-			return ontology.getNamespace() + UmlUtils.getName(element);
+			return ontology.getNamespace() + context.names.getName(element);
+		}
+
+		/**
+		 * @return the IRI of the OML element the given object was converted to (or null if it was not converted)
+		 */
+		public String getConvertedIri(EObject eObject) {
+			if (eObject instanceof Package) {
+				Description description = descriptions.get(eObject);
+				return description != null ? description.getIri() : null;
+			}
+			return references.getIri(eObject);
 		}
 
 		public Member getUmlOmlElementByName(String name) {
-			return OmlRead.getMemberByName(umlVoc, name);
+			return umlTables.getMemberByName(name);
 		}
 		
 		public boolean shouldFilterFeature(EStructuralFeature feature) {
@@ -139,10 +298,58 @@ public abstract class ResourceConverter {
 		this.context = context;
 	}
 	
+	public ConversionContext getContext() {
+		return context;
+	}
+	
 	public abstract void convertEObject(EObject eObject) throws IOException;
 
 	public abstract boolean shouldBeIgnored(EObject eObject);
 	
 	public abstract void finish();
 
-}
\ No newline at end of file
+	/**
+	 * Runs the deferred relations and then the deferred links of the context (which are then dropped, since a 
+	 * low-memory conversion finishes the converters after each of its passes)
+	 */
+	protected void runDeferred() {
+		runDeferredRelations();
+		runDeferredLinks();
+	}
+
+	protected void runDeferredRelations() {
+		try (ConversionMetrics.Timer t = context.metrics.phase("deferred relations")) {
+			context.deferredRelations.forEach(r -> r.run());
+		}
+		context.metrics.count("deferred relations", context.deferredRelations.size());
+		context.deferredRelations.clear();
+	}
+
+	public void runDeferredLinks() {
+		try (ConversionMetrics.Timer t = context.metrics.phase("deferred links")) {
+			context.deferredLinks.forEach(l -> l.run());
+		}
+		context.metrics.count("deferred links", context.deferredLinks.size());
+		context.deferredLinks.clear();
+	}
+
+	/**
+	 * Reports the metrics of the context once the conversion is finished
+	 */
+	public void report() {
+		context.logger.debug("Name cache: " + context.names);
+		context.logger.debug("Import index: " + context.imports);
+		context.logger.debug("Member index: " + context.members);
+		context.logger.debug("Cross references: " + context.references);
+		context.metrics.cache("names", context.names.getHits(), context.names.getMisses());
+		// the member index is shared by the converters of a resource set
+		if (context.members != null) {
+			context.members.report(context.metrics);
+		}
+		context.metrics.count("duplicate imports avoided", context.imports.getAvoided());
+		context.metrics.count("cross references", context.references.size());
+		context.metrics.count("pruned subtrees", context.prunedSubtrees);
+		context.metrics.count("pruned elements", context.prunedElements);
+	}
+
+}
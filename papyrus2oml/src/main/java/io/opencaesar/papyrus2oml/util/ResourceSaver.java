@@ -0,0 +1,251 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.papyrus2oml.util;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+import io.opencaesar.oml.Import;
+import io.opencaesar.oml.Ontology;
+import io.opencaesar.oml.util.OmlRead;
+
+/**
+ * Saves resources, writing their files on a pool of threads.
+ * 
+ * Each file resource is written through a buffered channel to a temporary file in the same 
+ * folder, which is then renamed atomically over the target file, so a failed run never leaves 
+ * a partially written file behind. With more than one thread, each file resource is serialized
+ * by a worker straight to its temporary file, so at most one buffer per thread is in flight.
+ * Since the resources share a resource set (which is not thread-safe), their cross references
+ * are resolved on the calling thread first, and the workers then only read the resource set.
+ * 
+ * When unloading is enabled, the resources are saved one at a time and each one is unloaded as
+ * soon as it and every resource that imports it have been saved, so the heap no longer holds
+ * all the serialized ontologies at the same time.
+ */
+public class ResourceSaver {
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final int threads;
+	private final Logger logger;
+	private boolean unload;
+
+	public ResourceSaver(int threads, Logger logger) {
+		this.threads = Math.max(1, threads);
+		this.logger = logger;
+	}
+
+	public void setUnload(boolean unload) {
+		this.unload = unload;
+	}
+
+	public void save(Collection<Resource> resources) throws IOException {
+		final long start = System.nanoTime();
+		long bytes = 0;
+		if (unload) {
+			if (threads > 1) {
+				logger.warn("Saving on one thread since saved resources get unloaded");
+			}
+			bytes = saveAndUnload(resources);
+		} else if (threads == 1) {
+			for (Resource resource : resources) {
+				bytes += save(resource);
+			}
+		} else {
+			ExecutorService executor = Executors.newFixedThreadPool(threads);
+			try {
+				// resolve the cross references up front, so the workers only read the resource set
+				List<Resource> files = new ArrayList<>();
+				for (Resource resource : resources) {
+					if (resource.getURI().isFile()) {
+						EcoreUtil.resolveAll(resource);
+						files.add(resource);
+					} else {
+						save(resource);
+					}
+				}
+				List<Future<Long>> futures = new ArrayList<>();
+				for (Resource resource : files) {
+					futures.add(executor.submit(() -> save(resource)));
+				}
+				for (Future<Long> future : futures) {
+					bytes += future.get();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException(e);
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof IOException) {
+					throw (IOException) e.getCause();
+				}
+				throw new IOException(e.getCause());
+			} finally {
+				executor.shutdownNow();
+			}
+		}
+		final double seconds = Math.max(System.nanoTime() - start, 1) / 1e9;
+		final int usedThreads = unload ? 1 : threads;
+		logger.info(String.format("Saved %d files (%.1f MB) in %.2f s on %d thread(s): %.1f files/s, %.1f MB/s", 
+				resources.size(), bytes / 1048576.0, seconds, usedThreads, resources.size() / seconds, bytes / 1048576.0 / seconds));
+	}
+
+	private long saveAndUnload(Collection<Resource> resources) throws IOException {
+		// the saved resources that each saved resource imports
+		final Map<String, Resource> byIri = new HashMap<>();
+		for (Resource resource : resources) {
+			Ontology ontology = OmlRead.getOntology(resource);
+			if (ontology != null) {
+				byIri.put(trimSeparator(ontology.getIri()), resource);
+			}
+		}
+		final List<Resource> ordered = new ArrayList<>(resources);
+		final Map<Resource, List<Resource>> imported = new IdentityHashMap<>();
+		for (Resource resource : ordered) {
+			List<Resource> targets = new ArrayList<>();
+			Ontology ontology = OmlRead.getOntology(resource);
+			if (ontology != null) {
+				for (Import i : ontology.getOwnedImports()) {
+					Resource target = byIri.get(trimSeparator(i.getUri()));
+					if (target != null && target != resource && !targets.contains(target)) {
+						targets.add(target);
+					}
+				}
+			}
+			imported.put(resource, targets);
+		}
+		
+		long bytes = 0;
+		int unloaded = 0;
+		final List<List<Resource>> schedule = getUnloadSchedule(ordered, imported);
+		for (int i = 0; i < ordered.size(); i++) {
+			bytes += save(ordered.get(i));
+			for (Resource resource : schedule.get(i)) {
+				unload(resource);
+				unloaded++;
+			}
+		}
+		logger.debug("Unloaded " + unloaded + " saved resources");
+		return bytes;
+	}
+
+	/**
+	 * @return for each of the given resources (in saving order), the resources that can be unloaded once it is saved,
+	 * i.e., the saved resources that no resource still to be saved imports
+	 */
+	static <T> List<List<T>> getUnloadSchedule(List<T> resources, Map<T, List<T>> imported) {
+		final Map<T, Integer> importers = new IdentityHashMap<>();
+		for (T resource : resources) {
+			for (T target : imported.get(resource)) {
+				importers.merge(target, 1, Integer::sum);
+			}
+		}
+		final List<List<T>> schedule = new ArrayList<>(resources.size());
+		final Set<T> saved = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (T resource : resources) {
+			List<T> unloads = new ArrayList<>();
+			saved.add(resource);
+			for (T target : imported.get(resource)) {
+				if (importers.merge(target, -1, Integer::sum) == 0 && saved.contains(target)) {
+					unloads.add(target);
+				}
+			}
+			if (importers.getOrDefault(resource, 0) == 0) {
+				unloads.add(resource);
+			}
+			schedule.add(unloads);
+		}
+		return schedule;
+	}
+
+	private static String trimSeparator(String iri) {
+		return (iri.endsWith("#") || iri.endsWith("/")) ? iri.substring(0, iri.length() - 1) : iri;
+	}
+
+	private static void unload(Resource resource) {
+		ResourceSet resourceSet = resource.getResourceSet();
+		if (resourceSet != null) {
+			MemberIndex.get(resourceSet).remove(resource);
+			resource.unload();
+			resourceSet.getResources().remove(resource);
+		} else {
+			resource.unload();
+		}
+	}
+
+	private long save(Resource resource) throws IOException {
+		logger.info("Saving: "+resource.getURI());
+		URI uri = resource.getURI();
+		if (!uri.isFile()) {
+			resource.save(Collections.EMPTY_MAP);
+			return 0;
+		}
+		return write(uri, out -> resource.save(out, Collections.EMPTY_MAP));
+	}
+
+	private static long write(URI uri, Content content) throws IOException {
+		Path target = Paths.get(uri.toFileString()).toAbsolutePath();
+		Files.createDirectories(target.getParent());
+		Path temp = Files.createTempFile(target.getParent(), "." + target.getFileName(), ".tmp");
+		try {
+			try (OutputStream out = new BufferedOutputStream(Channels.newOutputStream(FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)), BUFFER_SIZE)) {
+				content.writeTo(out);
+			}
+			try {
+				Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+		return Files.size(target);
+	}
+
+	@FunctionalInterface
+	private interface Content {
+		void writeTo(OutputStream out) throws IOException;
+	}
+}
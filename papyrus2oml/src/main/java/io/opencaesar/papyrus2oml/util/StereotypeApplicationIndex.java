@@ -0,0 +1,128 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.papyrus2oml.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.uml2.uml.Element;
+import org.eclipse.uml2.uml.Stereotype;
+import org.eclipse.uml2.uml.util.UMLUtil;
+
+/**
+ * A reverse index from the base elements of a resource to their stereotype applications.
+ * 
+ * The index is built in one pass over the root objects of the resource (where the 
+ * stereotype applications are stored) and replaces the inverse navigation that UML2 does
+ * on every call to {@link Element#getAppliedStereotypes()} and 
+ * {@link Element#getStereotypeApplication(Stereotype)}. To keep it small, an element with one 
+ * application maps directly to it and the stereotype of an application is kept per EClass.
+ * The index is only read once it is built (but for the stereotypes found per EClass), so the conversions
+ * of a parallel run share it.
+ */
+public class StereotypeApplicationIndex extends AdapterImpl {
+
+	private final Map<Element, Object> applications = new IdentityHashMap<>();
+	private final Map<EClass, Stereotype> stereotypes = new ConcurrentHashMap<>();
+
+	public static StereotypeApplicationIndex get(Resource resource) {
+		StereotypeApplicationIndex index = (StereotypeApplicationIndex) EcoreUtil.getAdapter(resource.eAdapters(), StereotypeApplicationIndex.class);
+		if (index == null) {
+			index = new StereotypeApplicationIndex(resource);
+			resource.eAdapters().add(index);
+		}
+		return index;
+	}
+
+	private StereotypeApplicationIndex(Resource resource) {
+		for (EObject eObject : resource.getContents()) {
+			Element base = UMLUtil.getBaseElement(eObject);
+			if (base != null) {
+				add(base, eObject);
+			}
+		}
+	}
+
+	@Override
+	public boolean isAdapterForType(Object type) {
+		return type == StereotypeApplicationIndex.class;
+	}
+
+	private void add(Element base, EObject application) {
+		Object existing = applications.get(base);
+		if (existing == null) {
+			applications.put(base, application);
+		} else if (existing instanceof EObject[]) {
+			EObject[] existingApplications = (EObject[]) existing;
+			EObject[] newApplications = Arrays.copyOf(existingApplications, existingApplications.length + 1);
+			newApplications[existingApplications.length] = application;
+			applications.put(base, newApplications);
+		} else {
+			applications.put(base, new EObject[] {(EObject) existing, application});
+		}
+	}
+
+	public List<EObject> getStereotypeApplications(Element element) {
+		Object value = applications.get(element);
+		if (value == null) {
+			return Collections.emptyList();
+		} else if (value instanceof EObject[]) {
+			return Arrays.asList((EObject[]) value);
+		}
+		return Collections.singletonList((EObject) value);
+	}
+
+	private Stereotype getStereotype(EObject application) {
+		return stereotypes.computeIfAbsent(application.eClass(), c -> UMLUtil.getStereotype(application));
+	}
+
+	public List<Stereotype> getAppliedStereotypes(Element element) {
+		List<Stereotype> result = new ArrayList<>();
+		for (EObject application : getStereotypeApplications(element)) {
+			Stereotype stereotype = getStereotype(application);
+			if (stereotype != null) {
+				result.add(stereotype);
+			}
+		}
+		return result;
+	}
+
+	public EObject getStereotypeApplication(Element element, Stereotype stereotype) {
+		for (EObject application : getStereotypeApplications(element)) {
+			if (getStereotype(application) == stereotype) {
+				return application;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public String toString() {
+		return applications.size() + " stereotyped elements";
+	}
+}
@@ -0,0 +1,165 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.papyrus2oml.util;
+
+import java.util.List;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+
+import io.opencaesar.oml.BooleanLiteral;
+import io.opencaesar.oml.ConceptInstance;
+import io.opencaesar.oml.ConceptTypeAssertion;
+import io.opencaesar.oml.Description;
+import io.opencaesar.oml.DescriptionBundle;
+import io.opencaesar.oml.DescriptionBundleInclusion;
+import io.opencaesar.oml.DescriptionBundleUsage;
+import io.opencaesar.oml.DescriptionExtension;
+import io.opencaesar.oml.DescriptionUsage;
+import io.opencaesar.oml.IntegerLiteral;
+import io.opencaesar.oml.LinkAssertion;
+import io.opencaesar.oml.Literal;
+import io.opencaesar.oml.Ontology;
+import io.opencaesar.oml.QuotedLiteral;
+import io.opencaesar.oml.RelationInstance;
+import io.opencaesar.oml.RelationTypeAssertion;
+import io.opencaesar.oml.ScalarPropertyValueAssertion;
+import io.opencaesar.oml.SeparatorKind;
+import io.opencaesar.oml.util.OmlBuilder;
+
+/**
+ * An OML builder whose methods that the converters call can be called by the conversions of a parallel run.
+ * 
+ * The calls are serialized on the resource set of the builder, which the {@link MemberIndex} also locks while it 
+ * looks up or loads ontologies, so the resource set and the ontologies being built are only changed under that lock.
+ * The builder is started and finished by one thread, as usual.
+ */
+public class SynchronizedOmlBuilder extends OmlBuilder {
+
+	private final ResourceSet resourceSet;
+
+	public SynchronizedOmlBuilder(ResourceSet resourceSet) {
+		super(resourceSet);
+		this.resourceSet = resourceSet;
+	}
+
+	@Override
+	public Description createDescription(URI uri, String iri, SeparatorKind separator, String prefix) {
+		synchronized (resourceSet) {
+			return super.createDescription(uri, iri, separator, prefix);
+		}
+	}
+
+	@Override
+	public DescriptionBundle createDescriptionBundle(URI uri, String iri, SeparatorKind separator, String prefix) {
+		synchronized (resourceSet) {
+			return super.createDescriptionBundle(uri, iri, separator, prefix);
+		}
+	}
+
+	@Override
+	public DescriptionUsage addDescriptionUsage(Description description, String importedIri, String importedPrefix) {
+		synchronized (resourceSet) {
+			return super.addDescriptionUsage(description, importedIri, importedPrefix);
+		}
+	}
+
+	@Override
+	public DescriptionExtension addDescriptionExtension(Description description, String importedIri, String importedPrefix) {
+		synchronized (resourceSet) {
+			return super.addDescriptionExtension(description, importedIri, importedPrefix);
+		}
+	}
+
+	@Override
+	public DescriptionBundleUsage addDescriptionBundleUsage(DescriptionBundle bundle, String importedIri, String importedPrefix) {
+		synchronized (resourceSet) {
+			return super.addDescriptionBundleUsage(bundle, importedIri, importedPrefix);
+		}
+	}
+
+	@Override
+	public DescriptionBundleInclusion addDescriptionBundleInclusion(DescriptionBundle bundle, String importedIri, String importedPrefix) {
+		synchronized (resourceSet) {
+			return super.addDescriptionBundleInclusion(bundle, importedIri, importedPrefix);
+		}
+	}
+
+	@Override
+	public ConceptInstance addConceptInstance(Description description, String name) {
+		synchronized (resourceSet) {
+			return super.addConceptInstance(description, name);
+		}
+	}
+
+	@Override
+	public ConceptTypeAssertion addConceptTypeAssertion(Description description, String instanceIri, String typeIri) {
+		synchronized (resourceSet) {
+			return super.addConceptTypeAssertion(description, instanceIri, typeIri);
+		}
+	}
+
+	@Override
+	public RelationInstance addRelationInstance(Description description, String name, List<String> sources, List<String> targets) {
+		synchronized (resourceSet) {
+			return super.addRelationInstance(description, name, sources, targets);
+		}
+	}
+
+	@Override
+	public RelationTypeAssertion addRelationTypeAssertion(Description description, String instanceIri, String typeIri) {
+		synchronized (resourceSet) {
+			return super.addRelationTypeAssertion(description, instanceIri, typeIri);
+		}
+	}
+
+	@Override
+	public LinkAssertion addLinkAssertion(Description description, String instanceIri, String relationIri, String targetIri) {
+		synchronized (resourceSet) {
+			return super.addLinkAssertion(description, instanceIri, relationIri, targetIri);
+		}
+	}
+
+	@Override
+	public ScalarPropertyValueAssertion addScalarPropertyValueAssertion(Description description, String instanceIri, String propertyIri, Literal value) {
+		synchronized (resourceSet) {
+			return super.addScalarPropertyValueAssertion(description, instanceIri, propertyIri, value);
+		}
+	}
+
+	@Override
+	public QuotedLiteral createQuotedLiteral(Ontology ontology, String value, String typeIri, String langTag) {
+		synchronized (resourceSet) {
+			return super.createQuotedLiteral(ontology, value, typeIri, langTag);
+		}
+	}
+
+	@Override
+	public IntegerLiteral createIntegerLiteral(int value) {
+		synchronized (resourceSet) {
+			return super.createIntegerLiteral(value);
+		}
+	}
+
+	@Override
+	public BooleanLiteral createBooleanLiteral(boolean value) {
+		synchronized (resourceSet) {
+			return super.createBooleanLiteral(value);
+		}
+	}
+}
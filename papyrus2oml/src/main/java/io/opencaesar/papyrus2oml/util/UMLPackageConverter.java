@@ -18,9 +18,11 @@
 package io.opencaesar.papyrus2oml.util;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
 
 import org.apache.log4j.Logger;
+import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.uml2.uml.Element;
@@ -28,6 +30,7 @@ import org.eclipse.uml2.uml.ElementImport;
 import org.eclipse.uml2.uml.Package;
 import org.eclipse.uml2.uml.PackageImport;
 
+import io.opencaesar.adapters.util.ConversionEvent;
 import io.opencaesar.oml.util.OmlCatalog;
 import io.opencaesar.oml.util.OmlBuilder;
 import io.opencaesar.papyrus2oml.ConversionType;
@@ -36,42 +39,72 @@ import io.opencaesar.papyrus2oml.converters.UMLNamedInstanceConverter;
 
 public class UMLPackageConverter extends ResourceConverter {
 	
+	private MetaclassPruningTable pruning;
+	
 	public UMLPackageConverter(Package rootPackage, List<String> ignoredIriPrefixes, OmlCatalog catalog, OmlBuilder builder, ResourceSet omlResourceSet, ConversionType conversionType, Logger logger) {
 		super(new ConversionContext(ignoredIriPrefixes, catalog, builder, omlResourceSet,conversionType, logger));
 		context.rootPackage = rootPackage;
+		context.stereotypeApplications = StereotypeApplicationIndex.get(rootPackage.eResource());
 		logger.info("UML converter in : " + (conversionType==ConversionType.uml? " UML mode" : "UML-DSL model"));
+		setMetaclasses(null);
+	}
+
+	/**
+	 * Restricts the conversion to instances of the given UML metaclasses and their subclasses (or null for all)
+	 */
+	public void setMetaclasses(Collection<EClass> metaclasses) {
+		if (context.umlTables != null) {
+			pruning = new MetaclassPruningTable(context.umlTables, metaclasses);
+			context.logger.debug("Pruning table: " + pruning);
+		}
 	}
 	
 	@Override
 	public boolean shouldBeIgnored(EObject eObject) {
-		if (eObject instanceof Package) {
-			Package pkg = (Package) eObject;
-			String iri = UmlUtils.getIRI(pkg);
-			if (OMLUtil.shouldIgnoreIri(context.ignoredIriPrefixes, iri)) {
-				return true;
-			}
+		if (eObject instanceof Package && context.shouldIgnorePackage((Package) eObject)) {
+			return true;
 		}
-		return !(eObject instanceof Element);
+		if (!(eObject instanceof Element)) {
+			return true;
+		}
+		if (context.isOwnedBySkippedPackage(eObject)) {
+			return true;
+		}
+		if (pruning != null && !pruning.isVisited(eObject.eClass())) {
+			context.pruned(eObject);
+			return true;
+		}
+		return false;
 	}
 	
 	@Override
 	public void finish() {
-		context.deferredRelations.forEach(r -> r.run());
-		context.deferredLinks.forEach(l -> l.run());
+		runDeferred();
 	}
 
 	@Override
 	public void convertEObject(EObject eObject) throws IOException {
-		if (eObject == context.rootPackage) {
-			PackageConverter.convertRootPackage(context.rootPackage, context);
-		} else if (eObject instanceof Package) {
-			PackageConverter.convertPackage((Package)eObject,context);
-		} else if (eObject instanceof PackageImport || eObject instanceof ElementImport) {
-			// this will be handled instead as an import statement added when an external element is referenced   
-		} else if (eObject instanceof Element) {
-			UMLNamedInstanceConverter.convert((Element)eObject,context);
-		} else {
-			context.logger.warn("Not Converted : " + eObject.eClass().getName());
+		final ConversionEvent event = new ConversionEvent();
+		event.begin();
+		try {
+			if (eObject == context.rootPackage) {
+				PackageConverter.convertRootPackage(context.rootPackage, context);
+			} else if (eObject instanceof Package) {
+				PackageConverter.convertPackage((Package)eObject,context);
+			} else if (eObject instanceof PackageImport || eObject instanceof ElementImport) {
+				// this will be handled instead as an import statement added when an external element is referenced   
+			} else if (eObject instanceof Element) {
+				if (pruning == null || pruning.isSelected(eObject.eClass())) {
+					UMLNamedInstanceConverter.convert((Element)eObject,context);
+				}
+			} else {
+				context.logger.warn("Not Converted : " + eObject.eClass().getName());
+			}
+		} finally {
+			event.end();
+			if (event.shouldCommit()) {
+				event.commit("convert", eObject.eClass(), context.getConvertedIri(eObject));
+			}
 		}
 	}
 }
\ No newline at end of file
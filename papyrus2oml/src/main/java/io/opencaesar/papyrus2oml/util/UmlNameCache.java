@@ -0,0 +1,92 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.papyrus2oml.util;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.eclipse.uml2.uml.Element;
+import org.eclipse.uml2.uml.NamedElement;
+import org.eclipse.uml2.uml.Package;
+
+/**
+ * A per-run cache of the names computed by {@link UmlUtils#getName(Element)}.
+ * 
+ * Each element's name is computed once from the cached name of its owner, 
+ * instead of walking the whole owner chain on every call.
+ */
+public class UmlNameCache {
+
+	// a named package does not contribute to the names of its members
+	private static final String NO_PREFIX = new String();
+
+	private final Map<Element, String> names = new IdentityHashMap<>();
+	private long hits;
+	private long misses;
+
+	public String getName(Element element) {
+		String name = getPrefix(element);
+		return name != NO_PREFIX ? name : null;
+	}
+
+	private String getPrefix(Element element) {
+		String prefix = names.get(element);
+		if (prefix != null) {
+			hits++;
+			return prefix;
+		}
+		misses++;
+		String name = null;
+		if (element instanceof NamedElement) {
+			name = ((NamedElement)element).getName();
+		}
+		if (name==null || name.isEmpty()) {
+			prefix = UmlUtils._getID(element);
+		} else if (element instanceof Package) {
+			prefix = NO_PREFIX;
+		} else {
+			name = name.replace('&', '_'); // TODO: replace other unexpected chars
+			String ownerPrefix = getPrefix(element.getOwner());
+			prefix = (ownerPrefix == NO_PREFIX) ? name : ownerPrefix + "_" + name;
+		}
+		names.put(element, prefix);
+		return prefix;
+	}
+
+	public void clear() {
+		names.clear();
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	public long getMisses() {
+		return misses;
+	}
+
+	public double getHitRate() {
+		long total = hits + misses;
+		return total == 0 ? 0 : (double) hits / total;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d names, %d hits, %d misses (%.1f%% hit rate)", names.size(), hits, misses, getHitRate() * 100);
+	}
+}
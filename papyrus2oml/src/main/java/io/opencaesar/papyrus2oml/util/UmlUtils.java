@@ -29,7 +29,6 @@ import org.eclipse.uml2.uml.Package;
 import org.eclipse.uml2.uml.Property;
 
 import io.opencaesar.oml.Description;
-import io.opencaesar.oml.IdentifiedElement;
 import io.opencaesar.oml.Ontology;
 import io.opencaesar.papyrus2oml.util.ResourceConverter.ConversionContext;
 
@@ -61,16 +60,16 @@ public class UmlUtils {
 	
 	public static String getIRI(Element element, ConversionContext context) {
 		Package pkg = element.getNearestPackage();
-		Ontology ontology = (Ontology) context.umlToOml.get(pkg);
-		return ontology.getNamespace() + UmlUtils.getName(element);
+		Ontology ontology = context.descriptions.get(pkg);
+		return ontology.getNamespace() + context.names.getName(element);
 	}
 	
-	public static String getIRI(Description description, Element element) {
-		return description.getNamespace() + UmlUtils.getName(element);
+	public static String getIRI(Description description, Element element, ConversionContext context) {
+		return description.getNamespace() + context.names.getName(element);
 	}
 	
 	
-	private static String _getID(Element element) {
+	static String _getID(Element element) {
 		Resource res = element.eResource();
 		if (res instanceof XMLResource) {
 			return ((XMLResource)res).getID(element);
@@ -117,20 +116,18 @@ public class UmlUtils {
 
 	public static String getUMLIRI(Element element, ConversionContext context) {
 		Package pkg = element.getNearestPackage();
-		IdentifiedElement oPkg = context.umlToOml.get(pkg);
-		Ontology ontology = oPkg.getOntology();
+		Ontology ontology = context.descriptions.get(pkg);
 		String ns = ontology.getNamespace();
 		if (context.postFix!=null) {
 			String end = "" + ns.charAt(ns.length()-1);
 			ns = ns.substring(0,ns.length()-(context.postFix.length()+2)) + end;
 		}
-		return ns + UmlUtils.getName(element);
+		return ns + context.names.getName(element);
 	}
 
 	public static String getUMLONTIRI(Element element, ConversionContext context) {
 		Package pkg = element.getNearestPackage();
-		IdentifiedElement oPkg = context.umlToOml.get(pkg);
-		Ontology ontology = oPkg.getOntology();
+		Ontology ontology = context.descriptions.get(pkg);
 		String ns = ontology.getNamespace();
 		if (context.postFix!=null) {
 			ns = ns.substring(0,ns.length()-(context.postFix.length()+2));
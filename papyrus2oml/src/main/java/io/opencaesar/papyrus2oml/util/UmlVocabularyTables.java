@@ -0,0 +1,192 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.papyrus2oml.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.uml2.uml.UMLPackage;
+
+import io.opencaesar.oml.FeaturePredicate;
+import io.opencaesar.oml.Member;
+import io.opencaesar.oml.Relation;
+import io.opencaesar.oml.RelationEntity;
+import io.opencaesar.oml.Rule;
+import io.opencaesar.oml.Vocabulary;
+
+/**
+ * Immutable lookup tables compiled once from the UML vocabulary.
+ * 
+ * The tables map each UML metaclass to its type, concept type and relation type, and 
+ * each relation entity to the source and target relations of its rule (both directly 
+ * and resolved through the entity's specializations). They are cached on the vocabulary 
+ * so they are shared by all the converters that use the same vocabulary.
+ */
+public class UmlVocabularyTables extends AdapterImpl {
+
+	public static final String CONCEPT_POSTFIX = "_Concept";
+	public static final String RELATION_POSTFIX = "_Relation";
+	public static final String RULE_POSTFIX = "_Rule";
+
+	private static final Relation[] NO_ENDS = new Relation[2];
+
+	private final Map<String, Member> members;
+	private final Map<EClass, Member> types;
+	private final Map<EClass, Member> conceptTypes;
+	private final Map<EClass, Member> relationTypes;
+	private final Map<RelationEntity, Relation[]> ends;
+	private final Map<RelationEntity, Relation[]> resolvedEnds;
+
+	public static UmlVocabularyTables get(Vocabulary umlVoc) {
+		UmlVocabularyTables tables = (UmlVocabularyTables) EcoreUtil.getAdapter(umlVoc.eAdapters(), UmlVocabularyTables.class);
+		if (tables == null) {
+			tables = new UmlVocabularyTables(umlVoc);
+			umlVoc.eAdapters().add(tables);
+		}
+		return tables;
+	}
+
+	private UmlVocabularyTables(Vocabulary umlVoc) {
+		Map<String, Member> members = new HashMap<>();
+		TreeIterator<EObject> i = umlVoc.eAllContents();
+		while (i.hasNext()) {
+			EObject eObject = i.next();
+			if (eObject instanceof Member) {
+				members.putIfAbsent(((Member)eObject).getName(), (Member)eObject);
+			}
+		}
+		this.members = Collections.unmodifiableMap(members);
+
+		Map<EClass, Member> types = new IdentityHashMap<>();
+		Map<EClass, Member> conceptTypes = new IdentityHashMap<>();
+		Map<EClass, Member> relationTypes = new IdentityHashMap<>();
+		for (EClassifier classifier : UMLPackage.eINSTANCE.getEClassifiers()) {
+			if (classifier instanceof EClass) {
+				EClass eClass = (EClass) classifier;
+				putIfNotNull(types, eClass, members.get(eClass.getName()));
+				putIfNotNull(conceptTypes, eClass, members.get(eClass.getName() + CONCEPT_POSTFIX));
+				putIfNotNull(relationTypes, eClass, members.get(eClass.getName() + RELATION_POSTFIX));
+			}
+		}
+		this.types = Collections.unmodifiableMap(types);
+		this.conceptTypes = Collections.unmodifiableMap(conceptTypes);
+		this.relationTypes = Collections.unmodifiableMap(relationTypes);
+
+		Map<RelationEntity, Relation[]> ends = new IdentityHashMap<>();
+		for (Member member : members.values()) {
+			if (member instanceof RelationEntity) {
+				ends.put((RelationEntity)member, compileEnds((RelationEntity)member));
+			}
+		}
+		this.ends = Collections.unmodifiableMap(ends);
+		
+		Map<RelationEntity, Relation[]> resolvedEnds = new IdentityHashMap<>();
+		for (RelationEntity entity : ends.keySet()) {
+			resolvedEnds.put(entity, resolveEnds(entity));
+		}
+		this.resolvedEnds = Collections.unmodifiableMap(resolvedEnds);
+	}
+
+	private static <K, V> void putIfNotNull(Map<K, V> map, K key, V value) {
+		if (value != null) {
+			map.put(key, value);
+		}
+	}
+
+	private Relation[] compileEnds(RelationEntity entity) {
+		Rule rule = (Rule) members.get(entity.getName() + RULE_POSTFIX);
+		if (rule == null) {
+			return NO_ENDS;
+		}
+		return new Relation[] {
+			(Relation)((FeaturePredicate)rule.getConsequent().get(0)).getFeature(),
+			(Relation)((FeaturePredicate)rule.getConsequent().get(1)).getFeature()
+		};
+	}
+
+	private Relation[] getEnds(RelationEntity entity) {
+		Relation[] relations = ends.get(entity);
+		return relations != null ? relations : compileEnds(entity);
+	}
+
+	private Relation[] resolveEnds(RelationEntity entity) {
+		Relation[] relations = getEnds(entity);
+		while (relations[0] == null && !entity.getOwnedSpecializations().isEmpty()) {
+			RelationEntity superEntity = entity.getOwnedSpecializations().stream()
+					.map(s -> s.getSpecializedTerm())
+					.filter(t -> t instanceof RelationEntity)
+					.map(t -> (RelationEntity) t)
+					.findFirst().orElse(null);
+			if (superEntity == null) {
+				break;
+			}
+			entity = superEntity;
+			relations = getEnds(entity);
+		}
+		return relations;
+	}
+
+	public Member getMemberByName(String name) {
+		return members.get(name);
+	}
+
+	public Member getType(EClass eClass) {
+		return types.get(eClass);
+	}
+
+	public Member getConceptType(EClass eClass) {
+		return conceptTypes.get(eClass);
+	}
+
+	public Member getRelationType(EClass eClass) {
+		return relationTypes.get(eClass);
+	}
+
+	public Relation getSourceRelation(RelationEntity entity) {
+		return getEnds(entity)[0];
+	}
+
+	public Relation getTargetRelation(RelationEntity entity) {
+		return getEnds(entity)[1];
+	}
+
+	/**
+	 * @return the source relation of the given entity's rule, or of the rule of its nearest 
+	 * relation entity super type that has one
+	 */
+	public Relation getResolvedSourceRelation(RelationEntity entity) {
+		Relation[] relations = resolvedEnds.get(entity);
+		return (relations != null ? relations : resolveEnds(entity))[0];
+	}
+
+	/**
+	 * @return the target relation of the rule that {@link #getResolvedSourceRelation(RelationEntity)} comes from
+	 */
+	public Relation getResolvedTargetRelation(RelationEntity entity) {
+		Relation[] relations = resolvedEnds.get(entity);
+		return (relations != null ? relations : resolveEnds(entity))[1];
+	}
+}
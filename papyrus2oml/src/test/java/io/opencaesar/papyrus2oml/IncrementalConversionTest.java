@@ -0,0 +1,73 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.papyrus2oml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.eclipse.emf.ecore.xmi.XMLResource;
+import org.eclipse.uml2.uml.Class;
+import org.eclipse.uml2.uml.Dependency;
+import org.eclipse.uml2.uml.Package;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class IncrementalConversionTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void convertsOnlyTheChangedPackages() throws Exception {
+		TestModels models = new TestModels(folder.getRoot());
+		Package a = models.model.createNestedPackage("a");
+		Package b = models.model.createNestedPackage("b");
+		Class source = a.createOwnedClass("Source", false);
+		Class target = b.createOwnedClass("Target", false);
+		Dependency dependency = source.createDependency(target);
+		dependency.setName("SourceToTarget");
+		models.convert("--incremental");
+
+		File unchanged = new File(folder.getRoot(), "output/" + TestModels.MODEL_NAME + "/b.oml");
+		assertTrue(unchanged.setLastModified(1000));
+		source.setName("Origin");
+		String oml = models.convert("--incremental");
+
+		// the description of the unchanged package is kept, and the changed one still refers to it
+		assertEquals(1000, unchanged.lastModified());
+		assertTrue(oml, oml.contains("Origin"));
+		assertEquals(models.convert(), oml);
+	}
+
+	@Test
+	public void convertsThePackagesOfRenamedUnnamedElements() throws Exception {
+		TestModels models = new TestModels(folder.getRoot());
+		Package a = models.model.createNestedPackage("a");
+		Class unnamed = a.createOwnedClass(null, false);
+		models.convert("--incremental");
+
+		// an unnamed element is named after its XMI id
+		((XMLResource) models.model.eResource()).setID(unnamed, "renamed");
+		String oml = models.convert("--incremental");
+
+		assertTrue(oml, oml.contains("renamed"));
+	}
+}
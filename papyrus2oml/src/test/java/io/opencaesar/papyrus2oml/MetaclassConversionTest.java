@@ -0,0 +1,66 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.papyrus2oml;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.uml2.uml.AggregationKind;
+import org.eclipse.uml2.uml.Association;
+import org.eclipse.uml2.uml.Class;
+import org.eclipse.uml2.uml.Dependency;
+import org.eclipse.uml2.uml.Package;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MetaclassConversionTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private TestModels createModels() {
+		TestModels models = new TestModels(folder.getRoot());
+		Package package_ = models.model.createNestedPackage("pkg");
+		Class source = package_.createOwnedClass("Source", false);
+		Class target = package_.createOwnedClass("Target", false);
+		Dependency dependency = source.createDependency(target);
+		dependency.setName("SourceToTarget");
+		Association association = source.createAssociation(true, AggregationKind.NONE_LITERAL, "target", 0, 1, 
+				target, false, AggregationKind.NONE_LITERAL, "source", 0, 1);
+		association.setName("SourceWithTarget");
+		return models;
+	}
+
+	@Test
+	public void skipsRelationsWhoseEndsAreNotSelected() throws Exception {
+		String oml = createModels().convert("--metaclass", "Dependency", "--metaclass", "Association");
+
+		// the relations are skipped (with a warning) instead of failing or referring to missing instances
+		assertFalse(oml, oml.contains("SourceToTarget"));
+		assertFalse(oml, oml.contains("SourceWithTarget"));
+	}
+
+	@Test
+	public void convertsRelationsWhoseEndsAreSelected() throws Exception {
+		String oml = createModels().convert("--metaclass", "Dependency", "--metaclass", "Association", "--metaclass", "Class");
+
+		assertTrue(oml, oml.contains("SourceToTarget"));
+		assertTrue(oml, oml.contains("SourceWithTarget"));
+	}
+}
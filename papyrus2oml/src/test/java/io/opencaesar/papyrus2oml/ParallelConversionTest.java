@@ -0,0 +1,73 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.papyrus2oml;
+
+import static org.junit.Assert.assertEquals;
+
+import org.eclipse.uml2.uml.AggregationKind;
+import org.eclipse.uml2.uml.Class;
+import org.eclipse.uml2.uml.Dependency;
+import org.eclipse.uml2.uml.Package;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ParallelConversionTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private TestModels createModels() {
+		TestModels models = new TestModels(folder.getRoot());
+		Package a = models.model.createNestedPackage("a");
+		Package b = models.model.createNestedPackage("b");
+		Package c = models.model.createNestedPackage("c");
+		Package d = a.createNestedPackage("d");
+		Class a1 = a.createOwnedClass("A1", false);
+		Class a2 = a.createOwnedClass("A2", false);
+		Class b1 = b.createOwnedClass("B1", false);
+		Class c1 = c.createOwnedClass("C1", false);
+		Class d1 = d.createOwnedClass("D1", false);
+		// the parts refer to each other's elements and relations
+		a1.createAssociation(true, AggregationKind.NONE_LITERAL, "b1", 0, 1, b1, true, AggregationKind.NONE_LITERAL, "a1", 0, 1).setName("A1WithB1");
+		Dependency dependency = d1.createDependency(a2);
+		dependency.setName("D1ToA2");
+		dependency.applyStereotype(models.getTrace());
+		dependency.setValue(models.getTrace(), "weight", "heavy");
+		c1.createDependency(dependency).setName("C1ToD1ToA2");
+		b1.createDependency(c1).setName("B1ToC1");
+		a2.createDependency(d1).setName("A2ToD1");
+		return models;
+	}
+
+	@Test
+	public void convertsTheSameUmlOntologies() throws Exception {
+		TestModels models = createModels();
+		String oml = models.convert();
+
+		assertEquals(oml, models.convert("--conversion-threads", "3"));
+	}
+
+	@Test
+	public void convertsTheSameUmlDslOntologies() throws Exception {
+		TestModels models = createModels();
+		String oml = models.convert("-c", "uml_dsl");
+
+		assertEquals(oml, models.convert("-c", "uml_dsl", "--conversion-threads", "3"));
+	}
+}
@@ -0,0 +1,161 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.papyrus2oml;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.uml2.uml.Class;
+import org.eclipse.uml2.uml.Model;
+import org.eclipse.uml2.uml.PrimitiveType;
+import org.eclipse.uml2.uml.Profile;
+import org.eclipse.uml2.uml.Property;
+import org.eclipse.uml2.uml.Stereotype;
+import org.eclipse.uml2.uml.UMLFactory;
+import org.eclipse.uml2.uml.UMLPackage;
+import org.eclipse.uml2.uml.resource.UMLResource;
+import org.eclipse.uml2.uml.resources.util.UMLResourcesUtil;
+
+import io.opencaesar.oml.util.OmlConstants;
+
+/**
+ * Writes small Papyrus models (with a «Trace» stereotype on dependencies) and runs the conversion on them.
+ * 
+ * The conversion needs the UML vocabulary, which is resolved by the catalog that the {@value #CATALOG_PROPERTY} 
+ * system property points to, or else by the catalog of the minimal vocabulary in the test resources.
+ */
+class TestModels {
+
+	static final String CATALOG_PROPERTY = "papyrus2oml.test.catalog";
+	static final String MODEL_NAME = "model";
+	static final String PROFILE_IRI = "http://profile";
+
+	private static final String OMLIRI = "http://io.opencaesar.oml/omliri";
+
+	final File folder;
+	final ResourceSet resourceSet;
+	final Profile profile;
+	final Model model;
+	final PrimitiveType stringType;
+
+	TestModels(File folder) {
+		this.folder = folder;
+		resourceSet = new ResourceSetImpl();
+		UMLResourcesUtil.init(resourceSet);
+		Model metamodel = (Model) resourceSet.getResource(URI.createURI(UMLResource.UML_METAMODEL_URI), true).getContents().get(0);
+		Class dependencyMetaclass = (Class) metamodel.getOwnedType(UMLPackage.Literals.DEPENDENCY.getName());
+		Model primitives = (Model) resourceSet.getResource(URI.createURI(UMLResource.UML_PRIMITIVE_TYPES_LIBRARY_URI), true).getContents().get(0);
+		stringType = (PrimitiveType) primitives.getOwnedType("String");
+
+		profile = UMLFactory.eINSTANCE.createProfile();
+		profile.setName("profile");
+		profile.setURI(PROFILE_IRI);
+		resourceSet.createResource(getUri("model.profile.uml")).getContents().add(profile);
+		profile.createMetaclassReference(dependencyMetaclass);
+		Stereotype trace = profile.createOwnedStereotype("Trace", false);
+		trace.createExtension(dependencyMetaclass, false);
+		Property weight = trace.createOwnedAttribute("weight", stringType);
+		weight.createEAnnotation(OMLIRI).getDetails().put("iri", PROFILE_IRI + "#weight");
+		profile.define();
+
+		model = UMLFactory.eINSTANCE.createModel();
+		model.setName(MODEL_NAME);
+		resourceSet.createResource(getUri("model.uml")).getContents().add(model);
+		model.applyProfile(profile);
+	}
+
+	Stereotype getTrace() {
+		return profile.getOwnedStereotype("Trace");
+	}
+
+	/**
+	 * Saves the model, its profile, the vocabulary of the profile and a catalog, then converts the model
+	 * with the given extra arguments
+	 * 
+	 * @return the text of the OML ontologies written by the conversion
+	 */
+	String convert(String... args) throws Exception {
+		profile.eResource().save(Collections.emptyMap());
+		model.eResource().save(Collections.emptyMap());
+
+		File vocabularies = new File(folder, "vocabularies");
+		vocabularies.mkdirs();
+		String vocabulary = String.join("\n",
+			"vocabulary <" + PROFILE_IRI + "#> as profile {",
+			"",
+			"	extends <" + OmlConstants.XSD_NS + "> as xsd",
+			"",
+			"	concept Trace",
+			"",
+			"	scalar property weight [",
+			"		domain Trace",
+			"		range xsd:string",
+			"	]",
+			"}",
+			"");
+		Files.write(new File(vocabularies, "profile." + OmlConstants.OML_EXTENSION).toPath(), vocabulary.getBytes(StandardCharsets.UTF_8));
+
+		File output = new File(folder, "output");
+		String catalog = String.join("\n",
+			"<?xml version='1.0'?>",
+			"<catalog xmlns=\"urn:oasis:names:tc:entity:xmlns:xml:catalog\" prefer=\"public\">",
+			"	<rewriteURI uriStartString=\"" + PROFILE_IRI + "\" rewritePrefix=\"" + URI.createFileURI(new File(vocabularies, "profile").getAbsolutePath()) + "\"/>",
+			"	<rewriteURI uriStartString=\"http://" + MODEL_NAME + "\" rewritePrefix=\"" + URI.createFileURI(new File(output, MODEL_NAME).getAbsolutePath()) + "\"/>",
+			"	<nextCatalog catalog=\"" + URI.createFileURI(getUmlCatalog().getAbsolutePath()) + "\"/>",
+			"</catalog>",
+			"");
+		File catalogFile = new File(folder, "catalog.xml");
+		Files.write(catalogFile.toPath(), catalog.getBytes(StandardCharsets.UTF_8));
+
+		List<String> arguments = new ArrayList<>();
+		Collections.addAll(arguments, "-i", new File(folder, "model.uml").getAbsolutePath(), "-o", catalogFile.getAbsolutePath());
+		Collections.addAll(arguments, args);
+		Papyrus2OmlApp.main(arguments.toArray(new String[arguments.size()]));
+
+		StringBuilder text = new StringBuilder();
+		try (Stream<Path> files = Files.walk(output.toPath())) {
+			for (Path file : files.filter(f -> f.toString().endsWith("." + OmlConstants.OML_EXTENSION)).collect(Collectors.toList())) {
+				text.append(new String(Files.readAllBytes(file), StandardCharsets.UTF_8)).append('\n');
+			}
+		}
+		return text.toString();
+	}
+
+	private static File getUmlCatalog() throws URISyntaxException {
+		String umlCatalog = System.getProperty(CATALOG_PROPERTY);
+		if (umlCatalog != null) {
+			return new File(umlCatalog);
+		}
+		return new File(TestModels.class.getResource("/uml/catalog.xml").toURI());
+	}
+
+	private URI getUri(String name) {
+		return URI.createFileURI(new File(folder, name).getAbsolutePath());
+	}
+}
@@ -0,0 +1,52 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.papyrus2oml;
+
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.uml2.uml.Class;
+import org.eclipse.uml2.uml.Dependency;
+import org.eclipse.uml2.uml.Package;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class UmlDslConversionTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void convertsStereotypedDependency() throws Exception {
+		TestModels models = new TestModels(folder.getRoot());
+		Package package_ = models.model.createNestedPackage("pkg");
+		Class source = package_.createOwnedClass("Source", false);
+		Class target = package_.createOwnedClass("Target", false);
+		Dependency dependency = source.createDependency(target);
+		dependency.setName("SourceToTarget");
+		dependency.applyStereotype(models.getTrace());
+		dependency.setValue(models.getTrace(), "weight", "heavy");
+
+		String oml = models.convert("-c", "uml_dsl");
+
+		// the DSL assertions on the UML relation instance must not be dropped
+		assertTrue(oml, oml.contains("SourceToTarget"));
+		assertTrue(oml, oml.contains("Trace"));
+		assertTrue(oml, oml.contains("\"heavy\""));
+	}
+}
@@ -0,0 +1,139 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.papyrus2oml.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.URI;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.opencaesar.oml.util.OmlCatalog;
+
+public class CatalogResolverTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final Logger logger = Logger.getLogger(CatalogResolverTest.class);
+
+	private URI catalog(String path, String... entries) throws IOException {
+		File file = new File(folder.getRoot(), path);
+		file.getParentFile().mkdirs();
+		StringBuilder text = new StringBuilder();
+		text.append("<?xml version='1.0'?>\n");
+		text.append("<catalog xmlns=\"urn:oasis:names:tc:entity:xmlns:xml:catalog\" prefer=\"public\">\n");
+		for (String entry : entries) {
+			text.append("\t" + entry + "\n");
+		}
+		text.append("</catalog>\n");
+		Files.write(file.toPath(), text.toString().getBytes(StandardCharsets.UTF_8));
+		return URI.createFileURI(file.getAbsolutePath());
+	}
+
+	private static String rewrite(String start, String prefix) {
+		return "<rewriteURI uriStartString=\"" + start + "\" rewritePrefix=\"" + prefix + "\"/>";
+	}
+
+	private static String uri(String name, String uri) {
+		return "<uri name=\"" + name + "\" uri=\"" + uri + "\"/>";
+	}
+
+	private static String next(String catalog) {
+		return "<nextCatalog catalog=\"" + catalog + "\"/>";
+	}
+
+	private void assertEquivalent(URI catalogUri, List<String> iris) throws IOException {
+		CatalogResolver resolver = CatalogResolver.get(catalogUri, logger);
+		OmlCatalog catalog = OmlCatalog.create(catalogUri);
+		for (String iri : iris) {
+			assertEquals(iri, catalog.resolveURI(iri), resolver.resolveURI(iri));
+		}
+	}
+
+	@Test
+	public void resolvesRelativeRewritePrefixes() throws Exception {
+		URI catalogUri = catalog("catalog.xml",
+				rewrite("http://a/", "a/"),
+				rewrite("http://a/long/", "./long/"),
+				rewrite("http://b/", "../b/"));
+		assertEquivalent(catalogUri, Arrays.asList(
+				"http://a/x", 
+				"http://a/long/x", 
+				"http://a/longer", 
+				"http://b/y/z", 
+				"http://c/x"));
+	}
+
+	@Test
+	public void resolvesNestedNextCatalogs() throws Exception {
+		catalog("lib/nested/catalog.xml",
+				rewrite("http://c/", "c/"));
+		catalog("lib/catalog.xml",
+				rewrite("http://b/", "b/"),
+				rewrite("http://a/shadowed/", "shadowed/"),
+				next("nested/catalog.xml"));
+		URI catalogUri = catalog("catalog.xml",
+				uri("http://a/exact", "exact.oml"),
+				rewrite("http://a/", "a/"),
+				next("lib/catalog.xml"));
+		assertEquivalent(catalogUri, Arrays.asList(
+				"http://a/exact", 
+				"http://a/x", 
+				"http://a/shadowed/x", 
+				"http://b/x", 
+				"http://c/x/y", 
+				"http://d/x"));
+	}
+
+	@Test
+	public void sharesResolversUntilTheCatalogChanges() throws Exception {
+		URI catalogUri = catalog("catalog.xml", rewrite("http://a/", "a/"));
+		CatalogResolver resolver = CatalogResolver.get(catalogUri, logger);
+		assertSame(resolver, CatalogResolver.get(catalogUri, logger));
+		assertSame(resolver, CatalogResolver.of(resolver.getCatalog()));
+
+		File file = new File(catalogUri.toFileString());
+		file.setLastModified(file.lastModified() - 10000);
+		CatalogResolver changed = CatalogResolver.get(catalogUri, logger);
+		assertNotSame(resolver, changed);
+		assertNotSame(resolver, CatalogResolver.of(resolver.getCatalog()));
+	}
+
+	@Test
+	public void evictsTheLeastRecentlyUsedResolvers() throws Exception {
+		URI first = catalog("first/catalog.xml", rewrite("http://a/", "a/"));
+		CatalogResolver resolver = CatalogResolver.get(first, logger);
+		for (int i = 0; i < CatalogResolver.MAX_RESOLVERS; i++) {
+			CatalogResolver.get(catalog("other" + i + "/catalog.xml", rewrite("http://a/", "a/")), logger);
+		}
+		assertNotSame(resolver, CatalogResolver.get(first, logger));
+		assertNotSame(resolver, CatalogResolver.of(resolver.getCatalog()));
+	}
+}
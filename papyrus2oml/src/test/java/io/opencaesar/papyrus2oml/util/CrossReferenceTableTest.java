@@ -0,0 +1,156 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.papyrus2oml.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class CrossReferenceTableTest {
+
+	private static final String ONTOLOGY = "http://example.com/a";
+	private static final String NAMESPACE = ONTOLOGY + "#";
+
+	@Test
+	public void mapsElementsToIris() {
+		CrossReferenceTable table = new CrossReferenceTable(0);
+		Object element = new Object();
+		table.put(element, NAMESPACE + "x", ONTOLOGY, NAMESPACE);
+		assertTrue(table.contains(element));
+		assertEquals(NAMESPACE + "x", table.getIri(element));
+		assertEquals(ONTOLOGY, table.getOntologyIri(element));
+		assertEquals(1, table.size());
+	}
+
+	@Test
+	public void returnsNullForMissingElements() {
+		CrossReferenceTable table = new CrossReferenceTable(0);
+		table.put(new Object(), NAMESPACE + "x", ONTOLOGY, NAMESPACE);
+		Object missing = new Object();
+		assertFalse(table.contains(missing));
+		assertFalse(table.contains(null));
+		assertNull(table.getIri(missing));
+		assertNull(table.getOntologyIri(missing));
+		assertNull(table.getIri(null));
+		assertNull(table.getOntologyIri(null));
+	}
+
+	@Test
+	public void keysElementsByIdentity() {
+		CrossReferenceTable table = new CrossReferenceTable(0);
+		String first = new String("element");
+		String second = new String("element");
+		table.put(first, NAMESPACE + "first", ONTOLOGY, NAMESPACE);
+		table.put(second, NAMESPACE + "second", ONTOLOGY, NAMESPACE);
+		assertEquals(2, table.size());
+		assertEquals(NAMESPACE + "first", table.getIri(first));
+		assertEquals(NAMESPACE + "second", table.getIri(second));
+	}
+
+	@Test
+	public void replacesTheIriOfAnElement() {
+		CrossReferenceTable table = new CrossReferenceTable(0);
+		Object element = new Object();
+		table.put(element, NAMESPACE + "x", ONTOLOGY, NAMESPACE);
+		table.put(element, "http://example.com/b#y", "http://example.com/b", "http://example.com/b#");
+		assertEquals(1, table.size());
+		assertEquals("http://example.com/b#y", table.getIri(element));
+		assertEquals("http://example.com/b", table.getOntologyIri(element));
+	}
+
+	@Test
+	public void keepsIrisOutsideTheNamespaceWhole() {
+		CrossReferenceTable table = new CrossReferenceTable(0);
+		Object inside = new Object();
+		Object outside = new Object();
+		table.put(inside, NAMESPACE + "x", ONTOLOGY, NAMESPACE);
+		table.put(outside, "http://example.com/other#y", ONTOLOGY, NAMESPACE);
+		assertEquals(NAMESPACE + "x", table.getIri(inside));
+		assertEquals("http://example.com/other#y", table.getIri(outside));
+		assertEquals(ONTOLOGY, table.getOntologyIri(outside));
+	}
+
+	@Test
+	public void resolvesCollisionsAndGrows() {
+		// far more elements than the initial capacity, so slots collide and the table rehashes several times
+		CrossReferenceTable table = new CrossReferenceTable(1);
+		List<Object> elements = new ArrayList<>();
+		for (int i = 0; i < 10000; i++) {
+			Object element = new Object();
+			elements.add(element);
+			String ontology = "http://example.com/o" + (i % 7);
+			String iri = (i % 3 == 0) ? "http://example.com/full" + i : ontology + "#e" + i;
+			table.put(element, iri, ontology, ontology + "#");
+		}
+		assertEquals(elements.size(), table.size());
+		for (int i = 0; i < elements.size(); i++) {
+			String ontology = "http://example.com/o" + (i % 7);
+			String iri = (i % 3 == 0) ? "http://example.com/full" + i : ontology + "#e" + i;
+			assertEquals(iri, table.getIri(elements.get(i)));
+			assertEquals(ontology, table.getOntologyIri(elements.get(i)));
+		}
+	}
+
+	@Test
+	public void keepsEntriesWhenGrownAhead() {
+		CrossReferenceTable table = new CrossReferenceTable(0);
+		Object element = new Object();
+		table.put(element, NAMESPACE + "x", ONTOLOGY, NAMESPACE);
+		table.ensureCapacity(1000);
+		assertEquals(NAMESPACE + "x", table.getIri(element));
+		assertEquals(1, table.size());
+	}
+
+	@Test
+	public void addsTheEntriesOfAnotherTable() {
+		CrossReferenceTable table = new CrossReferenceTable(0);
+		CrossReferenceTable other = new CrossReferenceTable(0);
+		Object element = new Object();
+		Object inside = new Object();
+		Object outside = new Object();
+		table.put(element, "http://example.com/b#y", "http://example.com/b", "http://example.com/b#");
+		other.put(inside, NAMESPACE + "x", ONTOLOGY, NAMESPACE);
+		other.put(outside, "http://example.com/other#y", ONTOLOGY, NAMESPACE);
+		table.putAll(other);
+		assertEquals(3, table.size());
+		assertEquals("http://example.com/b#y", table.getIri(element));
+		assertEquals(NAMESPACE + "x", table.getIri(inside));
+		assertEquals(ONTOLOGY, table.getOntologyIri(inside));
+		assertEquals("http://example.com/other#y", table.getIri(outside));
+		assertEquals(ONTOLOGY, table.getOntologyIri(outside));
+	}
+
+	@Test
+	public void clearsEntriesAndOntologies() {
+		CrossReferenceTable table = new CrossReferenceTable(0);
+		Object element = new Object();
+		table.put(element, NAMESPACE + "x", ONTOLOGY, NAMESPACE);
+		table.clear();
+		assertEquals(0, table.size());
+		assertNull(table.getIri(element));
+		table.put(element, "http://example.com/b#y", "http://example.com/b", "http://example.com/b#");
+		assertEquals("http://example.com/b#y", table.getIri(element));
+		assertEquals("http://example.com/b", table.getOntologyIri(element));
+	}
+}
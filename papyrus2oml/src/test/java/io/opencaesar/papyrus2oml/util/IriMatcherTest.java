@@ -0,0 +1,153 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.papyrus2oml.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+public class IriMatcherTest {
+
+	private static final List<String> IRIS = Arrays.asList(
+			"", 
+			"h", 
+			"http://a", 
+			"http://a/", 
+			"http://a/b", 
+			"http://a/b#c", 
+			"http://a/bc/d", 
+			"http://ab/c", 
+			"http://b/a", 
+			"https://a/b", 
+			"http://a.b/c", 
+			"http://a/b*c", 
+			"http://a/\u00e9");
+
+	private static boolean startsWith(List<String> prefixes, String iri) {
+		return prefixes.stream().anyMatch(iri::startsWith);
+	}
+
+	private static void assertLikeStartsWith(String... prefixes) {
+		List<String> list = Arrays.asList(prefixes);
+		IriMatcher matcher = new IriMatcher(list);
+		for (String iri : IRIS) {
+			assertEquals(list + " " + iri, startsWith(list, iri), matcher.matches(iri));
+		}
+	}
+
+	@Test
+	public void matchesNothingWithoutPatterns() {
+		for (String iri : IRIS) {
+			assertFalse(IriMatcher.NONE.matches(iri));
+			assertFalse(new IriMatcher(Collections.emptyList()).matches(iri));
+		}
+		assertFalse(IriMatcher.NONE.matches(null));
+	}
+
+	@Test
+	public void matchesPrefixesLikeStartsWith() {
+		assertLikeStartsWith("http://a/");
+		assertLikeStartsWith("http://a");
+		assertLikeStartsWith("http://a/b", "http://a/bc");
+		assertLikeStartsWith("http://a/bc", "http://a/b");
+		assertLikeStartsWith("http://a/b#c", "http://b/");
+		assertLikeStartsWith("http://a/b/longer/than/the/iri");
+		assertLikeStartsWith("http://a.b/", "http://a/b*");
+		assertLikeStartsWith("http://a/\u00e9");
+		assertLikeStartsWith("");
+	}
+
+	@Test
+	public void matchesPrefixesWithGlobCharactersLiterally() {
+		IriMatcher matcher = new IriMatcher(Arrays.asList("http://a/b*", "http://a?/"));
+		assertTrue(matcher.matches("http://a/b*c"));
+		assertFalse(matcher.matches("http://a/bc"));
+		assertFalse(matcher.matches("http://ab/c"));
+	}
+
+	@Test
+	public void matchesGlobsOverTheWholeIri() {
+		IriMatcher matcher = new IriMatcher(Arrays.asList("glob:http://a/*"));
+		assertTrue(matcher.matches("http://a/b"));
+		assertTrue(matcher.matches("http://a/"));
+		assertFalse(matcher.matches("http://a"));
+		assertFalse(matcher.matches("https://a/b"));
+	}
+
+	@Test
+	public void stopsGlobStarAtSlashAndHash() {
+		IriMatcher matcher = new IriMatcher(Arrays.asList("glob:http://a/*"));
+		assertFalse(matcher.matches("http://a/b/c"));
+		assertFalse(matcher.matches("http://a/b#c"));
+		matcher = new IriMatcher(Arrays.asList("glob:http://a/?"));
+		assertTrue(matcher.matches("http://a/b"));
+		assertFalse(matcher.matches("http://a/bc"));
+		assertFalse(matcher.matches("http://a//"));
+		assertFalse(matcher.matches("http://a/#"));
+	}
+
+	@Test
+	public void crossesSegmentsWithGlobDoubleStar() {
+		IriMatcher matcher = new IriMatcher(Arrays.asList("glob:http://a/**"));
+		assertTrue(matcher.matches("http://a/"));
+		assertTrue(matcher.matches("http://a/b/c"));
+		assertTrue(matcher.matches("http://a/b#c"));
+		assertFalse(matcher.matches("http://ab/c"));
+		matcher = new IriMatcher(Arrays.asList("glob:http://**/vocab/*"));
+		assertTrue(matcher.matches("http://a/b/vocab/c"));
+		assertFalse(matcher.matches("http://a/b/vocab/c/d"));
+	}
+
+	@Test
+	public void escapesRegexCharactersInGlobs() {
+		IriMatcher matcher = new IriMatcher(Arrays.asList("glob:http://a.b/(x)+[y]{1}|$^-z"));
+		assertTrue(matcher.matches("http://a.b/(x)+[y]{1}|$^-z"));
+		assertFalse(matcher.matches("http://aXb/(x)+[y]{1}|$^-z"));
+		assertFalse(matcher.matches("http://a.b/xx[y]{1}|$^-z"));
+		matcher = new IriMatcher(Arrays.asList("glob:http://a\\b"));
+		assertTrue(matcher.matches("http://a\\b"));
+	}
+
+	@Test
+	public void matchesRegexesOverTheWholeIri() {
+		IriMatcher matcher = new IriMatcher(Arrays.asList("regex:http://a/[0-9]+"));
+		assertTrue(matcher.matches("http://a/42"));
+		assertFalse(matcher.matches("http://a/42/b"));
+		assertFalse(matcher.matches("xhttp://a/42"));
+		matcher = new IriMatcher(Arrays.asList("regex:.*#internal.*"));
+		assertTrue(matcher.matches("http://a/b#internal"));
+		assertTrue(matcher.matches("http://a/b#internalC"));
+		assertFalse(matcher.matches("http://a/b#c"));
+	}
+
+	@Test
+	public void combinesPrefixesGlobsAndRegexes() {
+		IriMatcher matcher = new IriMatcher(Arrays.asList("http://a/", "glob:http://b/*", "regex:http://c/\\d"));
+		assertTrue(matcher.matches("http://a/b/c"));
+		assertTrue(matcher.matches("http://b/c"));
+		assertFalse(matcher.matches("http://b/c/d"));
+		assertTrue(matcher.matches("http://c/1"));
+		assertFalse(matcher.matches("http://c/x"));
+	}
+}
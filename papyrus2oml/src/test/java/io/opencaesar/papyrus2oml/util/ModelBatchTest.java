@@ -0,0 +1,100 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.papyrus2oml.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ModelBatchTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File model(String path, String... hrefs) throws IOException {
+		File file = new File(folder.getRoot(), path);
+		file.getParentFile().mkdirs();
+		StringBuilder text = new StringBuilder("<uml:Model>\n");
+		for (String href : hrefs) {
+			text.append("  <type href=\"" + href + "#_id\"/>\n");
+		}
+		text.append("</uml:Model>\n");
+		Files.write(file.toPath(), text.toString().getBytes(StandardCharsets.UTF_8));
+		return file.getCanonicalFile();
+	}
+
+	private ModelBatch batch(File... models) throws IOException {
+		return new ModelBatch(Arrays.asList(models), Logger.getLogger(ModelBatchTest.class));
+	}
+
+	@Test
+	public void findsRelativeReferences() throws Exception {
+		File a = model("proj/models/a.uml", "b.uml");
+		File b = model("proj/models/b.uml");
+		ModelBatch batch = batch(a, b);
+		assertEquals(Collections.singleton(b), batch.getDependencies(a));
+		assertEquals(Collections.emptySet(), batch.getDependencies(b));
+	}
+
+	@Test
+	public void mapsPlatformResourceReferences() throws Exception {
+		File a = model("proj/models/a.uml", "platform:/resource/proj/lib/b.uml");
+		File b = model("proj/lib/b.uml");
+		ModelBatch batch = batch(a, b);
+		assertEquals(Collections.singleton(b), batch.getDependencies(a));
+	}
+
+	@Test
+	public void ignoresUnmappedPlatformResourceReferences() throws Exception {
+		File a = model("proj/models/a.uml", "platform:/resource/other/b.uml");
+		File b = model("proj/models/b.uml");
+		ModelBatch batch = batch(a, b);
+		assertEquals(Collections.emptySet(), batch.getDependencies(a));
+	}
+
+	@Test
+	public void dropsTheDependencyThatClosesACycle() throws Exception {
+		File a = model("a.uml", "b.uml");
+		File b = model("b.uml", "a.uml");
+		ModelBatch batch = batch(a, b);
+		assertEquals(Collections.emptySet(), batch.getDependencies(b));
+		assertEquals(Collections.singleton(b), batch.getDependencies(a));
+	}
+
+	@Test
+	public void convertsModelsAfterTheirDependencies() throws Exception {
+		File a = model("a.uml", "b.uml");
+		File b = model("b.uml", "c.uml");
+		File c = model("c.uml");
+		List<File> converted = Collections.synchronizedList(new ArrayList<>());
+		batch(a, b, c).convert(2, converted::add);
+		assertEquals(Arrays.asList(c, b, a), converted);
+	}
+}
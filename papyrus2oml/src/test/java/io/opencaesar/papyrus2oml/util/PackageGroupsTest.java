@@ -0,0 +1,101 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.papyrus2oml.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.uml2.uml.Class;
+import org.eclipse.uml2.uml.Model;
+import org.eclipse.uml2.uml.Package;
+import org.eclipse.uml2.uml.UMLFactory;
+import org.junit.Test;
+
+public class PackageGroupsTest {
+
+	private final Model model = UMLFactory.eINSTANCE.createModel();
+
+	private Class createClass(Package package_, String name, Class... references) {
+		Class class_ = package_.createOwnedClass(name, false);
+		for (Class reference : references) {
+			class_.createOwnedAttribute(reference.getName().toLowerCase(), reference);
+		}
+		return class_;
+	}
+
+	private static Set<Package> set(Package... packages) {
+		return new LinkedHashSet<>(Arrays.asList(packages));
+	}
+
+	@Test
+	public void listsGroupsAfterTheGroupsTheyDependOn() {
+		Package a = model.createNestedPackage("a");
+		Package b = model.createNestedPackage("b");
+		Package c = model.createNestedPackage("c");
+		Class a1 = createClass(a, "A1");
+		createClass(a, "A2");
+		createClass(a, "A3");
+		Class b1 = createClass(b, "B1", a1);
+		createClass(c, "C1", b1);
+
+		PackageGroups groups = new PackageGroups(Arrays.asList(c, b, a), null);
+
+		assertEquals(Arrays.asList(set(a), set(b), set(c)), groups.getGroups());
+		assertEquals(set(b), groups.getDependencies(set(c)));
+		assertEquals(Collections.emptySet(), groups.getDependencies(set(a)));
+	}
+
+	@Test
+	public void groupsPackagesThatReferToEachOther() {
+		Package a = model.createNestedPackage("a");
+		Package b = model.createNestedPackage("b");
+		Package c = model.createNestedPackage("c");
+		Package d = model.createNestedPackage("d");
+		Class a1 = createClass(a, "A1");
+		Class b1 = createClass(b, "B1", a1);
+		a1.createOwnedAttribute("b1", b1);
+		createClass(c, "C1", a1);
+		createClass(d, "D1");
+
+		List<Set<Package>> groups = new PackageGroups(Arrays.asList(a, b, c, d), null).getGroups();
+
+		// the small groups that follow are merged up to the size of the largest one
+		assertEquals(Arrays.asList(set(a, b), set(c, d)), groups);
+	}
+
+	@Test
+	public void ignoresReferencesToOtherPackages() {
+		Package a = model.createNestedPackage("a");
+		Package b = model.createNestedPackage("b");
+		Package other = model.createNestedPackage("other");
+		Class o1 = createClass(other, "O1");
+		createClass(a, "A1", o1);
+		createClass(a, "A2");
+		createClass(b, "B1", o1);
+
+		PackageGroups groups = new PackageGroups(Arrays.asList(a, b), null);
+
+		assertEquals(Arrays.asList(set(a), set(b)), groups.getGroups());
+		assertEquals(Collections.emptySet(), groups.getDependencies(set(b)));
+	}
+}
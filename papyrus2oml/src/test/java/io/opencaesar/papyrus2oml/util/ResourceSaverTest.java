@@ -0,0 +1,160 @@
+/**
+ * 
+ * Copyright 2021 Modelware Solutions and CAE-LIST.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package io.opencaesar.papyrus2oml.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceFactoryImpl;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ResourceSaverTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final Map<String, List<String>> imported = new HashMap<>();
+
+	private void imports(String resource, String... targets) {
+		imported.put(resource, Arrays.asList(targets));
+	}
+
+	private List<List<String>> schedule(String... resources) {
+		return ResourceSaver.getUnloadSchedule(Arrays.asList(resources), imported);
+	}
+
+	@Test
+	public void unloadsImportersFirstWhenSavedFirst() {
+		imports("a", "b");
+		imports("b", "c");
+		imports("c");
+		assertEquals(Arrays.asList(
+				Arrays.asList("a"), 
+				Arrays.asList("b"), 
+				Arrays.asList("c")), schedule("a", "b", "c"));
+	}
+
+	@Test
+	public void keepsImportedResourcesUntilTheirImportersAreSaved() {
+		imports("a", "b");
+		imports("b", "c");
+		imports("c");
+		assertEquals(Arrays.asList(
+				Collections.emptyList(), 
+				Arrays.asList("c"), 
+				Arrays.asList("b", "a")), schedule("c", "b", "a"));
+	}
+
+	@Test
+	public void countsEveryImporterOfASharedResource() {
+		imports("a", "c");
+		imports("b", "c");
+		imports("c");
+		assertEquals(Arrays.asList(
+				Collections.emptyList(), 
+				Arrays.asList("a"), 
+				Arrays.asList("c", "b")), schedule("c", "a", "b"));
+	}
+
+	@Test
+	public void unloadsASharedResourceSavedLast() {
+		imports("a", "c");
+		imports("b", "c");
+		imports("c");
+		assertEquals(Arrays.asList(
+				Arrays.asList("a"), 
+				Arrays.asList("b"), 
+				Arrays.asList("c")), schedule("a", "b", "c"));
+	}
+
+	@Test
+	public void unloadsEveryResourceOnce() {
+		imports("a", "b", "c");
+		imports("b", "c");
+		imports("c");
+		imports("d", "a");
+		List<List<String>> schedule = schedule("b", "d", "c", "a");
+		assertEquals(Arrays.asList(
+				Collections.emptyList(), 
+				Arrays.asList("d"), 
+				Collections.emptyList(), 
+				Arrays.asList("b", "c", "a")), schedule);
+	}
+
+	/**
+	 * Creates the given number of resources in the given folder, whose classes extend the class of the previous resource
+	 */
+	private static List<Resource> createResources(File folder, int count) {
+		ResourceSet resourceSet = new ResourceSetImpl();
+		resourceSet.getResourceFactoryRegistry().getExtensionToFactoryMap().put("ecore", new XMIResourceFactoryImpl());
+		List<Resource> resources = new ArrayList<>();
+		EClass previous = null;
+		for (int i = 0; i < count; i++) {
+			EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+			ePackage.setName("p" + i);
+			ePackage.setNsURI("http://p" + i);
+			for (int j = 0; j < 10; j++) {
+				EClass eClass = EcoreFactory.eINSTANCE.createEClass();
+				eClass.setName("C" + j);
+				if (previous != null) {
+					eClass.getESuperTypes().add(previous);
+				}
+				ePackage.getEClassifiers().add(eClass);
+			}
+			previous = (EClass) ePackage.getEClassifiers().get(0);
+			Resource resource = resourceSet.createResource(URI.createFileURI(new File(folder, "p" + i + ".ecore").getAbsolutePath()));
+			resource.getContents().add(ePackage);
+			resources.add(resource);
+		}
+		return resources;
+	}
+
+	@Test
+	public void savesTheSameFilesOnSeveralThreads() throws IOException {
+		File sequential = folder.newFolder("sequential");
+		File parallel = folder.newFolder("parallel");
+		Logger logger = Logger.getLogger(ResourceSaverTest.class);
+		new ResourceSaver(1, logger).save(createResources(sequential, 20));
+		new ResourceSaver(4, logger).save(createResources(parallel, 20));
+		for (int i = 0; i < 20; i++) {
+			String name = "p" + i + ".ecore";
+			assertArrayEquals(name, Files.readAllBytes(new File(sequential, name).toPath()), Files.readAllBytes(new File(parallel, name).toPath()));
+		}
+		assertEquals(20, parallel.list().length);
+	}
+}